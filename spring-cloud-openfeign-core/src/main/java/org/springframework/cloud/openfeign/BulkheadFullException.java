@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+/**
+ * Thrown instead of invoking a method of a Feign client when the client, or the
+ * method, already has as many invocations in flight as its bulkhead allows.
+ *
+ * @see FeignClientProperties.Bulkhead
+ */
+public class BulkheadFullException extends RuntimeException {
+
+	private final String configKey;
+
+	public BulkheadFullException(String configKey, String message) {
+		super(message);
+		this.configKey = configKey;
+	}
+
+	/**
+	 * @return the {@link feign.Feign#configKey(Class, java.lang.reflect.Method) config
+	 * key} of the rejected method
+	 */
+	public String getConfigKey() {
+		return this.configKey;
+	}
+
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import feign.Feign;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Target;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link Targeter} that isolates the Feign clients from each other, and the methods of
+ * each client from each other, with semaphores instead of the thread pools of Hystrix.
+ * The invocations run on the calling thread, and are rejected with a
+ * {@link BulkheadFullException} when the client or the method has no permit left. The
+ * methods of each client share a fixed set of semaphores of their own, the one of each
+ * method being chosen by its {@link Feign#configKey(Class, Method) config key}, so only
+ * methods of the same client may share their permits. The fallback and the fallback
+ * factory of a client are looked up and invoked as they are by the
+ * {@link HystrixTargeter}. The permits of a method returning a
+ * {@link CompletableFuture}, a {@code Mono} or a {@code Flux} are held until its
+ * result completes, and its fallback is applied to the failure of the result.
+ *
+ * @see FeignClientProperties.Bulkhead
+ */
+@SuppressWarnings("unchecked")
+class BulkheadTargeter implements Targeter {
+
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Flux", BulkheadTargeter.class.getClassLoader());
+
+	private final FeignClientProperties.Bulkhead properties;
+
+	private final Map<String, Bulkhead> clients = new ConcurrentHashMap<>();
+
+	BulkheadTargeter(FeignClientProperties.Bulkhead properties) {
+		this.properties = properties;
+	}
+
+	@Override
+	public <T> T target(FeignClientFactoryBean factory, Feign.Builder feign,
+			FeignContext context, Target.HardCodedTarget<T> target) {
+		String name = StringUtils.isEmpty(factory.getContextId()) ? factory.getName()
+				: factory.getContextId();
+		Function<Throwable, Object> fallbackFactory = FeignFallbacks
+				.getFallbackFactory(factory, name, context, target.type());
+		Bulkhead bulkhead = getBulkhead(name);
+		try {
+			feign.invocationHandlerFactory((t, dispatch) -> new BulkheadInvocationHandler(
+					t, dispatch, bulkhead, fallbackFactory));
+		}
+		catch (UnsupportedOperationException ex) {
+			throw new IllegalStateException("Feign client " + name
+					+ " cannot be isolated by a bulkhead, as its builder does not accept "
+					+ "an invocation handler. Is feign.hystrix.enabled set?", ex);
+		}
+		return feign.target(target);
+	}
+
+	Bulkhead getBulkhead(String name) {
+		return this.clients.computeIfAbsent(name, key -> new Bulkhead(this.properties));
+	}
+
+	private static Throwable unwrap(Throwable ex) {
+		if (ex instanceof CompletionException && ex.getCause() != null) {
+			return ex.getCause();
+		}
+		return ex;
+	}
+
+	/**
+	 * Takes the permits of the methods returning {@link Mono} or {@link Flux} when the
+	 * publisher is subscribed to, rather than when it is created, and holds them until
+	 * it terminates or is cancelled. Kept apart so that Reactor is only loaded when it
+	 * is on the class path.
+	 */
+	private static final class ReactiveBulkheads {
+
+		static boolean isReactive(Method method) {
+			return method.getReturnType() == Mono.class
+					|| method.getReturnType() == Flux.class;
+		}
+
+		static Object invoke(BulkheadInvocationHandler handler, Method method,
+				String configKey, Semaphore stripe, Object[] args) {
+			if (method.getReturnType() == Mono.class) {
+				return Mono.defer(() -> {
+					handler.acquire(configKey, stripe);
+					Runnable release = releaseOnce(handler, stripe);
+					return ((Mono<Object>) dispatch(handler, method, stripe, args))
+							.doOnNext(value -> release.run()).doOnTerminate(release)
+							.doFinally(signal -> release.run());
+				}).onErrorResume(ex -> Mono
+						.defer(() -> (Mono<Object>) fallback(handler, method, args, ex)));
+			}
+			return Flux.defer(() -> {
+				handler.acquire(configKey, stripe);
+				Runnable release = releaseOnce(handler, stripe);
+				return ((Flux<Object>) dispatch(handler, method, stripe, args))
+						.doOnTerminate(release).doFinally(signal -> release.run());
+			}).onErrorResume(ex -> Flux
+					.defer(() -> (Flux<Object>) fallback(handler, method, args, ex)));
+		}
+
+		/**
+		 * Releases the permits as soon as the result terminates, before the subscriber
+		 * sees it and possibly calls the client again, or when it is cancelled.
+		 */
+		private static Runnable releaseOnce(BulkheadInvocationHandler handler,
+				Semaphore stripe) {
+			AtomicBoolean released = new AtomicBoolean();
+			return () -> {
+				if (released.compareAndSet(false, true)) {
+					handler.release(stripe);
+				}
+			};
+		}
+
+		private static Object dispatch(BulkheadInvocationHandler handler, Method method,
+				Semaphore stripe, Object[] args) {
+			try {
+				return handler.dispatch.get(method).invoke(args);
+			}
+			catch (Throwable ex) {
+				handler.release(stripe);
+				throw Exceptions.propagate(ex);
+			}
+		}
+
+		private static Object fallback(BulkheadInvocationHandler handler,
+				Method method, Object[] args, Throwable cause) {
+			if (handler.fallbackFactory == null) {
+				return method.getReturnType() == Mono.class ? Mono.error(cause)
+						: Flux.error(cause);
+			}
+			try {
+				return FeignFallbacks.invoke(handler.fallbackFactory, method, args,
+						cause);
+			}
+			catch (Throwable ex) {
+				throw Exceptions.propagate(ex);
+			}
+		}
+
+	}
+
+	/**
+	 * The semaphore of a client and the semaphores shared by its methods.
+	 */
+	static final class Bulkhead {
+
+		private final Semaphore client;
+
+		private final Semaphore[] stripes;
+
+		Bulkhead(FeignClientProperties.Bulkhead properties) {
+			this.client = new Semaphore(properties.getMaxConcurrentCalls());
+			this.stripes = new Semaphore[Math.max(1, properties.getStripes())];
+			for (int i = 0; i < this.stripes.length; i++) {
+				this.stripes[i] = new Semaphore(
+						properties.getMaxConcurrentCallsPerMethod());
+			}
+		}
+
+		Semaphore getStripe(String configKey) {
+			int hash = configKey.hashCode();
+			hash ^= (hash >>> 16);
+			return this.stripes[(hash & Integer.MAX_VALUE) % this.stripes.length];
+		}
+
+	}
+
+	private final class BulkheadInvocationHandler implements InvocationHandler {
+
+		private final Target<?> target;
+
+		private final Map<Method, MethodHandler> dispatch;
+
+		private final Map<Method, String> configKeys = new HashMap<>();
+
+		private final Bulkhead bulkhead;
+
+		private final Function<Throwable, Object> fallbackFactory;
+
+		BulkheadInvocationHandler(Target<?> target, Map<Method, MethodHandler> dispatch,
+				Bulkhead bulkhead, Function<Throwable, Object> fallbackFactory) {
+			this.target = target;
+			this.dispatch = dispatch;
+			this.bulkhead = bulkhead;
+			this.fallbackFactory = fallbackFactory;
+			for (Method method : dispatch.keySet()) {
+				this.configKeys.put(method, Feign.configKey(target.type(), method));
+			}
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args)
+				throws Throwable {
+			if ("equals".equals(method.getName())) {
+				try {
+					Object otherHandler = args.length > 0 && args[0] != null
+							? Proxy.getInvocationHandler(args[0]) : null;
+					return equals(otherHandler);
+				}
+				catch (IllegalArgumentException ex) {
+					return false;
+				}
+			}
+			else if ("hashCode".equals(method.getName())) {
+				return hashCode();
+			}
+			else if ("toString".equals(method.getName())) {
+				return toString();
+			}
+
+			String configKey = this.configKeys.get(method);
+			Semaphore stripe = this.bulkhead.getStripe(configKey);
+			if (reactorPresent && ReactiveBulkheads.isReactive(method)) {
+				return ReactiveBulkheads.invoke(this, method, configKey, stripe, args);
+			}
+			Object result;
+			try {
+				result = invoke(method, configKey, stripe, args);
+			}
+			catch (Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				return fallback(method, args, ex);
+			}
+			if (result instanceof CompletableFuture) {
+				return whenComplete(method, args, stripe,
+						(CompletableFuture<Object>) result);
+			}
+			release(stripe);
+			return result;
+		}
+
+		private Object invoke(Method method, String configKey, Semaphore stripe,
+				Object[] args) throws Throwable {
+			acquire(configKey, stripe);
+			try {
+				return this.dispatch.get(method).invoke(args);
+			}
+			catch (Throwable ex) {
+				release(stripe);
+				throw ex;
+			}
+		}
+
+		private CompletableFuture<Object> whenComplete(Method method, Object[] args,
+				Semaphore stripe, CompletableFuture<Object> result) {
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			result.whenComplete((value, ex) -> {
+				release(stripe);
+				if (ex == null) {
+					future.complete(value);
+					return;
+				}
+				try {
+					Object fallback = fallback(method, args, unwrap(ex));
+					if (fallback instanceof CompletionStage) {
+						((CompletionStage<Object>) fallback).whenComplete((v, e) -> {
+							if (e == null) {
+								future.complete(v);
+							}
+							else {
+								future.completeExceptionally(e);
+							}
+						});
+					}
+					else {
+						future.complete(fallback);
+					}
+				}
+				catch (Throwable fallbackEx) {
+					future.completeExceptionally(fallbackEx);
+				}
+			});
+			return future;
+		}
+
+		private Object fallback(Method method, Object[] args, Throwable cause)
+				throws Throwable {
+			if (this.fallbackFactory == null) {
+				throw cause;
+			}
+			return FeignFallbacks.invoke(this.fallbackFactory, method, args, cause);
+		}
+
+		private void acquire(String configKey, Semaphore stripe) {
+			if (!this.bulkhead.client.tryAcquire()) {
+				throw new BulkheadFullException(configKey,
+						"Bulkhead of Feign client " + this.target.name() + " is full");
+			}
+			if (!stripe.tryAcquire()) {
+				this.bulkhead.client.release();
+				throw new BulkheadFullException(configKey,
+						"Bulkhead of " + configKey + " is full");
+			}
+		}
+
+		private void release(Semaphore stripe) {
+			stripe.release();
+			this.bulkhead.client.release();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof BulkheadInvocationHandler) {
+				BulkheadInvocationHandler other = (BulkheadInvocationHandler) obj;
+				return this.target.equals(other.target);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.target.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return this.target.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+/**
+ * Thrown instead of sending a request when a Feign client already has as many requests
+ * in flight as its concurrency limit allows. A fallback of the client handles it like
+ * any other failure.
+ *
+ * @see FeignConcurrencyLimiter
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+	private final String contextId;
+
+	private final int limit;
+
+	public ConcurrencyLimitExceededException(String contextId, int limit) {
+		super("Concurrency limit of " + limit + " requests reached for Feign client '"
+				+ contextId + "'");
+		this.contextId = contextId;
+		this.limit = limit;
+	}
+
+	public String getContextId() {
+		return this.contextId;
+	}
+
+	public int getLimit() {
+		return this.limit;
+	}
+
+}
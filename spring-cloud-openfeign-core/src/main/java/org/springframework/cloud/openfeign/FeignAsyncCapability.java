@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import feign.Capability;
+import feign.Contract;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+
+/**
+ * {@link Capability} that lets the methods of a Feign client return
+ * {@link CompletableFuture}. The contract decodes the responses of such methods into
+ * the type of the future, and their invocation is handed over to a
+ * {@link FeignAsyncExecutor}. Everything else about the invocation, such as the
+ * encoder, the decoder, the interceptors and the load balanced {@link feign.Client},
+ * stays the same as for a synchronous method.
+ */
+public class FeignAsyncCapability implements Capability {
+
+	private final FeignAsyncExecutor executor;
+
+	private final Set<String> asyncMethods = ConcurrentHashMap.newKeySet();
+
+	public FeignAsyncCapability(FeignAsyncExecutor executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public Contract enrich(Contract contract) {
+		return targetType -> {
+			List<MethodMetadata> metadata = contract.parseAndValidateMetadata(targetType);
+			for (MethodMetadata md : metadata) {
+				Type returnType = md.returnType();
+				if (returnType == CompletableFuture.class) {
+					md.returnType(Object.class);
+					this.asyncMethods.add(md.configKey());
+				}
+				else if (returnType instanceof ParameterizedType
+						&& ((ParameterizedType) returnType)
+								.getRawType() == CompletableFuture.class) {
+					md.returnType(((ParameterizedType) returnType)
+							.getActualTypeArguments()[0]);
+					this.asyncMethods.add(md.configKey());
+				}
+			}
+			return metadata;
+		};
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(
+			InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> asyncDispatch = new LinkedHashMap<>(dispatch);
+			asyncDispatch.replaceAll((method, handler) -> this.asyncMethods
+					.contains(Feign.configKey(target.type(), method))
+							? argv -> this.executor.submit(() -> invoke(handler, argv))
+							: handler);
+			return invocationHandlerFactory.create(target, asyncDispatch);
+		};
+	}
+
+	static Object invoke(MethodHandler handler, Object[] argv)
+			throws Exception {
+		try {
+			return handler.invoke(argv);
+		}
+		catch (Exception | Error ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			throw new UndeclaredThrowableException(ex);
+		}
+	}
+
+}
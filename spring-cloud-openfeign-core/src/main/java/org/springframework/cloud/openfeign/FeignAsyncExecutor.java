@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Runs the invocations of {@link FeignClient#async() asynchronous} Feign clients. A
+ * bean of this type in the configuration of a client replaces the shared one for that
+ * client only.
+ */
+public class FeignAsyncExecutor implements DisposableBean {
+
+	private static final String THREAD_NAME_PREFIX = "feign-async-";
+
+	private final ExecutorService executorService;
+
+	public FeignAsyncExecutor(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Creates an executor with a fixed number of daemon threads and a bounded queue.
+	 * Invocations submitted while the queue is full complete exceptionally with a
+	 * {@link RejectedExecutionException}.
+	 * @param poolSize the number of threads
+	 * @param queueCapacity the number of invocations that may wait for a thread
+	 * @return the executor
+	 */
+	public static FeignAsyncExecutor create(int poolSize, int queueCapacity) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				THREAD_NAME_PREFIX);
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+				threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return new FeignAsyncExecutor(executor);
+	}
+
+	/**
+	 * Creates an executor starting a new virtual thread for every invocation, so that
+	 * the number of concurrent invocations is not bounded by a number of threads.
+	 * @return the executor
+	 * @throws IllegalStateException if the JVM does not support virtual threads
+	 * @see #isVirtualThreadsSupported()
+	 */
+	public static FeignAsyncExecutor createOnVirtualThreads() {
+		// resolved reflectively as virtual threads are only available from Java 21
+		try {
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderType.getMethod("name", String.class, long.class)
+					.invoke(builder, THREAD_NAME_PREFIX, 1L);
+			ThreadFactory threadFactory = (ThreadFactory) builderType
+					.getMethod("factory").invoke(builder);
+			Method newThreadPerTaskExecutor = Executors.class
+					.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return new FeignAsyncExecutor((ExecutorService) newThreadPerTaskExecutor
+					.invoke(null, threadFactory));
+		}
+		catch (ReflectiveOperationException | RuntimeException ex) {
+			throw new IllegalStateException(
+					"Virtual threads are not supported by this JVM", ex);
+		}
+	}
+
+	/**
+	 * @return whether {@link #createOnVirtualThreads()} can be used on this JVM
+	 */
+	public static boolean isVirtualThreadsSupported() {
+		try {
+			// creating the builder fails on JVMs where virtual threads are a preview
+			// feature that is not enabled
+			Thread.class.getMethod("ofVirtual").invoke(null);
+			Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return true;
+		}
+		catch (ReflectiveOperationException | RuntimeException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Submits the given invocation. Cancelling the returned future interrupts the
+	 * invocation if it is running.
+	 * @param invocation the invocation to run
+	 * @param <T> the result type
+	 * @return a future completed with the result of the invocation
+	 */
+	public <T> CompletableFuture<T> submit(Callable<T> invocation) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		Future<?> future;
+		try {
+			future = this.executorService.submit(() -> {
+				try {
+					result.complete(invocation.call());
+				}
+				catch (Throwable ex) {
+					result.completeExceptionally(ex);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			result.completeExceptionally(ex);
+			return result;
+		}
+		result.whenComplete((value, ex) -> {
+			if (result.isCancelled()) {
+				future.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	public ExecutorService getExecutorService() {
+		return this.executorService;
+	}
+
+	@Override
+	public void destroy() {
+		this.executorService.shutdown();
+	}
+
+}
@@ -18,9 +18,8 @@ package org.springframework.cloud.openfeign;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.PreDestroy;
 
@@ -28,13 +27,20 @@ import feign.Client;
 import feign.Feign;
 import feign.httpclient.ApacheHttpClient;
 import feign.okhttp.OkHttpClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import okhttp3.ConnectionPool;
+import okhttp3.Protocol;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -42,15 +48,25 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClas
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.actuator.HasFeatures;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.cloud.commons.httpclient.ApacheHttpClientConnectionManagerFactory;
 import org.springframework.cloud.commons.httpclient.ApacheHttpClientFactory;
 import org.springframework.cloud.commons.httpclient.OkHttpClientConnectionPoolFactory;
 import org.springframework.cloud.commons.httpclient.OkHttpClientFactory;
+import org.springframework.cloud.openfeign.clientconfig.AdaptiveHttpClientConnectionManager;
+import org.springframework.cloud.openfeign.clientconfig.ApacheHttpClientConnectionPrewarmer;
+import org.springframework.cloud.openfeign.clientconfig.ConnectionPrewarmer;
+import org.springframework.cloud.openfeign.clientconfig.IdleConnectionReaper;
+import org.springframework.cloud.openfeign.clientconfig.OkHttpConnectionPrewarmer;
 import org.springframework.cloud.openfeign.support.DefaultGzipDecoderConfiguration;
 import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.cloud.openfeign.support.RequestBudget;
+import org.springframework.cloud.openfeign.support.RetryBudgets;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
 
 /**
  * 自动配置类
@@ -64,6 +80,8 @@ import org.springframework.context.annotation.Import;
 @Import(DefaultGzipDecoderConfiguration.class)
 public class FeignAutoConfiguration {
 
+	private static final Log log = LogFactory.getLog(FeignAutoConfiguration.class);
+
 	/**
 	 * 所有的配置信息
 	 *   这是从 父容器获取的实例列表  其本质是 @FeignClient 注解的接口
@@ -92,26 +110,94 @@ public class FeignAutoConfiguration {
 		return context;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public FeignAsyncExecutor feignAsyncExecutor(FeignClientProperties properties,
+			Environment environment) {
+		FeignClientProperties.Async async = properties.getAsync();
+		if (async.isVirtualThreads()) {
+			if (FeignAsyncExecutor.isVirtualThreadsSupported()) {
+				if (environment.getProperty("feign.okhttp.enabled", Boolean.class,
+						false)) {
+					log.warn("The connection pool and the dispatcher of OkHttp "
+							+ "synchronize, which pins the virtual threads of "
+							+ "asynchronous Feign clients to their carrier before "
+							+ "Java 24; prefer the Apache HTTP client");
+				}
+				return FeignAsyncExecutor.createOnVirtualThreads();
+			}
+			log.warn("Virtual threads are not supported by this JVM, "
+					+ "asynchronous Feign clients will use a pool of "
+					+ async.getPoolSize() + " threads");
+		}
+		return FeignAsyncExecutor.create(async.getPoolSize(), async.getQueueCapacity());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public FeignHedgingExecutor feignHedgingExecutor(FeignClientProperties properties) {
+		return FeignHedgingExecutor.create(properties.getHedging().getPoolSize());
+	}
+
+	@Bean
+	@ConditionalOnProperty("feign.client.initialization.parallel")
+	public FeignClientsInitializer feignClientsInitializer(
+			FeignClientProperties properties) {
+		return new FeignClientsInitializer(properties.getInitialization());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("feign.client.retry-budget.enabled")
+	public RetryBudgets feignRetryBudgets(FeignClientProperties properties) {
+		return new RetryBudgets(properties.getRetryBudget());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("feign.client.concurrency-limit.enabled")
+	public FeignConcurrencyLimiter feignConcurrencyLimiter(
+			FeignClientProperties properties) {
+		return new FeignConcurrencyLimiter(properties.getConcurrencyLimit());
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty("feign.client.bulkhead.enabled")
+	protected static class BulkheadFeignTargeterConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public Targeter feignTargeter(FeignClientProperties properties) {
+			return ReactiveTargeter.decorate(
+					new BulkheadTargeter(properties.getBulkhead()));
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(name = "feign.hystrix.HystrixFeign")
+	@ConditionalOnProperty(value = "feign.client.bulkhead.enabled",
+			havingValue = "false", matchIfMissing = true)
 	protected static class HystrixFeignTargeterConfiguration {
 
 		@Bean
 		@ConditionalOnMissingBean
 		public Targeter feignTargeter() {
-			return new HystrixTargeter();
+			return ReactiveTargeter.decorate(new HystrixTargeter());
 		}
 
 	}
 
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnMissingClass("feign.hystrix.HystrixFeign")
+	@ConditionalOnProperty(value = "feign.client.bulkhead.enabled",
+			havingValue = "false", matchIfMissing = true)
 	protected static class DefaultFeignTargeterConfiguration {
 
 		@Bean
 		@ConditionalOnMissingBean
 		public Targeter feignTargeter() {
-			return new DefaultTargeter();
+			return ReactiveTargeter.decorate(new DefaultTargeter());
 		}
 
 	}
@@ -127,32 +213,48 @@ public class FeignAutoConfiguration {
 	@ConditionalOnProperty(value = "feign.httpclient.enabled", matchIfMissing = true)
 	protected static class HttpClientFeignConfiguration {
 
-		private final Timer connectionManagerTimer = new Timer(
-				"FeignApacheHttpClientConfiguration.connectionManagerTimer", true);
+		private IdleConnectionReaper connectionReaper;
+
+		private HttpClientConnectionManager connectionManager;
 
 		@Autowired(required = false)
 		private RegistryBuilder registryBuilder;
 
 		private CloseableHttpClient httpClient;
 
+		@Bean
+		@ConditionalOnMissingBean
+		public IdleConnectionReaper feignIdleConnectionReaper() {
+			return new IdleConnectionReaper();
+		}
+
 		@Bean
 		@ConditionalOnMissingBean(HttpClientConnectionManager.class)
 		public HttpClientConnectionManager connectionManager(
 				ApacheHttpClientConnectionManagerFactory connectionManagerFactory,
-				FeignHttpClientProperties httpClientProperties) {
-			final HttpClientConnectionManager connectionManager = connectionManagerFactory
+				FeignHttpClientProperties httpClientProperties,
+				FeignClientProperties clientProperties,
+				IdleConnectionReaper connectionReaper) {
+			HttpClientConnectionManager pooledConnectionManager = connectionManagerFactory
 					.newConnectionManager(httpClientProperties.isDisableSslValidation(),
 							httpClientProperties.getMaxConnections(),
 							httpClientProperties.getMaxConnectionsPerRoute(),
 							httpClientProperties.getTimeToLive(),
 							httpClientProperties.getTimeToLiveUnit(),
 							this.registryBuilder);
-			this.connectionManagerTimer.schedule(new TimerTask() {
-				@Override
-				public void run() {
-					connectionManager.closeExpiredConnections();
-				}
-			}, 30000, httpClientProperties.getConnectionTimerRepeat());
+			HttpClientConnectionManager connectionManager = httpClientProperties
+					.getAdaptivePool().isEnabled()
+					&& pooledConnectionManager instanceof PoolingHttpClientConnectionManager
+							? new AdaptiveHttpClientConnectionManager(
+									(PoolingHttpClientConnectionManager) pooledConnectionManager,
+									httpClientProperties.getAdaptivePool(),
+									clientProperties)
+							: pooledConnectionManager;
+			connectionReaper.register(connectionManager,
+					httpClientProperties.getConnectionTimerRepeat(),
+					httpClientProperties.getConnectionIdleTimeout());
+			this.connectionReaper = connectionReaper;
+			this.connectionManager = connectionManager;
 			return connectionManager;
 		}
 
@@ -170,15 +272,30 @@ public class FeignAutoConfiguration {
 			return this.httpClient;
 		}
 
+		@Bean
+		@ConditionalOnProperty("feign.client.prewarm.enabled")
+		public ConnectionPrewarmer apacheHttpClientConnectionPrewarmer(
+				HttpClientConnectionManager connectionManager,
+				FeignHttpClientProperties httpClientProperties,
+				FeignClientProperties clientProperties) {
+			return new ApacheHttpClientConnectionPrewarmer(connectionManager,
+					httpClientProperties.getConnectionTimeout(),
+					clientProperties.getPrewarm().getTimeout());
+		}
+
 		@Bean
 		@ConditionalOnMissingBean(Client.class)
-		public Client feignClient(HttpClient httpClient) {
-			return new ApacheHttpClient(httpClient);
+		public Client feignClient(HttpClient httpClient,
+				ObjectProvider<HttpClientConnectionManager> connectionManager) {
+			return AdaptiveHttpClientConnectionManager.decorate(
+					new ApacheHttpClient(httpClient), connectionManager.getIfAvailable());
 		}
 
 		@PreDestroy
 		public void destroy() throws Exception {
-			this.connectionManagerTimer.cancel();
+			if (this.connectionReaper != null) {
+				this.connectionReaper.unregister(this.connectionManager);
+			}
 			if (this.httpClient != null) {
 				this.httpClient.close();
 			}
@@ -186,6 +303,63 @@ public class FeignAutoConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = { "io.micrometer.core.instrument.MeterRegistry",
+			"org.apache.http.conn.HttpClientConnectionManager" })
+	protected static class IdleConnectionReaperMetricsConfiguration {
+
+		@Bean
+		public MeterBinder feignIdleConnectionReaperMetrics(
+				ObjectProvider<IdleConnectionReaper> connectionReaper) {
+			return registry -> connectionReaper.ifAvailable(reaper -> FunctionCounter
+					.builder("feign.httpclient.connections.reaped", reaper,
+							IdleConnectionReaper::getReapedConnections)
+					.description("Pooled connections closed for being idle or expired")
+					.register(registry));
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+	@ConditionalOnProperty("feign.client.retry-budget.enabled")
+	protected static class RetryBudgetMetricsConfiguration {
+
+		@Bean
+		public MeterBinder feignRetryBudgetMetrics(
+				ObjectProvider<RetryBudgets> retryBudgets) {
+			return registry -> retryBudgets.ifAvailable(
+					budgets -> budgets.addListener((client, budget) -> FunctionCounter
+							.builder("feign.client.retries.budget.exhausted", budget,
+									RequestBudget::getExhausted)
+							.tag("client", client)
+							.description("Retries refused because the retry budget of "
+									+ "their client was exhausted")
+							.register(registry)));
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+	@ConditionalOnProperty("feign.client.concurrency-limit.enabled")
+	protected static class ConcurrencyLimitMetricsConfiguration {
+
+		@Bean
+		public MeterBinder feignConcurrencyLimitMetrics(
+				ObjectProvider<FeignConcurrencyLimiter> limiter) {
+			return registry -> limiter.ifAvailable(
+					it -> it.addListener((client, limit) -> FunctionCounter
+							.builder("feign.client.concurrency.rejected", limit,
+									FeignConcurrencyLimiter.AdaptiveLimit::getRejected)
+							.tag("client", client)
+							.description("Requests rejected because their client "
+									+ "reached its concurrency limit")
+							.register(registry)));
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(OkHttpClient.class)
 	@ConditionalOnMissingClass("com.netflix.loadbalancer.ILoadBalancer")
@@ -216,6 +390,8 @@ public class FeignAutoConfiguration {
 			this.okHttpClient = httpClientFactory.createBuilder(disableSslValidation)
 					.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
 					.followRedirects(followRedirects).connectionPool(connectionPool)
+					.protocols(httpClientProperties.getOkHttp().getProtocols().stream()
+							.map(Protocol::valueOf).collect(Collectors.toList()))
 					.build();
 			return this.okHttpClient;
 		}
@@ -228,6 +404,15 @@ public class FeignAutoConfiguration {
 			}
 		}
 
+		@Bean
+		@ConditionalOnProperty("feign.client.prewarm.enabled")
+		public ConnectionPrewarmer okHttpConnectionPrewarmer(okhttp3.OkHttpClient client,
+				FeignClientProperties clientProperties) {
+			return new OkHttpConnectionPrewarmer(client,
+					clientProperties.getPrewarm().getTimeout(),
+					clientProperties.getPrewarm().getPath());
+		}
+
 		@Bean
 		@ConditionalOnMissingBean(Client.class)
 		public Client feignClient(okhttp3.OkHttpClient client) {
@@ -236,4 +421,22 @@ public class FeignAutoConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty("feign.client.prewarm.enabled")
+	protected static class FeignClientsPrewarmConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public FeignClientsPrewarmer feignClientsPrewarmer(
+				FeignClientProperties properties,
+				ObjectProvider<ConnectionPrewarmer> prewarmers,
+				ObjectProvider<DiscoveryClient> discoveryClient,
+				ObjectProvider<LoadBalancerClient> loadBalancerClient) {
+			return new FeignClientsPrewarmer(properties.getPrewarm(),
+					prewarmers.orderedStream().collect(Collectors.toList()),
+					discoveryClient.getIfUnique(), loadBalancerClient.getIfUnique());
+		}
+
+	}
+
 }
@@ -85,6 +85,14 @@ public @interface FeignClient {
 	 */
 	boolean decode404() default false;
 
+	/**
+	 * Whether methods returning {@link java.util.concurrent.CompletableFuture} are
+	 * invoked asynchronously. The call is handed over to the
+	 * {@link FeignAsyncExecutor} and the future is completed with the decoded response.
+	 * @return whether the client supports asynchronous methods
+	 */
+	boolean async() default false;
+
 	/**
 	 * A custom configuration class for the feign client. Can contain override
 	 * <code>@Bean</code> definition for the pieces that make up the client, for instance
@@ -59,7 +59,7 @@ public class FeignClientBuilder {
 			this.feignClientFactoryBean.setContextId(FeignClientsRegistrar.getName(name));
 			// preset default values - these values resemble the default values on the
 			// FeignClient annotation
-			this.url("").path("").decode404(false);
+			this.url("").path("").decode404(false).async(false);
 		}
 
 		public Builder<T> url(final String url) {
@@ -82,6 +82,11 @@ public class FeignClientBuilder {
 			return this;
 		}
 
+		public Builder<T> async(final boolean async) {
+			this.feignClientFactoryBean.setAsync(async);
+			return this;
+		}
+
 		public Builder<T> fallback(final Class<? extends T> fallback) {
 			FeignClientsRegistrar.validateFallback(fallback);
 			this.feignClientFactoryBean.setFallback(fallback);
@@ -18,6 +18,7 @@ package org.springframework.cloud.openfeign;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import feign.Client;
 import feign.Contract;
@@ -32,17 +33,25 @@ import feign.Target.HardCodedTarget;
 import feign.codec.Decoder;
 import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.conn.HttpClientConnectionManager;
 
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.target.AbstractLazyCreationTargetSource;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.cloud.openfeign.clientconfig.AdaptiveHttpClientConnectionManager;
 import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
 import org.springframework.cloud.openfeign.ribbon.LoadBalancerFeignClient;
+import org.springframework.cloud.openfeign.support.RetryBudgets;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -66,6 +75,12 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 	 *
 	 ***********************************/
 
+	private static final Log log = LogFactory.getLog(FeignClientFactoryBean.class);
+
+	private static final boolean APACHE_HTTP_CLIENT_PRESENT = ClassUtils.isPresent(
+			"org.apache.http.conn.HttpClientConnectionManager",
+			FeignClientFactoryBean.class.getClassLoader());
+
 	/**
 	 * 类型  : 盲猜 >> 接口类型
 	 */
@@ -93,6 +108,8 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 
 	private boolean decode404; // false
 
+	private boolean async;
+
 	private ApplicationContext applicationContext;
 
 	// 为什么要设置成 void.class
@@ -101,6 +118,8 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 	// 设置成 void.class
 	private Class<?> fallbackFactory = void.class;
 
+	private volatile LazyTarget lazyTarget;
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		// 只做参数检查
@@ -131,6 +150,18 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 		// 从 FeignClientProperties 配置 Feign，
 		configureFeign(context, builder);
 
+		if (this.async) {
+			builder.addCapability(
+					new FeignAsyncCapability(get(context, FeignAsyncExecutor.class)));
+		}
+
+		RetryBudgets retryBudgets = this.applicationContext
+				.getBeanProvider(RetryBudgets.class).getIfAvailable();
+		if (retryBudgets != null) {
+			// keyed by name like the budgets of the Ribbon load balancers
+			builder.addCapability(retryBudgets.capability(this.name));
+		}
+
 		return builder;
 	}
 
@@ -309,7 +340,13 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 		// 获得 FeignClient
 		Client client = getOptional(context, Client.class);
 		if (client != null) { // default.com.alibaba.cloud.nacos.ribbon.RibbonNacosAutoConfiguration
-			builder.client(client);
+			FeignConcurrencyLimiter limiter = this.applicationContext
+					.getBeanProvider(FeignConcurrencyLimiter.class).getIfAvailable();
+			if (limiter != null) {
+				client = limiter.decorate(client, this.contextId);
+			}
+			builder.client(decorateConnectionManager(client));
+			configureHedging(context, builder);
 			Targeter targeter = get(context, Targeter.class);
 
 			// 本质是 targeter 来创建代理类
@@ -320,9 +357,84 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 				"No Feign Client for loadBalancing defined. Did you forget to include spring-cloud-starter-netflix-ribbon?");
 	}
 
+	/**
+	 * Lets an adaptive connection manager bound the requests of this client by the
+	 * connection limit configured for its context id.
+	 */
+	private Client decorateConnectionManager(Client client) {
+		if (!APACHE_HTTP_CLIENT_PRESENT) {
+			return client;
+		}
+		return AdaptiveHttpClientConnectionManager.decorate(client,
+				this.applicationContext.getBeanProvider(HttpClientConnectionManager.class)
+						.getIfUnique(),
+				this.contextId);
+	}
+
+	private void configureHedging(FeignContext context, Feign.Builder builder) {
+		FeignClientProperties properties = this.applicationContext
+				.getBeanProvider(FeignClientProperties.class).getIfAvailable();
+		if (properties == null) {
+			return;
+		}
+		Boolean hedgeReads = null;
+		FeignClientProperties.FeignClientConfiguration config = properties.getConfig()
+				.get(this.contextId);
+		if (config != null) {
+			hedgeReads = config.getHedging();
+		}
+		config = properties.getConfig().get(properties.getDefaultConfig());
+		if (hedgeReads == null && config != null) {
+			hedgeReads = config.getHedging();
+		}
+		if (Boolean.TRUE.equals(hedgeReads)
+				|| FeignHedgingCapability.hasHedgedMethods(this.type)) {
+			builder.addCapability(
+					new FeignHedgingCapability(get(context, FeignHedgingExecutor.class),
+							properties.getHedging(), Boolean.TRUE.equals(hedgeReads)));
+		}
+	}
+
+	/**
+	 * Creates the Feign client, or a proxy that creates it on its first invocation when
+	 * the clients are created lazily or concurrently.
+	 * @see FeignClientProperties.Initialization
+	 */
 	@Override
 	public Object getObject() throws Exception {
-		return getTarget();
+		FeignClientProperties properties = this.applicationContext
+				.getBeanProvider(FeignClientProperties.class).getIfAvailable();
+		FeignClientProperties.Initialization initialization = properties != null
+				? properties.getInitialization() : null;
+		if (initialization != null
+				&& (initialization.isLazy() || initialization.isParallel())) {
+			this.lazyTarget = new LazyTarget();
+			return ProxyFactory.getProxy(this.type, this.lazyTarget);
+		}
+		return createTarget();
+	}
+
+	/**
+	 * Creates the Feign client behind the proxy returned by {@link #getObject()}, if it
+	 * has not been created yet.
+	 * @throws Exception if the client can not be created
+	 */
+	void initialize() throws Exception {
+		LazyTarget lazyTarget = this.lazyTarget;
+		if (lazyTarget != null) {
+			lazyTarget.getTarget();
+		}
+	}
+
+	private Object createTarget() {
+		long start = System.nanoTime();
+		Object target = getTarget();
+		if (log.isDebugEnabled()) {
+			log.debug("Created Feign client '" + this.contextId + "' for "
+					+ this.type.getName() + " in "
+					+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		}
+		return target;
 	}
 
 	/**
@@ -384,7 +496,7 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 				client = ((FeignBlockingLoadBalancerClient) client).getDelegate();
 			}
 			//  设置调用客户端的意思吧
-			builder.client(client);
+			builder.client(decorateConnectionManager(client));
 		}
 		Targeter targeter = get(context, Targeter.class);
 		// 生成默认代理类
@@ -465,6 +577,14 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 		this.decode404 = decode404;
 	}
 
+	public boolean isAsync() {
+		return this.async;
+	}
+
+	public void setAsync(boolean async) {
+		this.async = async;
+	}
+
 	public ApplicationContext getApplicationContext() {
 		return this.applicationContext;
 	}
@@ -500,7 +620,7 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 		}
 		FeignClientFactoryBean that = (FeignClientFactoryBean) o;
 		return Objects.equals(this.applicationContext, that.applicationContext)
-				&& this.decode404 == that.decode404
+				&& this.decode404 == that.decode404 && this.async == that.async
 				&& Objects.equals(this.fallback, that.fallback)
 				&& Objects.equals(this.fallbackFactory, that.fallbackFactory)
 				&& Objects.equals(this.name, that.name)
@@ -511,8 +631,9 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.applicationContext, this.decode404, this.fallback,
-				this.fallbackFactory, this.name, this.path, this.type, this.url);
+		return Objects.hash(this.applicationContext, this.decode404, this.async,
+				this.fallback, this.fallbackFactory, this.name, this.path, this.type,
+				this.url);
 	}
 
 	@Override
@@ -521,10 +642,28 @@ class FeignClientFactoryBean implements FactoryBean<Object>, InitializingBean, A
 				.append(this.type).append(", ").append("name='").append(this.name)
 				.append("', ").append("url='").append(this.url).append("', ")
 				.append("path='").append(this.path).append("', ").append("decode404=")
-				.append(this.decode404).append(", ").append("applicationContext=")
+				.append(this.decode404).append(", ").append("async=").append(this.async)
+				.append(", ").append("applicationContext=")
 				.append(this.applicationContext).append(", ").append("fallback=")
 				.append(this.fallback).append(", ").append("fallbackFactory=")
 				.append(this.fallbackFactory).append("}").toString();
 	}
 
+	/**
+	 * Creates the Feign client when the proxy is first invoked.
+	 */
+	private final class LazyTarget extends AbstractLazyCreationTargetSource {
+
+		@Override
+		public Class<?> getTargetClass() {
+			return FeignClientFactoryBean.this.type;
+		}
+
+		@Override
+		protected Object createObject() {
+			return createTarget();
+		}
+
+	}
+
 }
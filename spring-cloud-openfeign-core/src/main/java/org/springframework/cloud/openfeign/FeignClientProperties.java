@@ -44,6 +44,22 @@ public class FeignClientProperties {
 
 	private Map<String, FeignClientConfiguration> config = new HashMap<>();
 
+	private Async async = new Async();
+
+	private Prewarm prewarm = new Prewarm();
+
+	private Initialization initialization = new Initialization();
+
+	private LoadBalancing loadBalancing = new LoadBalancing();
+
+	private Hedging hedging = new Hedging();
+
+	private RetryBudget retryBudget = new RetryBudget();
+
+	private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+	private Bulkhead bulkhead = new Bulkhead();
+
 	public boolean isDefaultToProperties() {
 		return this.defaultToProperties;
 	}
@@ -68,6 +84,70 @@ public class FeignClientProperties {
 		this.config = config;
 	}
 
+	public Async getAsync() {
+		return this.async;
+	}
+
+	public void setAsync(Async async) {
+		this.async = async;
+	}
+
+	public Prewarm getPrewarm() {
+		return this.prewarm;
+	}
+
+	public void setPrewarm(Prewarm prewarm) {
+		this.prewarm = prewarm;
+	}
+
+	public Initialization getInitialization() {
+		return this.initialization;
+	}
+
+	public void setInitialization(Initialization initialization) {
+		this.initialization = initialization;
+	}
+
+	public LoadBalancing getLoadBalancing() {
+		return this.loadBalancing;
+	}
+
+	public void setLoadBalancing(LoadBalancing loadBalancing) {
+		this.loadBalancing = loadBalancing;
+	}
+
+	public Hedging getHedging() {
+		return this.hedging;
+	}
+
+	public void setHedging(Hedging hedging) {
+		this.hedging = hedging;
+	}
+
+	public RetryBudget getRetryBudget() {
+		return this.retryBudget;
+	}
+
+	public void setRetryBudget(RetryBudget retryBudget) {
+		this.retryBudget = retryBudget;
+	}
+
+	public ConcurrencyLimit getConcurrencyLimit() {
+		return this.concurrencyLimit;
+	}
+
+	public void setConcurrencyLimit(ConcurrencyLimit concurrencyLimit) {
+		this.concurrencyLimit = concurrencyLimit;
+	}
+
+	public Bulkhead getBulkhead() {
+		return this.bulkhead;
+	}
+
+	public void setBulkhead(Bulkhead bulkhead) {
+		this.bulkhead = bulkhead;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -79,12 +159,647 @@ public class FeignClientProperties {
 		FeignClientProperties that = (FeignClientProperties) o;
 		return this.defaultToProperties == that.defaultToProperties
 				&& Objects.equals(this.defaultConfig, that.defaultConfig)
-				&& Objects.equals(this.config, that.config);
+				&& Objects.equals(this.config, that.config)
+				&& Objects.equals(this.async, that.async)
+				&& Objects.equals(this.prewarm, that.prewarm)
+				&& Objects.equals(this.initialization, that.initialization)
+				&& Objects.equals(this.loadBalancing, that.loadBalancing)
+				&& Objects.equals(this.hedging, that.hedging)
+				&& Objects.equals(this.retryBudget, that.retryBudget)
+				&& Objects.equals(this.concurrencyLimit, that.concurrencyLimit)
+				&& Objects.equals(this.bulkhead, that.bulkhead);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.defaultToProperties, this.defaultConfig, this.config);
+		return Objects.hash(this.defaultToProperties, this.defaultConfig, this.config,
+				this.async, this.prewarm, this.initialization, this.loadBalancing,
+				this.hedging, this.retryBudget, this.concurrencyLimit, this.bulkhead);
+	}
+
+	/**
+	 * Settings of the executor that runs the invocations of asynchronous Feign clients.
+	 */
+	public static class Async {
+
+		/**
+		 * Number of threads invoking asynchronous Feign clients.
+		 */
+		private int poolSize = 64;
+
+		/**
+		 * Number of invocations that may wait for a thread before being rejected.
+		 */
+		private int queueCapacity = 1000;
+
+		/**
+		 * Whether to invoke asynchronous Feign clients on virtual threads instead of a
+		 * pool, when the JVM supports them. Synchronous clients keep running on the
+		 * calling thread, and clients wrapped by Hystrix on its thread pools.
+		 */
+		private boolean virtualThreads = false;
+
+		public int getPoolSize() {
+			return this.poolSize;
+		}
+
+		public void setPoolSize(int poolSize) {
+			this.poolSize = poolSize;
+		}
+
+		public int getQueueCapacity() {
+			return this.queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public boolean isVirtualThreads() {
+			return this.virtualThreads;
+		}
+
+		public void setVirtualThreads(boolean virtualThreads) {
+			this.virtualThreads = virtualThreads;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Async that = (Async) o;
+			return this.poolSize == that.poolSize
+					&& this.queueCapacity == that.queueCapacity
+					&& this.virtualThreads == that.virtualThreads;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.poolSize, this.queueCapacity, this.virtualThreads);
+		}
+
+	}
+
+	/**
+	 * Settings of the connections opened to the Feign clients' servers at startup.
+	 */
+	public static class Prewarm {
+
+		/**
+		 * Whether to open connections to the URL of each Feign client, or to the
+		 * instances of its service, before the application is ready.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Number of connections opened to each URL or service instance.
+		 */
+		private int connections = 2;
+
+		/**
+		 * Time in milliseconds to wait for all connections to be opened.
+		 */
+		private long timeout = 10000;
+
+		/**
+		 * Path of the HEAD requests sent to each URL or service instance to open the
+		 * connections of the OK HTTP client, which can not connect without sending a
+		 * request.
+		 */
+		private String path = "/";
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getConnections() {
+			return this.connections;
+		}
+
+		public void setConnections(int connections) {
+			this.connections = connections;
+		}
+
+		public long getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(long timeout) {
+			this.timeout = timeout;
+		}
+
+		public String getPath() {
+			return this.path;
+		}
+
+		public void setPath(String path) {
+			this.path = path;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Prewarm that = (Prewarm) o;
+			return this.enabled == that.enabled && this.connections == that.connections
+					&& this.timeout == that.timeout
+					&& Objects.equals(this.path, that.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.enabled, this.connections, this.timeout, this.path);
+		}
+
+	}
+
+	/**
+	 * Settings of the creation of the Feign clients when the context is refreshed.
+	 */
+	public static class Initialization {
+
+		/**
+		 * Whether to create each Feign client on its first invocation instead of when
+		 * the context is refreshed.
+		 */
+		private boolean lazy = false;
+
+		/**
+		 * Whether to create the Feign clients concurrently once all other singletons
+		 * have been created. Ignored when the clients are created lazily.
+		 */
+		private boolean parallel = false;
+
+		/**
+		 * Number of threads creating the Feign clients when they are created
+		 * concurrently.
+		 */
+		private int threads = 4;
+
+		public boolean isLazy() {
+			return this.lazy;
+		}
+
+		public void setLazy(boolean lazy) {
+			this.lazy = lazy;
+		}
+
+		public boolean isParallel() {
+			return this.parallel;
+		}
+
+		public void setParallel(boolean parallel) {
+			this.parallel = parallel;
+		}
+
+		public int getThreads() {
+			return this.threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Initialization that = (Initialization) o;
+			return this.lazy == that.lazy && this.parallel == that.parallel
+					&& this.threads == that.threads;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.lazy, this.parallel, this.threads);
+		}
+
+	}
+
+	/**
+	 * Settings of the choice of service instances by the Spring Cloud LoadBalancer based
+	 * Feign clients.
+	 */
+	public static class LoadBalancing {
+
+		/**
+		 * Whether to choose the instance of each request from the latency and the number
+		 * of requests in flight of the instances, as seen by the Feign clients. Any
+		 * ReactorServiceInstanceLoadBalancer configured for a service is bypassed.
+		 */
+		private boolean latencyAware = false;
+
+		/**
+		 * Time in milliseconds over which the latency of an instance is forgotten.
+		 */
+		private long decayTime = 10000;
+
+		public boolean isLatencyAware() {
+			return this.latencyAware;
+		}
+
+		public void setLatencyAware(boolean latencyAware) {
+			this.latencyAware = latencyAware;
+		}
+
+		public long getDecayTime() {
+			return this.decayTime;
+		}
+
+		public void setDecayTime(long decayTime) {
+			this.decayTime = decayTime;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			LoadBalancing that = (LoadBalancing) o;
+			return this.latencyAware == that.latencyAware
+					&& this.decayTime == that.decayTime;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.latencyAware, this.decayTime);
+		}
+
+	}
+
+	/**
+	 * Settings of the hedging of the idempotent requests of load balanced Feign clients.
+	 */
+	public static class Hedging {
+
+		/**
+		 * Percentile of the latencies of a client after which a request that has not
+		 * been answered is sent again.
+		 */
+		private double percentile = 95;
+
+		/**
+		 * Largest number of requests sent again, as a percentage of the hedged requests
+		 * of a client.
+		 */
+		private double budget = 10;
+
+		/**
+		 * Largest number of threads executing hedged requests, shared by all the
+		 * clients. Requests are not hedged while all of them are busy.
+		 */
+		private int poolSize = 200;
+
+		public double getPercentile() {
+			return this.percentile;
+		}
+
+		public void setPercentile(double percentile) {
+			this.percentile = percentile;
+		}
+
+		public double getBudget() {
+			return this.budget;
+		}
+
+		public void setBudget(double budget) {
+			this.budget = budget;
+		}
+
+		public int getPoolSize() {
+			return this.poolSize;
+		}
+
+		public void setPoolSize(int poolSize) {
+			this.poolSize = poolSize;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Hedging that = (Hedging) o;
+			return this.percentile == that.percentile && this.budget == that.budget
+					&& this.poolSize == that.poolSize;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.percentile, this.budget, this.poolSize);
+		}
+
+	}
+
+	/**
+	 * Settings of the budget limiting the retries of each Feign client.
+	 */
+	public static class RetryBudget {
+
+		/**
+		 * Whether to limit the retries of each client, both those of the Ribbon load
+		 * balancer and those of the Feign Retryer, to a percentage of its requests.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Largest number of retries, as a percentage of the requests of a client.
+		 */
+		private double percentage = 10;
+
+		/**
+		 * Number of retries a client can save up, and make at once, beyond those
+		 * earned by its latest requests.
+		 */
+		private int burst = 10;
+
+		/**
+		 * Time in milliseconds the first retry of a request waits for at least, when
+		 * no other back off policy is configured for the Ribbon load balancer.
+		 */
+		private long initialBackoff = 50;
+
+		/**
+		 * Longest time in milliseconds a retry waits for.
+		 */
+		private long maxBackoff = 1000;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public double getPercentage() {
+			return this.percentage;
+		}
+
+		public void setPercentage(double percentage) {
+			this.percentage = percentage;
+		}
+
+		public int getBurst() {
+			return this.burst;
+		}
+
+		public void setBurst(int burst) {
+			this.burst = burst;
+		}
+
+		public long getInitialBackoff() {
+			return this.initialBackoff;
+		}
+
+		public void setInitialBackoff(long initialBackoff) {
+			this.initialBackoff = initialBackoff;
+		}
+
+		public long getMaxBackoff() {
+			return this.maxBackoff;
+		}
+
+		public void setMaxBackoff(long maxBackoff) {
+			this.maxBackoff = maxBackoff;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			RetryBudget that = (RetryBudget) o;
+			return this.enabled == that.enabled && this.percentage == that.percentage
+					&& this.burst == that.burst
+					&& this.initialBackoff == that.initialBackoff
+					&& this.maxBackoff == that.maxBackoff;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.enabled, this.percentage, this.burst,
+					this.initialBackoff, this.maxBackoff);
+		}
+
+	}
+
+	/**
+	 * Settings of the adaptive limit of the requests each load balanced Feign client has
+	 * in flight.
+	 */
+	public static class ConcurrencyLimit {
+
+		/**
+		 * Whether to limit the requests each load balanced client has in flight, and
+		 * reject those beyond the limit at once.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Limit a client starts with.
+		 */
+		private int initialLimit = 20;
+
+		/**
+		 * Lowest limit of a client.
+		 */
+		private int minLimit = 2;
+
+		/**
+		 * Highest limit of a client.
+		 */
+		private int maxLimit = 200;
+
+		/**
+		 * Factor by which the round trip time of a request may exceed the long term
+		 * average before the limit shrinks.
+		 */
+		private double tolerance = 1.5;
+
+		/**
+		 * Weight, between 0 and 1, of each new estimate of the limit.
+		 */
+		private double smoothing = 0.2;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getInitialLimit() {
+			return this.initialLimit;
+		}
+
+		public void setInitialLimit(int initialLimit) {
+			this.initialLimit = initialLimit;
+		}
+
+		public int getMinLimit() {
+			return this.minLimit;
+		}
+
+		public void setMinLimit(int minLimit) {
+			this.minLimit = minLimit;
+		}
+
+		public int getMaxLimit() {
+			return this.maxLimit;
+		}
+
+		public void setMaxLimit(int maxLimit) {
+			this.maxLimit = maxLimit;
+		}
+
+		public double getTolerance() {
+			return this.tolerance;
+		}
+
+		public void setTolerance(double tolerance) {
+			this.tolerance = tolerance;
+		}
+
+		public double getSmoothing() {
+			return this.smoothing;
+		}
+
+		public void setSmoothing(double smoothing) {
+			this.smoothing = smoothing;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ConcurrencyLimit that = (ConcurrencyLimit) o;
+			return this.enabled == that.enabled
+					&& this.initialLimit == that.initialLimit
+					&& this.minLimit == that.minLimit && this.maxLimit == that.maxLimit
+					&& this.tolerance == that.tolerance
+					&& this.smoothing == that.smoothing;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.enabled, this.initialLimit, this.minLimit,
+					this.maxLimit, this.tolerance, this.smoothing);
+		}
+
+	}
+
+	/**
+	 * Settings of the semaphores isolating the Feign clients, and their methods, from
+	 * each other.
+	 */
+	public static class Bulkhead {
+
+		/**
+		 * Whether to isolate the Feign clients with semaphores instead of Hystrix, running
+		 * their invocations on the calling thread.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Largest number of invocations each client has in flight.
+		 */
+		private int maxConcurrentCalls = 100;
+
+		/**
+		 * Largest number of invocations each method has in flight. The methods sharing a
+		 * semaphore share this number.
+		 */
+		private int maxConcurrentCallsPerMethod = 10;
+
+		/**
+		 * Number of semaphores shared by the methods of each client.
+		 */
+		private int stripes = 256;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxConcurrentCalls() {
+			return this.maxConcurrentCalls;
+		}
+
+		public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+			this.maxConcurrentCalls = maxConcurrentCalls;
+		}
+
+		public int getMaxConcurrentCallsPerMethod() {
+			return this.maxConcurrentCallsPerMethod;
+		}
+
+		public void setMaxConcurrentCallsPerMethod(int maxConcurrentCallsPerMethod) {
+			this.maxConcurrentCallsPerMethod = maxConcurrentCallsPerMethod;
+		}
+
+		public int getStripes() {
+			return this.stripes;
+		}
+
+		public void setStripes(int stripes) {
+			this.stripes = stripes;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Bulkhead that = (Bulkhead) o;
+			return this.enabled == that.enabled
+					&& this.maxConcurrentCalls == that.maxConcurrentCalls
+					&& this.maxConcurrentCallsPerMethod == that.maxConcurrentCallsPerMethod
+					&& this.stripes == that.stripes;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.enabled, this.maxConcurrentCalls,
+					this.maxConcurrentCallsPerMethod, this.stripes);
+		}
+
 	}
 
 	/**
@@ -114,6 +829,10 @@ public class FeignClientProperties {
 
 		private ExceptionPropagationPolicy exceptionPropagationPolicy;
 
+		private Integer maxConnectionsPerRoute;
+
+		private Boolean hedging;
+
 		public Logger.Level getLoggerLevel() {
 			return this.loggerLevel;
 		}
@@ -204,6 +923,30 @@ public class FeignClientProperties {
 			this.exceptionPropagationPolicy = exceptionPropagationPolicy;
 		}
 
+		/**
+		 * @return the largest number of pooled Apache HTTP client connections to each
+		 * route of the client, when the adaptive connection pool is enabled
+		 */
+		public Integer getMaxConnectionsPerRoute() {
+			return this.maxConnectionsPerRoute;
+		}
+
+		public void setMaxConnectionsPerRoute(Integer maxConnectionsPerRoute) {
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		}
+
+		/**
+		 * @return whether to hedge the {@code GET}, {@code HEAD} and {@code OPTIONS}
+		 * requests of the client when it is load balanced
+		 */
+		public Boolean getHedging() {
+			return this.hedging;
+		}
+
+		public void setHedging(Boolean hedging) {
+			this.hedging = hedging;
+		}
+
 		@Override
 		public boolean equals(Object o) {
 			if (this == o) {
@@ -224,7 +967,10 @@ public class FeignClientProperties {
 					&& Objects.equals(this.decoder, that.decoder)
 					&& Objects.equals(this.contract, that.contract)
 					&& Objects.equals(this.exceptionPropagationPolicy,
-							that.exceptionPropagationPolicy);
+							that.exceptionPropagationPolicy)
+					&& Objects.equals(this.maxConnectionsPerRoute,
+							that.maxConnectionsPerRoute)
+					&& Objects.equals(this.hedging, that.hedging);
 		}
 
 		@Override
@@ -232,7 +978,8 @@ public class FeignClientProperties {
 			return Objects.hash(this.loggerLevel, this.connectTimeout, this.readTimeout,
 					this.retryer, this.errorDecoder, this.requestInterceptors,
 					this.decode404, this.encoder, this.decoder, this.contract,
-					this.exceptionPropagationPolicy);
+					this.exceptionPropagationPolicy, this.maxConnectionsPerRoute,
+					this.hedging);
 		}
 
 	}
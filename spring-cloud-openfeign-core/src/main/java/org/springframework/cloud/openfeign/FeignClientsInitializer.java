@@ -0,0 +1,121 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Creates the Feign clients registered as proxies by {@link FeignClientFactoryBean}
+ * concurrently, once all other singletons have been created, so that the child
+ * contexts and contract metadata of the clients are built on a bounded pool instead of
+ * one after the other.
+ *
+ * @see FeignClientProperties.Initialization#isParallel()
+ */
+class FeignClientsInitializer implements SmartInitializingSingleton, BeanFactoryAware {
+
+	private static final Log log = LogFactory.getLog(FeignClientsInitializer.class);
+
+	private final FeignClientProperties.Initialization properties;
+
+	private ListableBeanFactory beanFactory;
+
+	FeignClientsInitializer(FeignClientProperties.Initialization properties) {
+		this.properties = properties;
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		this.beanFactory = (ListableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (this.properties.isLazy()) {
+			return;
+		}
+		Map<String, FeignClientFactoryBean> factoryBeans = this.beanFactory
+				.getBeansOfType(FeignClientFactoryBean.class);
+		if (factoryBeans.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		int threads = Math.max(1,
+				Math.min(this.properties.getThreads(), factoryBeans.size()));
+		ExecutorService executor = Executors.newFixedThreadPool(threads,
+				new CustomizableThreadFactory("feign-init-"));
+		try {
+			List<Future<?>> futures = new ArrayList<>(factoryBeans.size());
+			List<String> beanNames = new ArrayList<>(factoryBeans.size());
+			factoryBeans.forEach((beanName, factoryBean) -> {
+				// the proxies of clients that are not injected anywhere do not exist yet
+				this.beanFactory.getBean(BeanFactoryUtils.transformedBeanName(beanName));
+				beanNames.add(beanName);
+				futures.add(executor.submit(() -> {
+					factoryBean.initialize();
+					return null;
+				}));
+			});
+			for (int i = 0; i < futures.size(); i++) {
+				await(beanNames.get(i), futures.get(i));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		if (log.isInfoEnabled()) {
+			log.info("Created " + factoryBeans.size() + " Feign clients on " + threads
+					+ " threads in "
+					+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		}
+	}
+
+	private static void await(String beanName, Future<?> future) {
+		try {
+			future.get();
+		}
+		catch (ExecutionException ex) {
+			throw new BeanCreationException(beanName, "Could not create Feign client",
+					ex.getCause());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanCreationException(beanName,
+					"Interrupted while creating Feign client", ex);
+		}
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.openfeign.clientconfig.ConnectionPrewarmer;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * Opens connections to the servers of the registered Feign clients once the context
+ * has been refreshed and before the application reports that it is ready, so that the
+ * first requests do not pay for the TCP and TLS handshakes. A client with a URL is
+ * connected to that URL, a load balanced one to each instance of its service known to
+ * the {@link DiscoveryClient}, or else to the instance chosen by the
+ * {@link LoadBalancerClient}.
+ * <p>
+ * Failures are logged and never prevent the application from starting.
+ *
+ * @see FeignClientProperties.Prewarm
+ */
+public class FeignClientsPrewarmer
+		implements ApplicationRunner, BeanFactoryAware, EnvironmentAware {
+
+	private static final Log log = LogFactory.getLog(FeignClientsPrewarmer.class);
+
+	private static final int MAX_THREADS = 8;
+
+	private final FeignClientProperties.Prewarm properties;
+
+	private final List<ConnectionPrewarmer> prewarmers;
+
+	private final DiscoveryClient discoveryClient;
+
+	private final LoadBalancerClient loadBalancerClient;
+
+	private ConfigurableListableBeanFactory beanFactory;
+
+	private Environment environment;
+
+	/**
+	 * @param properties the pre-warming settings
+	 * @param prewarmers the pre-warmers of the HTTP clients in use
+	 * @param discoveryClient the discovery client, possibly {@code null}
+	 * @param loadBalancerClient the load balancer client, possibly {@code null}
+	 */
+	public FeignClientsPrewarmer(FeignClientProperties.Prewarm properties,
+			List<ConnectionPrewarmer> prewarmers, DiscoveryClient discoveryClient,
+			LoadBalancerClient loadBalancerClient) {
+		this.properties = properties;
+		this.prewarmers = prewarmers;
+		this.discoveryClient = discoveryClient;
+		this.loadBalancerClient = loadBalancerClient;
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.environment = environment;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (this.prewarmers.isEmpty() || this.properties.getConnections() <= 0) {
+			return;
+		}
+		Set<URI> origins = getOrigins();
+		if (origins.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(origins.size(), MAX_THREADS),
+				new CustomizableThreadFactory("feign-prewarm-"));
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (URI origin : origins) {
+				for (ConnectionPrewarmer prewarmer : this.prewarmers) {
+					futures.add(executor.submit(() -> {
+						prewarmer.prewarm(origin, this.properties.getConnections());
+						return null;
+					}));
+				}
+			}
+			await(futures, start);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		if (log.isInfoEnabled()) {
+			log.info("Opened connections to " + origins.size() + " Feign client servers in "
+					+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+		}
+	}
+
+	/**
+	 * @return the scheme, host and port of each URL and service instance the Feign
+	 * clients send requests to
+	 */
+	Set<URI> getOrigins() {
+		Set<URI> origins = new LinkedHashSet<>();
+		for (String beanName : this.beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition definition = this.beanFactory.getBeanDefinition(beanName);
+			if (!FeignClientFactoryBean.class.getName()
+					.equals(definition.getBeanClassName())) {
+				continue;
+			}
+			PropertyValues values = definition.getPropertyValues();
+			String url = getValue(values, "url");
+			String name = getValue(values, "name");
+			if (StringUtils.hasText(url)) {
+				addOrigin(origins, url.startsWith("http") ? url : "http://" + url);
+			}
+			else if (StringUtils.hasText(name)) {
+				if (name.startsWith("http")) {
+					addOrigin(origins, name);
+				}
+				else {
+					addInstances(origins, name);
+				}
+			}
+		}
+		return origins;
+	}
+
+	private void addInstances(Set<URI> origins, String serviceId) {
+		try {
+			List<ServiceInstance> instances = this.discoveryClient != null
+					? this.discoveryClient.getInstances(serviceId) : null;
+			if (instances != null && !instances.isEmpty()) {
+				for (ServiceInstance instance : instances) {
+					addOrigin(origins, instance.getUri().toString());
+				}
+			}
+			else if (this.loadBalancerClient != null) {
+				ServiceInstance instance = this.loadBalancerClient.choose(serviceId);
+				if (instance != null) {
+					addOrigin(origins, instance.getUri().toString());
+				}
+			}
+		}
+		catch (RuntimeException ex) {
+			log.warn("Could not resolve the instances of " + serviceId, ex);
+		}
+	}
+
+	private void await(List<Future<?>> futures, long start) {
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(this.properties.getTimeout());
+		for (Future<?> future : futures) {
+			try {
+				future.get(Math.max(0, deadline - System.nanoTime()),
+						TimeUnit.NANOSECONDS);
+			}
+			catch (ExecutionException ex) {
+				log.warn("Could not open connections to a Feign client server",
+						ex.getCause());
+			}
+			catch (TimeoutException ex) {
+				log.warn("Gave up opening connections to the Feign client servers after "
+						+ this.properties.getTimeout() + " ms");
+				return;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private static void addOrigin(Set<URI> origins, String url) {
+		try {
+			URI uri = new URI(url);
+			if (uri.getHost() != null) {
+				origins.add(new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(),
+						null, null, null));
+			}
+		}
+		catch (URISyntaxException ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Not opening connections to " + url, ex);
+			}
+		}
+	}
+
+	private String getValue(PropertyValues values, String name) {
+		Object value = values.getPropertyValue(name) != null
+				? values.getPropertyValue(name).getValue() : null;
+		if (!(value instanceof String)) {
+			return null;
+		}
+		return this.environment != null
+				? this.environment.resolvePlaceholders((String) value) : (String) value;
+	}
+
+}
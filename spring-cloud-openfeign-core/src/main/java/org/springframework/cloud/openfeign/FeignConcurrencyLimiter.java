@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import feign.Client;
+import feign.Response;
+
+/**
+ * Limits the number of requests each Feign client has in flight, so that a degraded
+ * service can only hold up the threads calling it up to the limit of its clients. The
+ * limit of each client is discovered from the round trip times of its requests: it
+ * grows while they stay close to their long term average and shrinks as they get
+ * longer, or when requests fail. Requests beyond the limit fail at once with a
+ * {@link ConcurrencyLimitExceededException}.
+ *
+ * @see FeignClientProperties.ConcurrencyLimit
+ */
+public class FeignConcurrencyLimiter {
+
+	private final FeignClientProperties.ConcurrencyLimit properties;
+
+	private final Map<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+
+	private final List<BiConsumer<String, AdaptiveLimit>> listeners = new CopyOnWriteArrayList<>();
+
+	public FeignConcurrencyLimiter(FeignClientProperties.ConcurrencyLimit properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * @param client the client sending the requests of a Feign client
+	 * @param contextId the context id of the Feign client
+	 * @return a client that only lets the requests within the limit of the Feign client
+	 * through
+	 */
+	public Client decorate(Client client, String contextId) {
+		AdaptiveLimit limit = getLimit(contextId);
+		return (request, options) -> {
+			int inFlight = limit.tryAcquire();
+			if (inFlight < 0) {
+				limit.rejected.increment();
+				throw new ConcurrencyLimitExceededException(contextId, limit.getLimit());
+			}
+			long start = System.nanoTime();
+			boolean dropped = true;
+			try {
+				Response response = client.execute(request, options);
+				dropped = false;
+				return response;
+			}
+			finally {
+				limit.release(System.nanoTime() - start, inFlight, dropped);
+			}
+		};
+	}
+
+	/**
+	 * @param contextId the context id of a Feign client
+	 * @return the limit of the client
+	 */
+	public AdaptiveLimit getLimit(String contextId) {
+		AdaptiveLimit limit = this.limits.get(contextId);
+		if (limit != null) {
+			return limit;
+		}
+		AdaptiveLimit created = new AdaptiveLimit(this.properties);
+		limit = this.limits.putIfAbsent(contextId, created);
+		if (limit != null) {
+			return limit;
+		}
+		for (BiConsumer<String, AdaptiveLimit> listener : this.listeners) {
+			listener.accept(contextId, created);
+		}
+		return created;
+	}
+
+	/**
+	 * Calls the given listener with the limits created so far and with each limit
+	 * created afterwards. A limit created while the listener is added may be passed to
+	 * it twice.
+	 * @param listener the listener, given the context id of a client and its limit
+	 */
+	public void addListener(BiConsumer<String, AdaptiveLimit> listener) {
+		this.listeners.add(listener);
+		this.limits.forEach(listener);
+	}
+
+	/**
+	 * @return the limits created so far, by context id
+	 */
+	public Map<String, AdaptiveLimit> getLimits() {
+		return Collections.unmodifiableMap(this.limits);
+	}
+
+	/**
+	 * @return the number of requests rejected so far by the limits of all clients
+	 */
+	public long getRejected() {
+		long rejected = 0;
+		for (AdaptiveLimit limit : this.limits.values()) {
+			rejected += limit.getRejected();
+		}
+		return rejected;
+	}
+
+	/**
+	 * Concurrency limit following the gradient between the long term average round
+	 * trip time of the requests of a client and the round trip time of each request.
+	 */
+	public static final class AdaptiveLimit {
+
+		private static final int LONG_WINDOW = 600;
+
+		private static final double DROP_RATIO = 0.9;
+
+		private final double minLimit;
+
+		private final double maxLimit;
+
+		private final double tolerance;
+
+		private final double smoothing;
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private final LongAdder rejected = new LongAdder();
+
+		private volatile double limit;
+
+		private double longRtt;
+
+		private long samples;
+
+		AdaptiveLimit(FeignClientProperties.ConcurrencyLimit properties) {
+			this.minLimit = Math.max(1, properties.getMinLimit());
+			this.maxLimit = Math.max(this.minLimit, properties.getMaxLimit());
+			this.tolerance = Math.max(1, properties.getTolerance());
+			this.smoothing = Math.min(1, Math.max(0.01, properties.getSmoothing()));
+			this.limit = Math.min(this.maxLimit,
+					Math.max(this.minLimit, properties.getInitialLimit()));
+		}
+
+		public int getLimit() {
+			return (int) this.limit;
+		}
+
+		public int getInFlight() {
+			return this.inFlight.get();
+		}
+
+		/**
+		 * @return the number of requests rejected so far by this limit
+		 */
+		public long getRejected() {
+			return this.rejected.sum();
+		}
+
+		/**
+		 * @return the number of requests in flight including the new one, or
+		 * {@code -1} if the limit is reached
+		 */
+		int tryAcquire() {
+			while (true) {
+				int inFlight = this.inFlight.get();
+				if (inFlight >= getLimit()) {
+					return -1;
+				}
+				if (this.inFlight.compareAndSet(inFlight, inFlight + 1)) {
+					return inFlight + 1;
+				}
+			}
+		}
+
+		void release(long rttNanos, int inFlight, boolean dropped) {
+			this.inFlight.decrementAndGet();
+			update(rttNanos, inFlight, dropped);
+		}
+
+		synchronized void update(long rttNanos, int inFlight, boolean dropped) {
+			if (dropped) {
+				this.limit = Math.max(this.minLimit, this.limit * DROP_RATIO);
+				return;
+			}
+			double rtt = Math.max(1, rttNanos);
+			this.samples++;
+			this.longRtt += (rtt - this.longRtt) / Math.min(this.samples, LONG_WINDOW);
+			if (this.longRtt / rtt > 2) {
+				// the service has recovered, so the long term average catches up faster
+				this.longRtt *= 0.95;
+			}
+			if (inFlight < this.limit / 2) {
+				// the limit was not approached, so the round trip time tells nothing
+				// about it
+				return;
+			}
+			double gradient = Math.max(0.5,
+					Math.min(1.0, this.tolerance * this.longRtt / rtt));
+			double newLimit = this.limit * gradient + Math.sqrt(this.limit);
+			newLimit = this.limit * (1 - this.smoothing) + newLimit * this.smoothing;
+			this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+		}
+
+	}
+
+}
@@ -16,7 +16,13 @@
 
 package org.springframework.cloud.openfeign;
 
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.cloud.context.named.NamedContextFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 /**
  *
@@ -35,9 +41,47 @@ import org.springframework.cloud.context.named.NamedContextFactory;
  */
 public class FeignContext extends NamedContextFactory<FeignClientSpecification> {
 
+	private final Map<String, AnnotationConfigApplicationContext> contexts = new ConcurrentHashMap<>();
+
+	private final Map<String, Object> contextLocks = new ConcurrentHashMap<>();
+
 	public FeignContext() {
 
 		super( FeignClientsConfiguration.class, "feign", "feign.client.name");
 	}
 
+	/**
+	 * Creates the context of each name once, like the super class, but only holds a
+	 * lock per name so that the contexts of different clients can be created
+	 * concurrently.
+	 */
+	@Override
+	protected AnnotationConfigApplicationContext getContext(String name) {
+		AnnotationConfigApplicationContext context = this.contexts.get(name);
+		if (context == null) {
+			synchronized (this.contextLocks.computeIfAbsent(name, key -> new Object())) {
+				context = this.contexts.get(name);
+				if (context == null) {
+					context = createContext(name);
+					this.contexts.put(name, context);
+				}
+			}
+		}
+		return context;
+	}
+
+	@Override
+	public Set<String> getContextNames() {
+		return new HashSet<>(this.contexts.keySet());
+	}
+
+	@Override
+	public void destroy() {
+		for (AnnotationConfigApplicationContext context : this.contexts.values()) {
+			context.close();
+		}
+		this.contexts.clear();
+		super.destroy();
+	}
+
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+import feign.hystrix.FallbackFactory;
+
+/**
+ * Looks up and invokes the fallback or the fallback factory of a Feign client the way
+ * the {@link HystrixTargeter} does, for the targeters and capabilities that apply them
+ * without Hystrix commands.
+ */
+final class FeignFallbacks {
+
+	private FeignFallbacks() {
+	}
+
+	/**
+	 * @param factory the factory of the Feign client
+	 * @param feignClientName the name of the Feign client
+	 * @param context the Feign context
+	 * @param targetType the type of the Feign client
+	 * @return a function creating the fallback instance for the cause of a failure, or
+	 * {@code null} if the client has neither a fallback nor a fallback factory
+	 */
+	static Function<Throwable, Object> getFallbackFactory(
+			FeignClientFactoryBean factory, String feignClientName, FeignContext context,
+			Class<?> targetType) {
+		Class<?> fallback = factory.getFallback();
+		if (fallback != void.class) {
+			Object fallbackInstance = getFromContext("fallback", feignClientName,
+					context, fallback, targetType);
+			return cause -> fallbackInstance;
+		}
+		Class<?> fallbackFactory = factory.getFallbackFactory();
+		if (fallbackFactory != void.class) {
+			return FallbackFactories.getFromContext(feignClientName, context,
+					fallbackFactory);
+		}
+		return null;
+	}
+
+	/**
+	 * Invokes the given method of the fallback created for the given cause.
+	 * @param fallbackFactory the fallback factory of the client
+	 * @param method the method of the client
+	 * @param args the arguments of the invocation
+	 * @param cause the failure of the invocation
+	 * @return the result of the fallback
+	 * @throws Throwable the exception thrown by the fallback
+	 */
+	static Object invoke(Function<Throwable, Object> fallbackFactory, Method method,
+			Object[] args, Throwable cause) throws Throwable {
+		Object fallback = fallbackFactory.apply(cause);
+		try {
+			return method.invoke(fallback, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> T getFromContext(String fallbackMechanism, String feignClientName,
+			FeignContext context, Class<?> beanType, Class<T> targetType) {
+		Object fallbackInstance = context.getInstance(feignClientName, beanType);
+		if (fallbackInstance == null) {
+			throw new IllegalStateException(String.format(
+					"No " + fallbackMechanism
+							+ " instance of type %s found for feign client %s",
+					beanType, feignClientName));
+		}
+
+		if (!targetType.isAssignableFrom(beanType)) {
+			throw new IllegalStateException(String.format("Incompatible "
+					+ fallbackMechanism
+					+ " instance. Fallback/fallbackFactory of type %s is not assignable to %s for feign client %s",
+					beanType, targetType, feignClientName));
+		}
+		return (T) fallbackInstance;
+	}
+
+	/**
+	 * Keeps {@link FallbackFactory} out of the signatures of {@link FeignFallbacks}, as
+	 * feign-hystrix is only on the class path of applications that declare a fallback
+	 * factory.
+	 */
+	private static final class FallbackFactories {
+
+		static Function<Throwable, Object> getFromContext(String feignClientName,
+				FeignContext context, Class<?> fallbackFactoryClass) {
+			FallbackFactory<?> fallbackFactory = FeignFallbacks.getFromContext(
+					"fallbackFactory", feignClientName, context, fallbackFactoryClass,
+					FallbackFactory.class);
+			return fallbackFactory::create;
+		}
+
+	}
+
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+
+import org.springframework.cloud.openfeign.support.RequestBudget;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * {@link Capability} that hedges the idempotent requests of a load balanced Feign
+ * client. When a request has not been answered after the given percentile of the
+ * latencies of the client, the same request is executed a second time by the load
+ * balanced {@link Client}, which chooses another instance. The first response wins and
+ * the other request is cancelled, its response being closed should it still arrive.
+ * <p>
+ * Requests are hedged if they were sent by a method annotated with {@link Hedged}, or
+ * if they are {@code GET}, {@code HEAD} or {@code OPTIONS} requests and all such
+ * requests of the client are to be hedged. Hedged requests are executed by the
+ * {@link FeignHedgingExecutor}, and the second requests are limited to a percentage of
+ * them by a {@link RequestBudget}. The caller waits for a response no longer than the
+ * connect and read timeouts of the request together.
+ *
+ * @see FeignClientProperties.Hedging
+ */
+public class FeignHedgingCapability implements Capability {
+
+	private static final int BURST = 10;
+
+	private static final ThreadLocal<Set<String>> chosenInstances = new ThreadLocal<>();
+
+	private final FeignHedgingExecutor executor;
+
+	private final double percentile;
+
+	private final boolean hedgeReads;
+
+	private final RequestBudget budget;
+
+	private final LatencyHistogram latencies = new LatencyHistogram();
+
+	private final Map<String, Boolean> hedgedMethods = new ConcurrentHashMap<>();
+
+	/**
+	 * @param executor the executor running the hedged requests
+	 * @param properties the hedging settings
+	 * @param hedgeReads whether to hedge all {@code GET}, {@code HEAD} and
+	 * {@code OPTIONS} requests, and not only those of {@link Hedged} methods
+	 */
+	public FeignHedgingCapability(FeignHedgingExecutor executor,
+			FeignClientProperties.Hedging properties, boolean hedgeReads) {
+		this.executor = executor;
+		this.percentile = properties.getPercentile();
+		this.hedgeReads = hedgeReads;
+		this.budget = new RequestBudget(properties.getBudget(), BURST);
+	}
+
+	/**
+	 * @param type the type of a Feign client
+	 * @return whether the type or any of its methods is annotated with {@link Hedged}
+	 */
+	public static boolean hasHedgedMethods(Class<?> type) {
+		if (AnnotatedElementUtils.hasAnnotation(type, Hedged.class)) {
+			return true;
+		}
+		for (Method method : type.getMethods()) {
+			if (AnnotatedElementUtils.hasAnnotation(method, Hedged.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Tells whether another attempt at the hedged request executed by the current
+	 * thread was sent to the given instance, so that the load balanced clients choose
+	 * another one.
+	 * @param host the host of the instance
+	 * @param port the port of the instance
+	 * @return whether the instance was chosen for another attempt
+	 */
+	public static boolean isChosenByOtherAttempt(String host, int port) {
+		Set<String> instances = chosenInstances.get();
+		return instances != null && instances.contains(host + ":" + port);
+	}
+
+	/**
+	 * Records the instance chosen for the attempt at the hedged request executed by the
+	 * current thread, if any.
+	 * @param host the host of the instance
+	 * @param port the port of the instance
+	 */
+	public static void onInstanceChosen(String host, int port) {
+		Set<String> instances = chosenInstances.get();
+		if (instances != null) {
+			instances.add(host + ":" + port);
+		}
+	}
+
+	@Override
+	public Client enrich(Client client) {
+		return (request, options) -> isHedged(request)
+				? execute(client, request, options) : client.execute(request, options);
+	}
+
+	public RequestBudget getBudget() {
+		return this.budget;
+	}
+
+	boolean isHedged(Request request) {
+		RequestTemplate template = request.requestTemplate();
+		MethodMetadata metadata = template != null ? template.methodMetadata() : null;
+		if (metadata == null || metadata.method() == null) {
+			return this.hedgeReads && isSafe(request.httpMethod());
+		}
+		return this.hedgedMethods.computeIfAbsent(metadata.configKey(), key -> {
+			Method method = metadata.method();
+			Class<?> type = template.feignTarget() != null
+					? template.feignTarget().type() : method.getDeclaringClass();
+			return AnnotatedElementUtils.hasAnnotation(method, Hedged.class)
+					|| AnnotatedElementUtils.hasAnnotation(type, Hedged.class)
+					|| (this.hedgeReads && isSafe(request.httpMethod()));
+		});
+	}
+
+	private static boolean isSafe(Request.HttpMethod httpMethod) {
+		return httpMethod == Request.HttpMethod.GET
+				|| httpMethod == Request.HttpMethod.HEAD
+				|| httpMethod == Request.HttpMethod.OPTIONS;
+	}
+
+	private Response execute(Client client, Request request, Request.Options options)
+			throws IOException {
+		this.budget.onRequest();
+		long delay = this.latencies.getPercentile(this.percentile);
+		long timeout = TimeUnit.MILLISECONDS.toNanos(
+				(long) options.connectTimeoutMillis() + options.readTimeoutMillis());
+		long deadline = System.nanoTime() + timeout;
+		Hedge hedge = new Hedge(client, request, options);
+		if (!hedge.attempt()) {
+			// the executor is saturated, so the request is not hedged
+			long start = System.nanoTime();
+			Response response = client.execute(request, options);
+			this.latencies.record(System.nanoTime() - start);
+			return response;
+		}
+		try {
+			if (delay >= 0 && delay < timeout && !hedge.await(delay)
+					&& this.budget.tryAcquire()) {
+				hedge.attempt();
+			}
+			return hedge.getResponse(deadline - System.nanoTime());
+		}
+		finally {
+			hedge.cancel();
+		}
+	}
+
+	/**
+	 * The attempts at executing a request, the first response of which wins.
+	 */
+	private final class Hedge {
+
+		private final Client client;
+
+		private final Request request;
+
+		private final Request.Options options;
+
+		private final CompletableFuture<Response> response = new CompletableFuture<>();
+
+		private final List<Future<?>> attempts = new ArrayList<>(2);
+
+		private final AtomicInteger pending = new AtomicInteger();
+
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		private final Set<String> instances = ConcurrentHashMap.newKeySet();
+
+		private Hedge(Client client, Request request, Request.Options options) {
+			this.client = client;
+			this.request = request;
+			this.options = options;
+		}
+
+		boolean attempt() {
+			this.pending.incrementAndGet();
+			try {
+				this.attempts.add(FeignHedgingCapability.this.executor
+						.getExecutorService().submit(this::run));
+				return true;
+			}
+			catch (RejectedExecutionException ex) {
+				completeIfFailed(this.pending.decrementAndGet());
+				return false;
+			}
+		}
+
+		boolean await(long nanos) throws IOException {
+			try {
+				this.response.get(nanos, TimeUnit.NANOSECONDS);
+				return true;
+			}
+			catch (TimeoutException ex) {
+				return false;
+			}
+			catch (ExecutionException ex) {
+				return true;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+		}
+
+		Response getResponse(long nanos) throws IOException {
+			try {
+				return this.response.get(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+			}
+			catch (TimeoutException ex) {
+				throw new SocketTimeoutException("Read timed out");
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IOException(cause);
+			}
+		}
+
+		void cancel() {
+			for (Future<?> attempt : this.attempts) {
+				attempt.cancel(true);
+			}
+		}
+
+		private void run() {
+			long start = System.nanoTime();
+			chosenInstances.set(this.instances);
+			try {
+				Response response = this.client.execute(this.request, this.options);
+				FeignHedgingCapability.this.latencies.record(System.nanoTime() - start);
+				if (!this.response.complete(response)) {
+					response.close();
+				}
+			}
+			catch (Throwable ex) {
+				this.failure.compareAndSet(null, ex);
+				completeIfFailed(this.pending.decrementAndGet());
+			}
+			finally {
+				chosenInstances.remove();
+			}
+		}
+
+		private void completeIfFailed(int pending) {
+			Throwable failure = this.failure.get();
+			if (pending == 0 && failure != null) {
+				this.response.completeExceptionally(failure);
+			}
+		}
+
+	}
+
+	/**
+	 * Histogram of the latencies of a client in buckets a quarter of a power of two
+	 * wide, whose counts are halved every {@link #DECAY_SAMPLES} samples so that it
+	 * follows changes in latency.
+	 */
+	static final class LatencyHistogram {
+
+		private static final int MIN_SAMPLES = 20;
+
+		private static final int DECAY_SAMPLES = 1000;
+
+		private static final int BUCKETS = 248;
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+		private final AtomicLong samples = new AtomicLong();
+
+		void record(long nanos) {
+			this.counts.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(nanos)));
+			if (this.samples.incrementAndGet() % DECAY_SAMPLES == 0) {
+				for (int i = 0; i < BUCKETS; i++) {
+					long count = this.counts.get(i);
+					this.counts.addAndGet(i, -(count / 2));
+				}
+			}
+		}
+
+		/**
+		 * @param percentile the percentile, between 0 and 100
+		 * @return the upper bound of the bucket holding the given percentile in
+		 * nanoseconds, or {@code -1} if there are too few samples
+		 */
+		long getPercentile(double percentile) {
+			long[] counts = new long[BUCKETS];
+			long total = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				counts[i] = this.counts.get(i);
+				total += counts[i];
+			}
+			if (total < MIN_SAMPLES) {
+				return -1;
+			}
+			long rank = (long) Math.ceil(Math.min(100, percentile) / 100 * total);
+			long cumulated = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				cumulated += counts[i];
+				if (cumulated >= rank) {
+					return TimeUnit.MICROSECONDS.toNanos(upperBound(i));
+				}
+			}
+			return TimeUnit.MICROSECONDS.toNanos(upperBound(BUCKETS - 1));
+		}
+
+		static int bucket(long micros) {
+			if (micros < 4) {
+				return (int) Math.max(0, micros);
+			}
+			int exponent = 63 - Long.numberOfLeadingZeros(micros);
+			int fraction = (int) ((micros >> (exponent - 2)) & 3);
+			return Math.min(BUCKETS - 1, (exponent - 1) * 4 + fraction);
+		}
+
+		static long upperBound(int bucket) {
+			if (bucket < 4) {
+				return bucket + 1;
+			}
+			int exponent = bucket / 4 + 1;
+			int fraction = bucket % 4;
+			if (exponent >= 61) {
+				return Long.MAX_VALUE;
+			}
+			return (long) (4 + fraction + 1) << (exponent - 2);
+		}
+
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.openfeign;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Runs the attempts at the requests hedged by {@link FeignHedgingCapability}. Kept
+ * apart from the {@link FeignAsyncExecutor}, whose threads wait for the hedged requests
+ * of asynchronous clients, so that the attempts never wait behind the invocations
+ * waiting for them. Attempts are not queued: those submitted while all the threads are
+ * busy are rejected.
+ */
+public class FeignHedgingExecutor implements DisposableBean {
+
+	private final ExecutorService executorService;
+
+	public FeignHedgingExecutor(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Creates an executor starting up to the given number of daemon threads, which
+	 * stop once they have been idle for a minute.
+	 * @param poolSize the largest number of threads
+	 * @return the executor
+	 */
+	public static FeignHedgingExecutor create(int poolSize) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"feign-hedging-");
+		threadFactory.setDaemon(true);
+		return new FeignHedgingExecutor(new ThreadPoolExecutor(0, poolSize, 60,
+				TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory));
+	}
+
+	public ExecutorService getExecutorService() {
+		return this.executorService;
+	}
+
+	@Override
+	public void destroy() {
+		this.executorService.shutdown();
+	}
+
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import feign.Capability;
+import feign.Client;
+import feign.Contract;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link Capability} that lets the methods of a Feign client return {@link Mono} or
+ * {@link Flux}. Nothing is sent until the publisher is subscribed to, and the request
+ * is then executed on {@link Schedulers#boundedElastic()} by the configured
+ * {@link Client}, so load balancing, interceptors and error decoding are the same as
+ * for a synchronous method.
+ * <p>
+ * The response of a {@link Mono} method is decoded like the one of a synchronous
+ * method. A JSON array returned to a {@link Flux} method is read one element per
+ * request of the subscriber with the {@link ObjectMapper} of the Jackson
+ * {@link HttpMessageConverter}, and the response is kept open until the {@link Flux}
+ * terminates or is cancelled. Other content types are decoded as a {@link List} first.
+ */
+public class FeignReactiveCapability implements Capability {
+
+	private static final boolean jackson2Present = ClassUtils.isPresent(
+			"com.fasterxml.jackson.databind.ObjectMapper",
+			FeignReactiveCapability.class.getClassLoader());
+
+	private final List<HttpMessageConverter<?>> messageConverters;
+
+	private final Set<String> monoMethods = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> fluxMethods = ConcurrentHashMap.newKeySet();
+
+	private final Function<Throwable, Object> fallbackFactory;
+
+	public FeignReactiveCapability(List<HttpMessageConverter<?>> messageConverters) {
+		this(messageConverters, null);
+	}
+
+	/**
+	 * @param messageConverters the message converters of the client
+	 * @param fallbackFactory creates the fallback whose methods are subscribed to when
+	 * the publisher of a method fails, or {@code null} to let the failures through
+	 */
+	public FeignReactiveCapability(List<HttpMessageConverter<?>> messageConverters,
+			Function<Throwable, Object> fallbackFactory) {
+		this.messageConverters = messageConverters;
+		this.fallbackFactory = fallbackFactory;
+	}
+
+	/**
+	 * @param type the type of a Feign client
+	 * @return whether any method of the given type returns a {@link Mono} or a
+	 * {@link Flux}
+	 */
+	public static boolean hasReactiveMethods(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (method.getReturnType() == Mono.class
+					|| method.getReturnType() == Flux.class) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Contract enrich(Contract contract) {
+		return targetType -> {
+			List<MethodMetadata> metadata = contract.parseAndValidateMetadata(targetType);
+			for (MethodMetadata md : metadata) {
+				Type returnType = md.returnType();
+				if (rawType(returnType) == Mono.class) {
+					md.returnType(elementType(returnType));
+					this.monoMethods.add(md.configKey());
+				}
+				else if (rawType(returnType) == Flux.class) {
+					this.fluxMethods.add(md.configKey());
+				}
+			}
+			return metadata;
+		};
+	}
+
+	@Override
+	public Client enrich(Client client) {
+		return (request, options) -> {
+			Response response = client.execute(request, options);
+			if (response.body() == null) {
+				return response;
+			}
+			return response.toBuilder().body(new DetachableBody(response.body()))
+					.build();
+		};
+	}
+
+	@Override
+	public Decoder enrich(Decoder decoder) {
+		return (response, type) -> {
+			if (rawType(type) != Flux.class) {
+				return decoder.decode(response, type);
+			}
+			return decodeFlux(decoder, response, elementType(type));
+		};
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public InvocationHandlerFactory enrich(
+			InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> reactiveDispatch = new LinkedHashMap<>(dispatch);
+			reactiveDispatch.replaceAll((method, handler) -> {
+				String configKey = Feign.configKey(target.type(), method);
+				if (this.monoMethods.contains(configKey)) {
+					return argv -> withFallback(method, argv, Mono
+							.fromCallable(() -> FeignAsyncCapability.invoke(handler, argv))
+							.subscribeOn(Schedulers.boundedElastic()));
+				}
+				if (this.fluxMethods.contains(configKey)) {
+					return argv -> withFallback(method, argv, Flux.defer(() -> {
+						try {
+							return (Flux<Object>) FeignAsyncCapability.invoke(handler,
+									argv);
+						}
+						catch (Exception ex) {
+							return Flux.error(ex);
+						}
+					}).subscribeOn(Schedulers.boundedElastic()));
+				}
+				return handler;
+			});
+			return invocationHandlerFactory.create(target, reactiveDispatch);
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private Mono<Object> withFallback(Method method, Object[] argv, Mono<Object> mono) {
+		if (this.fallbackFactory == null) {
+			return mono;
+		}
+		return mono.onErrorResume(
+				ex -> Mono.defer(() -> (Mono<Object>) fallback(method, argv, ex)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Flux<Object> withFallback(Method method, Object[] argv, Flux<Object> flux) {
+		if (this.fallbackFactory == null) {
+			return flux;
+		}
+		return flux.onErrorResume(
+				ex -> Flux.defer(() -> (Publisher<Object>) fallback(method, argv, ex)));
+	}
+
+	private Object fallback(Method method, Object[] argv, Throwable cause) {
+		try {
+			return FeignFallbacks.invoke(this.fallbackFactory, method, argv, cause);
+		}
+		catch (Throwable ex) {
+			throw Exceptions.propagate(ex);
+		}
+	}
+
+	private Flux<?> decodeFlux(Decoder decoder, Response response, Type elementType)
+			throws IOException {
+		Response.Body body = response.body();
+		if (body == null) {
+			return Flux.empty();
+		}
+		// a body that is not detachable was already buffered, for example to be logged,
+		// and is only streamed when it can be read again after Feign has closed it
+		ObjectMapper objectMapper = jackson2Present
+				&& (body instanceof DetachableBody || body.isRepeatable())
+						? JsonElements.findObjectMapper(this.messageConverters,
+								elementType, contentType(response))
+						: null;
+		if (objectMapper == null) {
+			Type listType = ResolvableType
+					.forClassWithGenerics(List.class, ResolvableType.forType(elementType))
+					.getType();
+			List<?> elements = (List<?>) decoder.decode(response, listType);
+			return elements != null ? Flux.fromIterable(elements) : Flux.empty();
+		}
+		Response.Body source = body instanceof DetachableBody
+				? ((DetachableBody) body).detach() : body;
+		return JsonElements.read(objectMapper, elementType, source, response);
+	}
+
+	private static MediaType contentType(Response response) {
+		Collection<String> values = response.headers()
+				.getOrDefault(HttpHeaders.CONTENT_TYPE, Collections.emptyList());
+		if (values.isEmpty()) {
+			return null;
+		}
+		try {
+			return MediaType.parseMediaType(values.iterator().next());
+		}
+		catch (InvalidMediaTypeException ex) {
+			// decoded like a response of an unknown type
+			return null;
+		}
+	}
+
+	private static Class<?> rawType(Type type) {
+		if (type instanceof ParameterizedType) {
+			type = ((ParameterizedType) type).getRawType();
+		}
+		return type instanceof Class ? (Class<?>) type : null;
+	}
+
+	private static Type elementType(Type type) {
+		return type instanceof ParameterizedType
+				? ((ParameterizedType) type).getActualTypeArguments()[0] : Object.class;
+	}
+
+	/**
+	 * Reads the elements of a JSON array, or a single JSON value, one at a time.
+	 */
+	private static final class JsonElements {
+
+		private final JsonParser parser;
+
+		private final ObjectReader reader;
+
+		private boolean started;
+
+		private boolean array;
+
+		private JsonElements(JsonParser parser, ObjectReader reader) {
+			this.parser = parser;
+			this.reader = reader;
+		}
+
+		static ObjectMapper findObjectMapper(List<HttpMessageConverter<?>> converters,
+				Type elementType, MediaType contentType) {
+			for (HttpMessageConverter<?> converter : converters) {
+				if (converter instanceof AbstractJackson2HttpMessageConverter
+						&& ((AbstractJackson2HttpMessageConverter) converter)
+								.canRead(elementType, null, contentType)) {
+					return ((AbstractJackson2HttpMessageConverter) converter)
+							.getObjectMapper();
+				}
+			}
+			return null;
+		}
+
+		static Flux<Object> read(ObjectMapper objectMapper, Type elementType,
+				Response.Body body, Response response) {
+			ObjectReader reader = objectMapper
+					.readerFor(objectMapper.constructType(elementType));
+			return Flux.using(() -> body, source -> Flux.generate(
+					() -> new JsonElements(
+							objectMapper.getFactory().createParser(source.asInputStream()),
+							reader),
+					(elements, sink) -> {
+						try {
+							Object element = elements.next();
+							if (element != null) {
+								sink.next(element);
+							}
+							else {
+								sink.complete();
+							}
+						}
+						catch (IOException ex) {
+							sink.error(new DecodeException(response.status(),
+									ex.getMessage(), response.request(), ex));
+						}
+						return elements;
+					}), Util::ensureClosed);
+		}
+
+		/**
+		 * @return the next non-null element, or {@code null} once there are none left
+		 * @throws IOException if the body can not be read or parsed
+		 */
+		Object next() throws IOException {
+			while (true) {
+				JsonToken token = this.parser.nextToken();
+				if (token == null || (this.array && token == JsonToken.END_ARRAY)) {
+					return null;
+				}
+				if (!this.started) {
+					this.started = true;
+					if (token == JsonToken.START_ARRAY) {
+						this.array = true;
+						continue;
+					}
+				}
+				else if (!this.array) {
+					return null;
+				}
+				Object element = this.reader.readValue(this.parser);
+				if (element != null) {
+					return element;
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Response body whose closing can be handed over to a {@link Flux}, so that Feign
+	 * does not close it once the method has returned.
+	 */
+	private static final class DetachableBody implements Response.Body {
+
+		private final Response.Body delegate;
+
+		private volatile boolean detached;
+
+		private DetachableBody(Response.Body delegate) {
+			this.delegate = delegate;
+		}
+
+		Response.Body detach() {
+			this.detached = true;
+			return this.delegate;
+		}
+
+		@Override
+		public Integer length() {
+			return this.delegate.length();
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return this.delegate.isRepeatable();
+		}
+
+		@Override
+		public InputStream asInputStream() throws IOException {
+			return this.delegate.asInputStream();
+		}
+
+		@Override
+		public Reader asReader(Charset charset) throws IOException {
+			return this.delegate.asReader(charset);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.detached) {
+				this.delegate.close();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import feign.Feign;
+import feign.Target;
+import feign.hystrix.HystrixFeign;
+
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link Targeter} that adds a {@link FeignReactiveCapability} to the clients with
+ * methods returning {@code Mono} or {@code Flux} before handing them over to another
+ * {@link Targeter}.
+ */
+class ReactiveTargeter implements Targeter {
+
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Flux", ReactiveTargeter.class.getClassLoader());
+
+	private static final boolean hystrixPresent = ClassUtils.isPresent(
+			"feign.hystrix.HystrixFeign", ReactiveTargeter.class.getClassLoader());
+
+	private final Targeter delegate;
+
+	ReactiveTargeter(Targeter delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @param targeter the targeter creating the clients
+	 * @return the given targeter, decorated when Reactor is on the classpath
+	 */
+	static Targeter decorate(Targeter targeter) {
+		return reactorPresent ? new ReactiveTargeter(targeter) : targeter;
+	}
+
+	@Override
+	public <T> T target(FeignClientFactoryBean factory, Feign.Builder feign,
+			FeignContext context, Target.HardCodedTarget<T> target) {
+		if (FeignReactiveCapability.hasReactiveMethods(target.type())) {
+			String name = StringUtils.isEmpty(factory.getContextId()) ? factory.getName()
+					: factory.getContextId();
+			// a Hystrix command only covers the creation of the publishers, so the
+			// fallback is applied to the failures of the publishers themselves
+			Function<Throwable, Object> fallbackFactory = isHystrix(feign)
+					? FeignFallbacks.getFallbackFactory(factory, name, context,
+							target.type())
+					: null;
+			feign.addCapability(new FeignReactiveCapability(
+					getMessageConverters(name, context), fallbackFactory));
+		}
+		return this.delegate.target(factory, feign, context, target);
+	}
+
+	private static boolean isHystrix(Feign.Builder feign) {
+		return hystrixPresent && feign instanceof HystrixFeign.Builder;
+	}
+
+	private List<HttpMessageConverter<?>> getMessageConverters(String feignClientName,
+			FeignContext context) {
+		HttpMessageConverters converters = context.getInstance(feignClientName,
+				HttpMessageConverters.class);
+		return converters != null ? converters.getConverters() : Collections.emptyList();
+	}
+
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.FeignClientProperties.FeignClientConfiguration;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+
+/**
+ * {@link HttpClientConnectionManager} that resizes the per-route limits of a
+ * {@link PoolingHttpClientConnectionManager} from the time requests wait for a
+ * connection and the number of leased connections of each route.
+ *
+ * @see FeignHttpClientProperties.AdaptivePool
+ */
+public class AdaptiveHttpClientConnectionManager implements HttpClientConnectionManager {
+
+	private static final int MAX_CACHED_HOSTS = 1024;
+
+	private static final ThreadLocal<String> CONTEXT_ID = new ThreadLocal<>();
+
+	private final PoolingHttpClientConnectionManager delegate;
+
+	private final FeignHttpClientProperties.AdaptivePool properties;
+
+	private final FeignClientProperties clientProperties;
+
+	private final Map<HttpRoute, RouteUsage> usages = new ConcurrentHashMap<>();
+
+	private final Map<HttpHost, Integer> hostLimits = new ConcurrentHashMap<>();
+
+	private final Map<HttpHost, Map<String, Integer>> clientLimits = new ConcurrentHashMap<>();
+
+	private final Map<String, HttpHost> hosts = new ConcurrentHashMap<>();
+
+	public AdaptiveHttpClientConnectionManager(
+			PoolingHttpClientConnectionManager delegate,
+			FeignHttpClientProperties.AdaptivePool properties,
+			FeignClientProperties clientProperties) {
+		this.delegate = delegate;
+		this.properties = properties;
+		this.clientProperties = clientProperties;
+	}
+
+	/**
+	 * Decorates the given client so that the per-client limits of
+	 * {@link FeignClientConfiguration#getMaxConnectionsPerRoute()} apply to the hosts
+	 * it sends requests to.
+	 * @param client the client using the connection manager
+	 * @param connectionManager the connection manager, possibly {@code null}
+	 * @return the decorated client, or the given one if the connection manager is not
+	 * adaptive
+	 */
+	public static Client decorate(Client client,
+			HttpClientConnectionManager connectionManager) {
+		if (connectionManager instanceof AdaptiveHttpClientConnectionManager) {
+			AdaptiveHttpClientConnectionManager adaptive;
+			adaptive = (AdaptiveHttpClientConnectionManager) connectionManager;
+			return (request, options) -> {
+				adaptive.registerHost(request);
+				return client.execute(request, options);
+			};
+		}
+		return client;
+	}
+
+	/**
+	 * Decorates the client of a single Feign client so that the requests it sends
+	 * through a client decorated by {@link #decorate(Client, HttpClientConnectionManager)}
+	 * are bounded by the limit configured for its context id. Without it the limit is
+	 * looked up by the name of the target of the request.
+	 * @param client the client of the Feign client
+	 * @param connectionManager the connection manager, possibly {@code null}
+	 * @param contextId the context id of the Feign client
+	 * @return the decorated client, or the given one if the connection manager is not
+	 * adaptive
+	 */
+	public static Client decorate(Client client,
+			HttpClientConnectionManager connectionManager, String contextId) {
+		if (connectionManager instanceof AdaptiveHttpClientConnectionManager) {
+			return (request, options) -> {
+				String previous = CONTEXT_ID.get();
+				CONTEXT_ID.set(contextId);
+				try {
+					return client.execute(request, options);
+				}
+				finally {
+					if (previous != null) {
+						CONTEXT_ID.set(previous);
+					}
+					else {
+						CONTEXT_ID.remove();
+					}
+				}
+			};
+		}
+		return client;
+	}
+
+	/**
+	 * Raises the limit of each route on which requests waited for a connection since
+	 * the previous call, and lowers it on routes where less than half of the
+	 * connections are leased.
+	 */
+	public void resize() {
+		for (HttpRoute route : this.delegate.getRoutes()) {
+			RouteUsage usage = this.usages.get(route);
+			long leases = usage != null ? usage.leases.sumThenReset() : 0;
+			long waitNanos = usage != null ? usage.waitNanos.sumThenReset() : 0;
+			long averageWait = leases > 0
+					? TimeUnit.NANOSECONDS.toMillis(waitNanos / leases) : 0;
+			PoolStats stats = this.delegate.getStats(route);
+			int max = stats.getMax();
+			int limit = max;
+			if (stats.getPending() > 0
+					|| averageWait >= this.properties.getLeaseWaitThreshold()) {
+				limit = max + Math.max(1, max / 4);
+			}
+			else if (stats.getLeased() < max / 2) {
+				limit = max - Math.max(1, max / 8);
+			}
+			int upper = getUpperLimit(route);
+			limit = Math.max(Math.min(limit, upper),
+					Math.min(this.properties.getMinConnectionsPerRoute(), upper));
+			if (limit != max) {
+				this.delegate.setMaxPerRoute(route, limit);
+			}
+		}
+	}
+
+	/**
+	 * @return the statistics of the pool of each route
+	 */
+	public Map<HttpRoute, PoolStats> getRouteStats() {
+		Map<HttpRoute, PoolStats> stats = new LinkedHashMap<>();
+		for (HttpRoute route : this.delegate.getRoutes()) {
+			stats.put(route, this.delegate.getStats(route));
+		}
+		return stats;
+	}
+
+	public PoolingHttpClientConnectionManager getDelegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+		RouteUsage usage = this.usages.computeIfAbsent(route, this::createUsage);
+		ConnectionRequest request = this.delegate.requestConnection(route, state);
+		return new ConnectionRequest() {
+
+			@Override
+			public HttpClientConnection get(long timeout, TimeUnit unit)
+					throws InterruptedException, ExecutionException,
+					ConnectionPoolTimeoutException {
+				long start = System.nanoTime();
+				try {
+					return request.get(timeout, unit);
+				}
+				finally {
+					usage.leases.increment();
+					usage.waitNanos.add(System.nanoTime() - start);
+				}
+			}
+
+			@Override
+			public boolean cancel() {
+				return request.cancel();
+			}
+
+		};
+	}
+
+	@Override
+	public void releaseConnection(HttpClientConnection conn, Object newState,
+			long validDuration, TimeUnit timeUnit) {
+		this.delegate.releaseConnection(conn, newState, validDuration, timeUnit);
+	}
+
+	@Override
+	public void connect(HttpClientConnection conn, HttpRoute route, int connectTimeout,
+			HttpContext context) throws IOException {
+		this.delegate.connect(conn, route, connectTimeout, context);
+	}
+
+	@Override
+	public void upgrade(HttpClientConnection conn, HttpRoute route, HttpContext context)
+			throws IOException {
+		this.delegate.upgrade(conn, route, context);
+	}
+
+	@Override
+	public void routeComplete(HttpClientConnection conn, HttpRoute route,
+			HttpContext context) throws IOException {
+		this.delegate.routeComplete(conn, route, context);
+	}
+
+	@Override
+	public void closeIdleConnections(long idletime, TimeUnit timeUnit) {
+		this.delegate.closeIdleConnections(idletime, timeUnit);
+	}
+
+	@Override
+	public void closeExpiredConnections() {
+		this.delegate.closeExpiredConnections();
+	}
+
+	@Override
+	public void shutdown() {
+		this.delegate.shutdown();
+	}
+
+	private RouteUsage createUsage(HttpRoute route) {
+		Integer hostLimit = this.hostLimits.get(route.getTargetHost());
+		if (hostLimit != null && hostLimit < this.delegate.getMaxPerRoute(route)) {
+			this.delegate.setMaxPerRoute(route, hostLimit);
+		}
+		return new RouteUsage();
+	}
+
+	private int getUpperLimit(HttpRoute route) {
+		Integer hostLimit = this.hostLimits.get(route.getTargetHost());
+		return hostLimit != null ? hostLimit
+				: this.properties.getMaxConnectionsPerRoute();
+	}
+
+	private void registerHost(Request request) {
+		if (this.clientProperties == null) {
+			return;
+		}
+		String name = CONTEXT_ID.get();
+		if (name == null) {
+			RequestTemplate template = request.requestTemplate();
+			if (template == null || template.feignTarget() == null) {
+				return;
+			}
+			name = template.feignTarget().name();
+		}
+		Integer limit = getClientLimit(name);
+		HttpHost host = getHost(request.url());
+		if (host == null) {
+			return;
+		}
+		Map<String, Integer> limits = limit != null
+				? this.clientLimits.computeIfAbsent(host, key -> new ConcurrentHashMap<>())
+				: this.clientLimits.get(host);
+		if (limits == null) {
+			return;
+		}
+		Integer previous = limit != null ? limits.put(name, limit) : limits.remove(name);
+		if (previous == null ? limit != null : !previous.equals(limit)) {
+			updateHostLimit(host, limits);
+		}
+	}
+
+	/**
+	 * Bounds the routes to the given host by the lowest limit of the clients sending
+	 * requests to it, lowering the routes that already exist at once. Routes grow up to
+	 * a raised limit as they are resized.
+	 */
+	private synchronized void updateHostLimit(HttpHost host,
+			Map<String, Integer> limits) {
+		Integer hostLimit = limits.values().stream().min(Integer::compare)
+				.orElse(null);
+		if (hostLimit == null) {
+			this.hostLimits.remove(host);
+			return;
+		}
+		this.hostLimits.put(host, hostLimit);
+		for (HttpRoute route : this.delegate.getRoutes()) {
+			if (host.equals(route.getTargetHost())
+					&& this.delegate.getMaxPerRoute(route) > hostLimit) {
+				this.delegate.setMaxPerRoute(route, hostLimit);
+			}
+		}
+	}
+
+	private HttpHost getHost(String url) {
+		int start = url.indexOf("://");
+		if (start < 0) {
+			return null;
+		}
+		int end = start + 3;
+		while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+			end++;
+		}
+		String origin = url.substring(0, end);
+		HttpHost host = this.hosts.get(origin);
+		if (host == null) {
+			if (this.hosts.size() >= MAX_CACHED_HOSTS) {
+				this.hosts.clear();
+			}
+			host = parseHost(origin);
+			if (host == null) {
+				return null;
+			}
+			this.hosts.put(origin, host);
+		}
+		return host;
+	}
+
+	/**
+	 * @return the host of the given origin, or {@code null} if it has none that
+	 * {@link URI} can parse, such as host names containing underscores, in which case
+	 * its routes are not tracked
+	 */
+	private static HttpHost parseHost(String origin) {
+		URI uri;
+		try {
+			uri = URI.create(origin);
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+		if (uri.getHost() == null) {
+			return null;
+		}
+		int port = uri.getPort() != -1 ? uri.getPort()
+				: "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+		return new HttpHost(uri.getHost(), port, uri.getScheme());
+	}
+
+	private Integer getClientLimit(String name) {
+		Map<String, FeignClientConfiguration> config = this.clientProperties.getConfig();
+		FeignClientConfiguration client = config.get(name);
+		if (client != null && client.getMaxConnectionsPerRoute() != null) {
+			return client.getMaxConnectionsPerRoute();
+		}
+		FeignClientConfiguration defaults = config
+				.get(this.clientProperties.getDefaultConfig());
+		return defaults != null ? defaults.getMaxConnectionsPerRoute() : null;
+	}
+
+	private static final class RouteUsage {
+
+		private final LongAdder leases = new LongAdder();
+
+		private final LongAdder waitNanos = new LongAdder();
+
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+/**
+ * {@link ConnectionPrewarmer} that connects pooled connections of an Apache HTTP
+ * client {@link HttpClientConnectionManager} without sending any request. The
+ * connections are opened on the route the client takes to the origin when no proxy is
+ * configured, so they are reused by the first requests.
+ */
+public class ApacheHttpClientConnectionPrewarmer implements ConnectionPrewarmer {
+
+	private final HttpClientConnectionManager connectionManager;
+
+	private final int connectTimeout;
+
+	private final long leaseTimeout;
+
+	/**
+	 * @param connectionManager the connection manager of the client
+	 * @param connectTimeout the connect timeout in milliseconds
+	 * @param leaseTimeout the time in milliseconds to wait for a connection of the pool
+	 */
+	public ApacheHttpClientConnectionPrewarmer(
+			HttpClientConnectionManager connectionManager, int connectTimeout,
+			long leaseTimeout) {
+		this.connectionManager = connectionManager;
+		this.connectTimeout = connectTimeout;
+		this.leaseTimeout = leaseTimeout;
+	}
+
+	@Override
+	public void prewarm(URI origin, int connections) throws IOException {
+		HttpRoute route = getRoute(origin);
+		int limit = Math.min(connections, getMaxPerRoute(route));
+		// the connections are held until all of them are open, otherwise the pool would
+		// hand out the same connection again
+		List<HttpClientConnection> leased = new ArrayList<>(limit);
+		try {
+			for (int i = 0; i < limit; i++) {
+				HttpClientConnection connection = lease(route);
+				leased.add(connection);
+				if (!connection.isOpen()) {
+					HttpClientContext context = HttpClientContext.create();
+					this.connectionManager.connect(connection, route, this.connectTimeout,
+							context);
+					this.connectionManager.routeComplete(connection, route, context);
+				}
+			}
+		}
+		finally {
+			for (HttpClientConnection connection : leased) {
+				this.connectionManager.releaseConnection(connection, null, 0,
+						TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	static HttpRoute getRoute(URI origin) {
+		boolean secure = "https".equalsIgnoreCase(origin.getScheme());
+		int port = origin.getPort() != -1 ? origin.getPort() : secure ? 443 : 80;
+		return new HttpRoute(new HttpHost(origin.getHost(), port, origin.getScheme()),
+				null, secure);
+	}
+
+	private HttpClientConnection lease(HttpRoute route) throws IOException {
+		try {
+			return this.connectionManager.requestConnection(route, null)
+					.get(this.leaseTimeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a connection");
+		}
+		catch (ExecutionException ex) {
+			throw new IOException("Could not lease a connection to " + route,
+					ex.getCause());
+		}
+	}
+
+	private int getMaxPerRoute(HttpRoute route) {
+		PoolingHttpClientConnectionManager pool = null;
+		if (this.connectionManager instanceof AdaptiveHttpClientConnectionManager) {
+			pool = ((AdaptiveHttpClientConnectionManager) this.connectionManager)
+					.getDelegate();
+		}
+		else if (this.connectionManager instanceof PoolingHttpClientConnectionManager) {
+			pool = (PoolingHttpClientConnectionManager) this.connectionManager;
+		}
+		return pool != null ? pool.getMaxPerRoute(route) : Integer.MAX_VALUE;
+	}
+
+}
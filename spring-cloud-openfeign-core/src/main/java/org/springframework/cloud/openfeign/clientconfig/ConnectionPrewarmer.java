@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Opens connections of the HTTP client used by Feign ahead of the first requests.
+ *
+ * @see org.springframework.cloud.openfeign.FeignClientsPrewarmer
+ */
+@FunctionalInterface
+public interface ConnectionPrewarmer {
+
+	/**
+	 * Opens connections to the given origin and leaves them in the pool of the client.
+	 * @param origin the scheme, host and port to connect to
+	 * @param connections the number of connections to open
+	 * @throws IOException if a connection can not be opened
+	 */
+	void prewarm(URI origin, int connections) throws IOException;
+
+}
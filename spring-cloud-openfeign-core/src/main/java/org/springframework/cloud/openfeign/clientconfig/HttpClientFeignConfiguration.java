@@ -16,9 +16,6 @@
 
 package org.springframework.cloud.openfeign.clientconfig;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 import javax.annotation.PreDestroy;
 
 import org.apache.http.client.config.RequestConfig;
@@ -26,12 +23,15 @@ import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.commons.httpclient.ApacheHttpClientConnectionManagerFactory;
 import org.springframework.cloud.commons.httpclient.ApacheHttpClientFactory;
+import org.springframework.cloud.openfeign.FeignClientProperties;
 import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -48,31 +48,47 @@ import org.springframework.context.annotation.Configuration;
 @ConditionalOnMissingBean(CloseableHttpClient.class)
 public class HttpClientFeignConfiguration {
 
-	private final Timer connectionManagerTimer = new Timer(
-			"FeignApacheHttpClientConfiguration.connectionManagerTimer", true);
+	private IdleConnectionReaper connectionReaper;
+
+	private HttpClientConnectionManager connectionManager;
 
 	private CloseableHttpClient httpClient;
 
 	@Autowired(required = false)
 	private RegistryBuilder registryBuilder;
 
+	@Bean
+	@ConditionalOnMissingBean
+	public IdleConnectionReaper feignIdleConnectionReaper() {
+		return new IdleConnectionReaper();
+	}
+
 	@Bean
 	@ConditionalOnMissingBean(HttpClientConnectionManager.class)
 	public HttpClientConnectionManager connectionManager(
 			ApacheHttpClientConnectionManagerFactory connectionManagerFactory,
-			FeignHttpClientProperties httpClientProperties) {
-		final HttpClientConnectionManager connectionManager = connectionManagerFactory
+			FeignHttpClientProperties httpClientProperties,
+			ObjectProvider<FeignClientProperties> clientProperties,
+			IdleConnectionReaper connectionReaper) {
+		HttpClientConnectionManager pooledConnectionManager = connectionManagerFactory
 				.newConnectionManager(httpClientProperties.isDisableSslValidation(),
 						httpClientProperties.getMaxConnections(),
 						httpClientProperties.getMaxConnectionsPerRoute(),
 						httpClientProperties.getTimeToLive(),
 						httpClientProperties.getTimeToLiveUnit(), this.registryBuilder);
-		this.connectionManagerTimer.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				connectionManager.closeExpiredConnections();
-			}
-		}, 30000, httpClientProperties.getConnectionTimerRepeat());
+		HttpClientConnectionManager connectionManager = httpClientProperties
+				.getAdaptivePool().isEnabled()
+				&& pooledConnectionManager instanceof PoolingHttpClientConnectionManager
+						? new AdaptiveHttpClientConnectionManager(
+								(PoolingHttpClientConnectionManager) pooledConnectionManager,
+								httpClientProperties.getAdaptivePool(),
+								clientProperties.getIfAvailable())
+						: pooledConnectionManager;
+		connectionReaper.register(connectionManager,
+				httpClientProperties.getConnectionTimerRepeat(),
+				httpClientProperties.getConnectionIdleTimeout());
+		this.connectionReaper = connectionReaper;
+		this.connectionManager = connectionManager;
 		return connectionManager;
 	}
 
@@ -112,9 +128,23 @@ public class HttpClientFeignConfiguration {
 		return httpClient;
 	}
 
+	@Bean
+	@ConditionalOnProperty("feign.client.prewarm.enabled")
+	public ConnectionPrewarmer apacheHttpClientConnectionPrewarmer(
+			HttpClientConnectionManager connectionManager,
+			FeignHttpClientProperties httpClientProperties,
+			ObjectProvider<FeignClientProperties> clientProperties) {
+		return new ApacheHttpClientConnectionPrewarmer(connectionManager,
+				httpClientProperties.getConnectionTimeout(),
+				clientProperties.getIfAvailable(FeignClientProperties::new).getPrewarm()
+						.getTimeout());
+	}
+
 	@PreDestroy
 	public void destroy() throws Exception {
-		this.connectionManagerTimer.cancel();
+		if (this.connectionReaper != null) {
+			this.connectionReaper.unregister(this.connectionManager);
+		}
 		if (this.httpClient != null) {
 			this.httpClient.close();
 		}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Closes the expired and idle connections of Apache HTTP client connection managers
+ * from a single shared thread. Each connection manager is visited at its own period,
+ * shifted by up to a tenth of the period either way so that the visits of the
+ * connection managers do not line up. The limits of an
+ * {@link AdaptiveHttpClientConnectionManager} are resized on the same visits.
+ */
+public class IdleConnectionReaper implements DisposableBean {
+
+	private static final Log log = LogFactory.getLog(IdleConnectionReaper.class);
+
+	private final ScheduledExecutorService executor;
+
+	private final Map<HttpClientConnectionManager, Registration> registrations = new ConcurrentHashMap<>();
+
+	private final LongAdder reapedConnections = new LongAdder();
+
+	public IdleConnectionReaper() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"feign-connection-reaper-");
+		threadFactory.setDaemon(true);
+		this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	/**
+	 * Starts visiting the given connection manager.
+	 * @param connectionManager the connection manager
+	 * @param period the average time between two visits in milliseconds, greater than
+	 * zero
+	 * @param idleTimeout the time in milliseconds after which idle connections are
+	 * closed, or a negative value to only close expired connections
+	 */
+	public void register(HttpClientConnectionManager connectionManager, long period,
+			long idleTimeout) {
+		Assert.isTrue(period > 0,
+				"The period of the connection reaper must be greater than zero");
+		Registration registration = new Registration(connectionManager, period,
+				idleTimeout);
+		Registration previous = this.registrations.put(connectionManager, registration);
+		if (previous != null) {
+			previous.cancel();
+		}
+		registration.schedule();
+	}
+
+	/**
+	 * Stops visiting the given connection manager.
+	 * @param connectionManager the connection manager
+	 */
+	public void unregister(HttpClientConnectionManager connectionManager) {
+		Registration registration = this.registrations.remove(connectionManager);
+		if (registration != null) {
+			registration.cancel();
+		}
+	}
+
+	/**
+	 * @return the number of connections of {@link PoolingHttpClientConnectionManager
+	 * pooling} connection managers closed so far. It is approximate, as connections
+	 * leased or released while a pool is visited are counted as closed or offset them
+	 */
+	public long getReapedConnections() {
+		return this.reapedConnections.sum();
+	}
+
+	@Override
+	public void destroy() {
+		this.registrations.clear();
+		this.executor.shutdownNow();
+	}
+
+	void reap(HttpClientConnectionManager connectionManager, long idleTimeout) {
+		PoolingHttpClientConnectionManager pool = getPool(connectionManager);
+		int available = pool != null ? pool.getTotalStats().getAvailable() : 0;
+		connectionManager.closeExpiredConnections();
+		if (idleTimeout >= 0) {
+			connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+		}
+		if (pool != null) {
+			this.reapedConnections
+					.add(Math.max(0, available - pool.getTotalStats().getAvailable()));
+		}
+		if (connectionManager instanceof AdaptiveHttpClientConnectionManager) {
+			((AdaptiveHttpClientConnectionManager) connectionManager).resize();
+		}
+	}
+
+	private static PoolingHttpClientConnectionManager getPool(
+			HttpClientConnectionManager connectionManager) {
+		if (connectionManager instanceof AdaptiveHttpClientConnectionManager) {
+			return ((AdaptiveHttpClientConnectionManager) connectionManager).getDelegate();
+		}
+		if (connectionManager instanceof PoolingHttpClientConnectionManager) {
+			return (PoolingHttpClientConnectionManager) connectionManager;
+		}
+		return null;
+	}
+
+	private final class Registration implements Runnable {
+
+		private final HttpClientConnectionManager connectionManager;
+
+		private final long period;
+
+		private final long idleTimeout;
+
+		private volatile ScheduledFuture<?> future;
+
+		private volatile boolean cancelled;
+
+		private Registration(HttpClientConnectionManager connectionManager, long period,
+				long idleTimeout) {
+			this.connectionManager = connectionManager;
+			this.period = period;
+			this.idleTimeout = idleTimeout;
+		}
+
+		@Override
+		public void run() {
+			try {
+				reap(this.connectionManager, this.idleTimeout);
+			}
+			catch (RuntimeException ex) {
+				log.warn("Could not close the idle connections of "
+						+ this.connectionManager, ex);
+			}
+			finally {
+				schedule();
+			}
+		}
+
+		void schedule() {
+			if (this.cancelled) {
+				return;
+			}
+			long jitter = this.period / 10;
+			long delay = this.period - jitter
+					+ ThreadLocalRandom.current().nextLong(2 * jitter + 1);
+			try {
+				this.future = IdleConnectionReaper.this.executor.schedule(this, delay,
+						TimeUnit.MILLISECONDS);
+			}
+			catch (RejectedExecutionException ex) {
+				// the reaper was destroyed
+			}
+		}
+
+		void cancel() {
+			this.cancelled = true;
+			ScheduledFuture<?> future = this.future;
+			if (future != null) {
+				future.cancel(false);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * {@link ConnectionPrewarmer} that fills the {@link okhttp3.ConnectionPool} of an
+ * {@link OkHttpClient}. OkHttp can not open a connection without an exchange, so
+ * concurrent {@code HEAD} requests are sent to the given path of the origin, the root by
+ * default, and each of them leaves its connection in the pool. With HTTP/2 they share a
+ * single connection. The servers see these requests like any other.
+ */
+public class OkHttpConnectionPrewarmer implements ConnectionPrewarmer {
+
+	private final OkHttpClient client;
+
+	private final long timeout;
+
+	private final String path;
+
+	/**
+	 * @param client the client used by Feign
+	 * @param timeout the time in milliseconds to wait for the requests
+	 */
+	public OkHttpConnectionPrewarmer(OkHttpClient client, long timeout) {
+		this(client, timeout, "/");
+	}
+
+	/**
+	 * @param client the client used by Feign
+	 * @param timeout the time in milliseconds to wait for the requests
+	 * @param path the path the requests are sent to
+	 */
+	public OkHttpConnectionPrewarmer(OkHttpClient client, long timeout, String path) {
+		this.client = client;
+		this.timeout = timeout;
+		this.path = path.startsWith("/") ? path : "/" + path;
+	}
+
+	@Override
+	public void prewarm(URI origin, int connections) throws IOException {
+		HttpUrl url = HttpUrl.get(origin.toString()).newBuilder().encodedPath(this.path)
+				.build();
+		Request request = new Request.Builder().url(url).head().build();
+		// a dispatcher of its own, so the requests do not queue behind the per-host
+		// limit of the shared one
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequestsPerHost(connections);
+		OkHttpClient client = this.client.newBuilder().dispatcher(dispatcher).build();
+		CountDownLatch latch = new CountDownLatch(connections);
+		AtomicReference<IOException> failure = new AtomicReference<>();
+		try {
+			for (int i = 0; i < connections; i++) {
+				client.newCall(request).enqueue(new Callback() {
+
+					@Override
+					public void onFailure(Call call, IOException ex) {
+						failure.compareAndSet(null, ex);
+						latch.countDown();
+					}
+
+					@Override
+					public void onResponse(Call call, Response response) {
+						response.close();
+						latch.countDown();
+					}
+
+				});
+			}
+			if (!latch.await(this.timeout, TimeUnit.MILLISECONDS)) {
+				dispatcher.cancelAll();
+				throw new InterruptedIOException("Timed out opening connections to "
+						+ origin);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			dispatcher.cancelAll();
+			throw new InterruptedIOException("Interrupted while opening connections to "
+					+ origin);
+		}
+		finally {
+			dispatcher.executorService().shutdown();
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+	}
+
+}
@@ -17,15 +17,20 @@
 package org.springframework.cloud.openfeign.clientconfig;
 
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.PreDestroy;
 
 import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.commons.httpclient.OkHttpClientConnectionPoolFactory;
 import org.springframework.cloud.commons.httpclient.OkHttpClientFactory;
+import org.springframework.cloud.openfeign.FeignClientProperties;
 import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -64,10 +69,23 @@ public class OkHttpFeignConfiguration {
 		this.okHttpClient = httpClientFactory
 				.createBuilder(httpClientProperties.isDisableSslValidation())
 				.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
-				.followRedirects(followRedirects).connectionPool(connectionPool).build();
+				.followRedirects(followRedirects).connectionPool(connectionPool)
+				.protocols(httpClientProperties.getOkHttp().getProtocols().stream()
+						.map(Protocol::valueOf).collect(Collectors.toList()))
+				.build();
 		return this.okHttpClient;
 	}
 
+	@Bean
+	@ConditionalOnProperty("feign.client.prewarm.enabled")
+	public ConnectionPrewarmer okHttpConnectionPrewarmer(okhttp3.OkHttpClient client,
+			ObjectProvider<FeignClientProperties> clientProperties) {
+		FeignClientProperties.Prewarm prewarm = clientProperties
+				.getIfAvailable(FeignClientProperties::new).getPrewarm();
+		return new OkHttpConnectionPrewarmer(client, prewarm.getTimeout(),
+				prewarm.getPath());
+	}
+
 	@PreDestroy
 	public void destroy() {
 		if (this.okHttpClient != null) {
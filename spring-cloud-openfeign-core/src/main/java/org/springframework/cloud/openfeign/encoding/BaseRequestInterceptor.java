@@ -33,6 +33,11 @@ public abstract class BaseRequestInterceptor implements RequestInterceptor {
 	 */
 	private final FeignClientEncodingProperties properties;
 
+	/**
+	 * The matcher for the configured mime types.
+	 */
+	private final MimeTypeMatcher mimeTypeMatcher;
+
 	/**
 	 * Creates new instance of {@link BaseRequestInterceptor}.
 	 * @param properties the encoding properties
@@ -40,6 +45,7 @@ public abstract class BaseRequestInterceptor implements RequestInterceptor {
 	protected BaseRequestInterceptor(FeignClientEncodingProperties properties) {
 		Assert.notNull(properties, "Properties can not be null");
 		this.properties = properties;
+		this.mimeTypeMatcher = new MimeTypeMatcher(properties.getMimeTypes());
 	}
 
 	/**
@@ -56,6 +62,16 @@ public abstract class BaseRequestInterceptor implements RequestInterceptor {
 		}
 	}
 
+	/**
+	 * Returns whether the content type matches one of the configured mime types.
+	 * Parameters are ignored and wildcard mime types are supported.
+	 * @param contentType the content type header value
+	 * @return true if the content type matches, false otherwise
+	 */
+	protected boolean matchesMimeType(String contentType) {
+		return this.mimeTypeMatcher.matches(contentType);
+	}
+
 	protected FeignClientEncodingProperties getProperties() {
 		return this.properties;
 	}
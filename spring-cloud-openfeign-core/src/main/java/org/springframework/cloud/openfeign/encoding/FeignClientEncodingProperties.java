@@ -18,6 +18,7 @@ package org.springframework.cloud.openfeign.encoding;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.zip.Deflater;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -40,6 +41,17 @@ public class FeignClientEncodingProperties {
 	 */
 	private int minRequestSize = 2048;
 
+	/**
+	 * The content coding used to compress request bodies, either gzip or deflate.
+	 */
+	private String encoding = HttpEncoding.GZIP_ENCODING;
+
+	/**
+	 * The compression level, from 0 (no compression) to 9 (best compression), or -1 for
+	 * the default level.
+	 */
+	private int level = Deflater.DEFAULT_COMPRESSION;
+
 	public String[] getMimeTypes() {
 		return this.mimeTypes;
 	}
@@ -56,6 +68,22 @@ public class FeignClientEncodingProperties {
 		this.minRequestSize = minRequestSize;
 	}
 
+	public String getEncoding() {
+		return this.encoding;
+	}
+
+	public void setEncoding(String encoding) {
+		this.encoding = encoding;
+	}
+
+	public int getLevel() {
+		return this.level;
+	}
+
+	public void setLevel(int level) {
+		this.level = level;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -66,19 +94,24 @@ public class FeignClientEncodingProperties {
 		}
 		FeignClientEncodingProperties that = (FeignClientEncodingProperties) o;
 		return Arrays.equals(this.mimeTypes, that.mimeTypes)
-				&& Objects.equals(this.minRequestSize, that.minRequestSize);
+				&& Objects.equals(this.minRequestSize, that.minRequestSize)
+				&& Objects.equals(this.encoding, that.encoding)
+				&& this.level == that.level;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.mimeTypes, this.minRequestSize);
+		return Objects.hash(this.mimeTypes, this.minRequestSize, this.encoding,
+				this.level);
 	}
 
 	@Override
 	public String toString() {
 		return new StringBuilder("FeignClientEncodingProperties{").append("mimeTypes=")
 				.append(Arrays.toString(this.mimeTypes)).append(", ")
-				.append("minRequestSize=").append(this.minRequestSize).append("}")
+				.append("minRequestSize=").append(this.minRequestSize).append(", ")
+				.append("encoding=").append(this.encoding).append(", ")
+				.append("level=").append(this.level).append("}")
 				.toString();
 	}
 
@@ -22,13 +22,15 @@ import java.util.Map;
 import feign.RequestTemplate;
 
 /**
- * Enables the HTTP request payload compression by specifying the {@code Content-Encoding}
- * headers.
+ * Enables the HTTP request payload compression by compressing request bodies above the
+ * configured size and specifying the {@code Content-Encoding} header.
  *
  * @author Jakub Narloch
  */
 public class FeignContentGzipEncodingInterceptor extends BaseRequestInterceptor {
 
+	private final RequestBodyCompressor compressor;
+
 	/**
 	 * Creates new instance of {@link FeignContentGzipEncodingInterceptor}.
 	 * @param properties the encoding properties
@@ -36,6 +38,8 @@ public class FeignContentGzipEncodingInterceptor extends BaseRequestInterceptor
 	protected FeignContentGzipEncodingInterceptor(
 			FeignClientEncodingProperties properties) {
 		super(properties);
+		this.compressor = new RequestBodyCompressor(properties.getEncoding(),
+				properties.getLevel());
 	}
 
 	/**
@@ -45,8 +49,9 @@ public class FeignContentGzipEncodingInterceptor extends BaseRequestInterceptor
 	public void apply(RequestTemplate template) {
 
 		if (requiresCompression(template)) {
+			template.body(this.compressor.compress(template.body()), null);
 			addHeader(template, HttpEncoding.CONTENT_ENCODING_HEADER,
-					HttpEncoding.GZIP_ENCODING, HttpEncoding.DEFLATE_ENCODING);
+					this.compressor.getEncoding());
 		}
 	}
 
@@ -58,6 +63,11 @@ public class FeignContentGzipEncodingInterceptor extends BaseRequestInterceptor
 	private boolean requiresCompression(RequestTemplate template) {
 
 		final Map<String, Collection<String>> headers = template.headers();
+		// already compressed, either by a previous attempt or by the caller
+		if (headers.containsKey(HttpEncoding.CONTENT_ENCODING_HEADER)
+				|| template.body() == null) {
+			return false;
+		}
 		return matchesMimeType(headers.get(HttpEncoding.CONTENT_TYPE))
 				&& contentLengthExceedThreshold(headers.get(HttpEncoding.CONTENT_LENGTH));
 	}
@@ -93,14 +103,8 @@ public class FeignContentGzipEncodingInterceptor extends BaseRequestInterceptor
 			return false;
 		}
 
-		if (getProperties().getMimeTypes() == null
-				|| getProperties().getMimeTypes().length == 0) {
-			// no specific mime types has been set - matching everything
-			return true;
-		}
-
-		for (String mimeType : getProperties().getMimeTypes()) {
-			if (contentTypes.contains(mimeType)) {
+		for (String contentType : contentTypes) {
+			if (matchesMimeType(contentType)) {
 				return true;
 			}
 		}
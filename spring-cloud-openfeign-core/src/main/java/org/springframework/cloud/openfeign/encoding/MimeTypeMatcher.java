@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.encoding;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Matches request content types against a fixed set of mime types. Parameters such as
+ * {@code charset} are ignored, and wildcard patterns such as {@code application/*+json}
+ * are supported. Results are cached per content type value.
+ */
+final class MimeTypeMatcher {
+
+	private static final int MAX_CACHED_RESULTS = 256;
+
+	private final boolean matchAll;
+
+	private final Set<String> exactTypes = new HashSet<>();
+
+	private final List<MimeType> wildcardTypes = new ArrayList<>();
+
+	private final Map<String, Boolean> results = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a matcher for the given mime types. An empty or {@code null} array matches
+	 * every content type.
+	 * @param mimeTypes the mime types to match
+	 */
+	MimeTypeMatcher(String[] mimeTypes) {
+		this.matchAll = mimeTypes == null || mimeTypes.length == 0;
+		if (!this.matchAll) {
+			for (String value : mimeTypes) {
+				MimeType mimeType = MimeTypeUtils.parseMimeType(value);
+				if (mimeType.isWildcardType() || mimeType.isWildcardSubtype()) {
+					this.wildcardTypes.add(mimeType);
+				}
+				else {
+					this.exactTypes.add(key(mimeType));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the given content type matches any of the configured mime types.
+	 * @param contentType the content type header value
+	 * @return true if the content type matches
+	 */
+	boolean matches(String contentType) {
+		if (this.matchAll) {
+			return true;
+		}
+		Boolean result = this.results.get(contentType);
+		if (result == null) {
+			result = doMatch(contentType);
+			if (this.results.size() >= MAX_CACHED_RESULTS) {
+				this.results.clear();
+			}
+			this.results.put(contentType, result);
+		}
+		return result;
+	}
+
+	private boolean doMatch(String contentType) {
+		MimeType mimeType;
+		try {
+			mimeType = MimeTypeUtils.parseMimeType(contentType);
+		}
+		catch (InvalidMimeTypeException ex) {
+			return false;
+		}
+		if (this.exactTypes.contains(key(mimeType))) {
+			return true;
+		}
+		for (MimeType wildcardType : this.wildcardTypes) {
+			if (wildcardType.includes(mimeType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String key(MimeType mimeType) {
+		return (mimeType.getType() + '/' + mimeType.getSubtype())
+				.toLowerCase(Locale.ENGLISH);
+	}
+
+}
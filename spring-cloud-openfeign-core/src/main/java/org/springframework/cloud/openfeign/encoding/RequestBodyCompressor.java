@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.encoding;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.springframework.util.Assert;
+
+/**
+ * Compresses encoded request bodies with either the {@code gzip} or the
+ * {@code deflate} content coding, reusing {@link Deflater} instances between requests.
+ */
+final class RequestBodyCompressor {
+
+	private static final int MAX_POOLED_DEFLATERS = 64;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0,
+			0, 0, 0, 0, 0, (byte) 0xff };
+
+	private final String encoding;
+
+	private final boolean gzip;
+
+	private final int level;
+
+	private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(
+			MAX_POOLED_DEFLATERS);
+
+	RequestBodyCompressor(String encoding, int level) {
+		Assert.isTrue(
+				HttpEncoding.GZIP_ENCODING.equals(encoding)
+						|| HttpEncoding.DEFLATE_ENCODING.equals(encoding),
+				"Unsupported request encoding: " + encoding);
+		Assert.isTrue(level == Deflater.DEFAULT_COMPRESSION
+				|| (level >= Deflater.NO_COMPRESSION
+						&& level <= Deflater.BEST_COMPRESSION),
+				"Invalid compression level: " + level);
+		this.encoding = encoding;
+		this.gzip = HttpEncoding.GZIP_ENCODING.equals(encoding);
+		this.level = level;
+	}
+
+	/**
+	 * Returns the content coding written by this compressor.
+	 * @return the value of the {@code Content-Encoding} header
+	 */
+	String getEncoding() {
+		return this.encoding;
+	}
+
+	/**
+	 * Compresses the given body.
+	 * @param body the uncompressed body
+	 * @return the compressed body
+	 */
+	byte[] compress(byte[] body) {
+		Deflater deflater = acquire();
+		try {
+			deflater.setInput(body);
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream(
+					Math.max(body.length / 4, 256));
+			if (this.gzip) {
+				output.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+			}
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!deflater.finished()) {
+				int count = deflater.deflate(buffer);
+				output.write(buffer, 0, count);
+			}
+			if (this.gzip) {
+				CRC32 crc = new CRC32();
+				crc.update(body, 0, body.length);
+				writeIntLittleEndian(output, (int) crc.getValue());
+				writeIntLittleEndian(output, body.length);
+			}
+			return output.toByteArray();
+		}
+		finally {
+			release(deflater);
+		}
+	}
+
+	private Deflater acquire() {
+		Deflater deflater = this.deflaters.poll();
+		if (deflater == null) {
+			// gzip carries its own header and trailer, so the raw deflate format is used
+			deflater = new Deflater(this.level, this.gzip);
+		}
+		return deflater;
+	}
+
+	private void release(Deflater deflater) {
+		deflater.reset();
+		if (!this.deflaters.offer(deflater)) {
+			deflater.end();
+		}
+	}
+
+	private static void writeIntLittleEndian(ByteArrayOutputStream output, int value) {
+		output.write(value & 0xff);
+		output.write((value >> 8) & 0xff);
+		output.write((value >> 16) & 0xff);
+		output.write((value >> 24) & 0xff);
+	}
+
+}
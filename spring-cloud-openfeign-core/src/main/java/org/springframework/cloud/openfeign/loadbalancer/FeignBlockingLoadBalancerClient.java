@@ -19,6 +19,7 @@ package org.springframework.cloud.openfeign.loadbalancer;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 import feign.Client;
 import feign.Request;
@@ -28,6 +29,8 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.loadbalancer.blocking.client.BlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.FeignHedgingCapability;
+import org.springframework.cloud.openfeign.loadbalancer.LatencyAwareServiceInstanceChooser.InstanceStats;
 import org.springframework.http.HttpStatus;
 import org.springframework.util.Assert;
 
@@ -43,14 +46,31 @@ public class FeignBlockingLoadBalancerClient implements Client {
 	private static final Log LOG = LogFactory
 			.getLog(FeignBlockingLoadBalancerClient.class);
 
+	private static final int MAX_CHOICES = 3;
+
 	private final Client delegate;
 
 	private final BlockingLoadBalancerClient loadBalancerClient;
 
+	private final LatencyAwareServiceInstanceChooser latencyAwareChooser;
+
 	public FeignBlockingLoadBalancerClient(Client delegate,
 			BlockingLoadBalancerClient loadBalancerClient) {
+		this(delegate, loadBalancerClient, null);
+	}
+
+	/**
+	 * @param delegate the client executing the requests
+	 * @param loadBalancerClient the load balancer client reconstructing the URIs
+	 * @param latencyAwareChooser the chooser of the instances that is told the outcome
+	 * of each request, or {@code null} to let the load balancer client choose
+	 */
+	public FeignBlockingLoadBalancerClient(Client delegate,
+			BlockingLoadBalancerClient loadBalancerClient,
+			LatencyAwareServiceInstanceChooser latencyAwareChooser) {
 		this.delegate = delegate;
 		this.loadBalancerClient = loadBalancerClient;
+		this.latencyAwareChooser = latencyAwareChooser;
 	}
 
 	@Override
@@ -62,7 +82,7 @@ public class FeignBlockingLoadBalancerClient implements Client {
 		/**
 		 * 执行调用服务的关键  需要关注 ： loadBalancerClient
 		 */
-		ServiceInstance instance = loadBalancerClient.choose(serviceId);
+		ServiceInstance instance = choose(serviceId);
 		if (instance == null) {
 			String message = "Load balancer does not contain an instance for the service "
 					+ serviceId;
@@ -78,7 +98,51 @@ public class FeignBlockingLoadBalancerClient implements Client {
 		Request newRequest = Request.create(request.httpMethod(), reconstructedUrl,
 				request.headers(), request.body(), request.charset(),
 				request.requestTemplate());
-		return delegate.execute(newRequest, options);
+		if (latencyAwareChooser == null) {
+			return delegate.execute(newRequest, options);
+		}
+		InstanceStats stats = latencyAwareChooser.getStats(serviceId, instance);
+		long start = stats.start();
+		boolean completed = false;
+		try {
+			Response response = delegate.execute(newRequest, options);
+			// an instance answering with a server error is not one to prefer because it
+			// answers fast
+			completed = response.status() < 500;
+			return response;
+		}
+		finally {
+			if (completed) {
+				stats.complete(start);
+			}
+			else {
+				// a failed instance is held to be as slow as the request was allowed to be
+				stats.fail(start,
+						TimeUnit.MILLISECONDS.toNanos(options.readTimeoutMillis()));
+			}
+		}
+	}
+
+	/**
+	 * Chooses an instance, drawing again a few times while it is the one another
+	 * attempt at the same hedged request was sent to.
+	 */
+	private ServiceInstance choose(String serviceId) {
+		ServiceInstance instance = chooseOnce(serviceId);
+		for (int i = 1; i < MAX_CHOICES && instance != null && FeignHedgingCapability
+				.isChosenByOtherAttempt(instance.getHost(), instance.getPort()); i++) {
+			instance = chooseOnce(serviceId);
+		}
+		if (instance != null) {
+			FeignHedgingCapability.onInstanceChosen(instance.getHost(),
+					instance.getPort());
+		}
+		return instance;
+	}
+
+	private ServiceInstance chooseOnce(String serviceId) {
+		return latencyAwareChooser != null ? latencyAwareChooser.choose(serviceId)
+				: loadBalancerClient.choose(serviceId);
 	}
 
 	// Visible for Sleuth instrumentation
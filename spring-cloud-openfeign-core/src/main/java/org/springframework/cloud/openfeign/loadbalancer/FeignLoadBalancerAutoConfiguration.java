@@ -23,11 +23,16 @@ import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.loadbalancer.blocking.client.BlockingLoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
 import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.cloud.openfeign.FeignClientProperties;
 import org.springframework.cloud.openfeign.ribbon.FeignRibbonClientAutoConfiguration;
 import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
@@ -47,7 +52,8 @@ import org.springframework.context.annotation.Import;
 @ConditionalOnBean(BlockingLoadBalancerClient.class)
 @AutoConfigureBefore(FeignAutoConfiguration.class)
 @AutoConfigureAfter(FeignRibbonClientAutoConfiguration.class)
-@EnableConfigurationProperties(FeignHttpClientProperties.class)
+@EnableConfigurationProperties({ FeignHttpClientProperties.class,
+		FeignClientProperties.class })
 @Configuration(proxyBeanMethods = false)
 // Order is important here, last should be the default, first should be optional
 // see
@@ -57,4 +63,15 @@ import org.springframework.context.annotation.Import;
 		DefaultFeignLoadBalancerConfiguration.class })
 public class FeignLoadBalancerAutoConfiguration {
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("feign.client.load-balancing.latency-aware")
+	public LatencyAwareServiceInstanceChooser latencyAwareServiceInstanceChooser(
+			LoadBalancerClientFactory loadBalancerClientFactory,
+			BlockingLoadBalancerClient loadBalancerClient,
+			FeignClientProperties properties) {
+		return new LatencyAwareServiceInstanceChooser(loadBalancerClientFactory,
+				loadBalancerClient, properties.getLoadBalancing().getDecayTime());
+	}
+
 }
@@ -19,12 +19,15 @@ package org.springframework.cloud.openfeign.loadbalancer;
 import feign.Client;
 import feign.httpclient.ApacheHttpClient;
 import org.apache.http.client.HttpClient;
+import org.apache.http.conn.HttpClientConnectionManager;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.loadbalancer.blocking.client.BlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.clientconfig.AdaptiveHttpClientConnectionManager;
 import org.springframework.cloud.openfeign.clientconfig.HttpClientFeignConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -48,9 +51,13 @@ class HttpClientFeignLoadBalancerConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	public Client feignClient(BlockingLoadBalancerClient loadBalancerClient,
-			HttpClient httpClient) {
-		ApacheHttpClient delegate = new ApacheHttpClient(httpClient);
-		return new FeignBlockingLoadBalancerClient(delegate, loadBalancerClient);
+			HttpClient httpClient,
+			ObjectProvider<HttpClientConnectionManager> connectionManager,
+			ObjectProvider<LatencyAwareServiceInstanceChooser> latencyAwareChooser) {
+		Client delegate = AdaptiveHttpClientConnectionManager.decorate(
+				new ApacheHttpClient(httpClient), connectionManager.getIfAvailable());
+		return new FeignBlockingLoadBalancerClient(delegate, loadBalancerClient,
+				latencyAwareChooser.getIfAvailable());
 	}
 
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.loadbalancer;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.ServiceInstanceChooser;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+
+/**
+ * {@link ServiceInstanceChooser} that learns from the requests sent by
+ * {@link FeignBlockingLoadBalancerClient}. For each instance it keeps the number of
+ * requests in flight and a moving average of their latency that jumps up to any slower
+ * response at once and decays over {@code decayTime}. Two instances are drawn at random
+ * and the one with the lower average latency, weighted by the requests in flight, is
+ * chosen, so that slow or overloaded instances get fewer requests until they recover.
+ * <p>
+ * The instances of a service are those of the {@link ServiceInstanceListSupplier} of
+ * its load balancer, or else the one chosen by the given delegate. A
+ * {@link ReactorServiceInstanceLoadBalancer} configured for a service with a supplier is
+ * bypassed, which is logged once per service.
+ */
+public class LatencyAwareServiceInstanceChooser implements ServiceInstanceChooser {
+
+	private static final Log log = LogFactory
+			.getLog(LatencyAwareServiceInstanceChooser.class);
+
+	private final LoadBalancerClientFactory loadBalancerClientFactory;
+
+	private final ServiceInstanceChooser delegate;
+
+	private final long decayNanos;
+
+	private final Map<String, Map<String, InstanceStats>> stats = new ConcurrentHashMap<>();
+
+	private final Set<String> checkedServices = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @param loadBalancerClientFactory the factory of the load balancers of the
+	 * services
+	 * @param delegate the chooser used for services without
+	 * {@link ServiceInstanceListSupplier}
+	 * @param decayTime the time in milliseconds over which a latency is forgotten
+	 */
+	public LatencyAwareServiceInstanceChooser(
+			LoadBalancerClientFactory loadBalancerClientFactory,
+			ServiceInstanceChooser delegate, long decayTime) {
+		this.loadBalancerClientFactory = loadBalancerClientFactory;
+		this.delegate = delegate;
+		this.decayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, decayTime));
+	}
+
+	@Override
+	public ServiceInstance choose(String serviceId) {
+		ServiceInstanceListSupplier supplier = this.loadBalancerClientFactory
+				.getLazyProvider(serviceId, ServiceInstanceListSupplier.class)
+				.getIfAvailable();
+		if (supplier == null) {
+			return this.delegate.choose(serviceId);
+		}
+		if (this.checkedServices.add(serviceId)) {
+			warnIfCustomLoadBalancer(serviceId);
+		}
+		List<ServiceInstance> instances = supplier.get().blockFirst();
+		return choose(serviceId, instances);
+	}
+
+	/**
+	 * @param serviceId the id of the service
+	 * @param instances the instances of the service
+	 * @return the better of two instances drawn at random, or {@code null} if there
+	 * are none
+	 */
+	ServiceInstance choose(String serviceId, List<ServiceInstance> instances) {
+		if (instances == null || instances.isEmpty()) {
+			return null;
+		}
+		prune(serviceId, instances);
+		if (instances.size() == 1) {
+			return instances.get(0);
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(instances.size());
+		int second = random.nextInt(instances.size() - 1);
+		if (second >= first) {
+			second++;
+		}
+		ServiceInstance a = instances.get(first);
+		ServiceInstance b = instances.get(second);
+		long now = System.nanoTime();
+		return getStats(serviceId, a).getScore(now) <= getStats(serviceId, b)
+				.getScore(now) ? a : b;
+	}
+
+	/**
+	 * @param serviceId the id of the service, as requested rather than as reported by
+	 * the instance, whose case may differ
+	 * @param instance an instance of the service
+	 * @return the statistics of the instance
+	 */
+	public InstanceStats getStats(String serviceId, ServiceInstance instance) {
+		return this.stats.computeIfAbsent(serviceId, key -> new ConcurrentHashMap<>())
+				.computeIfAbsent(key(instance), key -> new InstanceStats());
+	}
+
+	private void warnIfCustomLoadBalancer(String serviceId) {
+		ReactiveLoadBalancer<ServiceInstance> loadBalancer;
+		loadBalancer = this.loadBalancerClientFactory.getInstance(serviceId);
+		if (loadBalancer instanceof ReactorServiceInstanceLoadBalancer
+				&& !(loadBalancer instanceof RoundRobinLoadBalancer)) {
+			log.warn("The " + loadBalancer.getClass().getName()
+					+ " load balancer of service " + serviceId + " is bypassed, "
+					+ "as feign.client.load-balancing.latency-aware is set");
+		}
+	}
+
+	private void prune(String serviceId, List<ServiceInstance> instances) {
+		Map<String, InstanceStats> serviceStats = this.stats.get(serviceId);
+		// only look for instances that are gone once the map has grown noticeably
+		if (serviceStats != null && serviceStats.size() > 2 * instances.size()) {
+			Set<String> keys = new HashSet<>();
+			for (ServiceInstance instance : instances) {
+				keys.add(key(instance));
+			}
+			serviceStats.keySet().retainAll(keys);
+		}
+	}
+
+	private static String key(ServiceInstance instance) {
+		return instance.getHost() + ":" + instance.getPort();
+	}
+
+	/**
+	 * Requests in flight and moving average of the latency of an instance.
+	 */
+	public final class InstanceStats {
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private double latencyNanos;
+
+		private long updatedNanos = System.nanoTime();
+
+		private boolean sampled;
+
+		InstanceStats() {
+		}
+
+		/**
+		 * Records the start of a request.
+		 * @return the start time to pass to {@link #complete(long)} or
+		 * {@link #fail(long, long)}
+		 */
+		public long start() {
+			this.inFlight.incrementAndGet();
+			return System.nanoTime();
+		}
+
+		/**
+		 * Records the response to a request.
+		 * @param startNanos the value returned by {@link #start()}
+		 */
+		public void complete(long startNanos) {
+			this.inFlight.decrementAndGet();
+			long now = System.nanoTime();
+			update(now - startNanos, now);
+		}
+
+		/**
+		 * Records a request that failed, as if it had taken at least the given time.
+		 * @param startNanos the value returned by {@link #start()}
+		 * @param penaltyNanos the latency recorded for the failure
+		 */
+		public void fail(long startNanos, long penaltyNanos) {
+			this.inFlight.decrementAndGet();
+			long now = System.nanoTime();
+			update(Math.max(now - startNanos, penaltyNanos), now);
+		}
+
+		public int getInFlight() {
+			return this.inFlight.get();
+		}
+
+		/**
+		 * @return the moving average of the latency in milliseconds
+		 */
+		public synchronized double getLatency() {
+			return decayed(System.nanoTime()) / TimeUnit.MILLISECONDS.toNanos(1);
+		}
+
+		synchronized double getScore(long now) {
+			int inFlight = this.inFlight.get();
+			if (!this.sampled) {
+				// a new instance takes one request at a time until it has answered once
+				return inFlight == 0 ? 0 : Double.MAX_VALUE / 2 + inFlight;
+			}
+			return decayed(now) * (inFlight + 1);
+		}
+
+		private synchronized void update(long latencyNanos, long now) {
+			double current = decayed(now);
+			this.latencyNanos = latencyNanos > current ? latencyNanos
+					: current + (latencyNanos - current) * weight(now);
+			this.updatedNanos = now;
+			this.sampled = true;
+		}
+
+		private double decayed(long now) {
+			return this.latencyNanos * (1 - weight(now));
+		}
+
+		private double weight(long now) {
+			long elapsed = Math.max(0, now - this.updatedNanos);
+			return 1 - Math.exp(-(double) elapsed
+					/ LatencyAwareServiceInstanceChooser.this.decayNanos);
+		}
+
+	}
+
+}
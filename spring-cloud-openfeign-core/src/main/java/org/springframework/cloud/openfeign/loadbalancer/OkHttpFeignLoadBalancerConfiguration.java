@@ -19,6 +19,7 @@ package org.springframework.cloud.openfeign.loadbalancer;
 import feign.Client;
 import feign.okhttp.OkHttpClient;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -46,9 +47,11 @@ class OkHttpFeignLoadBalancerConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	public Client feignClient(okhttp3.OkHttpClient okHttpClient,
-			BlockingLoadBalancerClient loadBalancerClient) {
+			BlockingLoadBalancerClient loadBalancerClient,
+			ObjectProvider<LatencyAwareServiceInstanceChooser> latencyAwareChooser) {
 		OkHttpClient delegate = new OkHttpClient(okHttpClient);
-		return new FeignBlockingLoadBalancerClient(delegate, loadBalancerClient);
+		return new FeignBlockingLoadBalancerClient(delegate, loadBalancerClient,
+				latencyAwareChooser.getIfAvailable());
 	}
 
 }
@@ -16,15 +16,24 @@
 
 package org.springframework.cloud.openfeign.ribbon;
 
-import java.util.Map;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.netflix.client.config.IClientConfig;
 import com.netflix.loadbalancer.ILoadBalancer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
 import org.springframework.cloud.netflix.ribbon.ServerIntrospector;
 import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
-import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.cloud.openfeign.support.RetryBudgets;
 
 /**
  * SpringLoadBalancer 实例的工厂，用于缓存创建的条目。
@@ -36,7 +45,9 @@ import org.springframework.util.ConcurrentReferenceHashMap;
  * @author Ryan Baxter
  * @author Gang Li
  */
-public class CachingSpringLoadBalancerFactory {
+public class CachingSpringLoadBalancerFactory implements SmartInitializingSingleton {
+
+	private static final Log log = LogFactory.getLog(CachingSpringLoadBalancerFactory.class);
 
 	protected final SpringClientFactory factory;
 
@@ -45,8 +56,22 @@ public class CachingSpringLoadBalancerFactory {
 	/**
 	 * 路由器负载 缓存 ：
 	 * 1、调用负载，key是什么？
+	 *
+	 * Strongly referenced, so load balancers are never rebuilt under memory pressure.
+	 * Each load balancer is built once by the first caller, outside of the lock of the
+	 * map, while concurrent callers wait for its task.
 	 */
-	private volatile Map<String, FeignLoadBalancer> cache = new ConcurrentReferenceHashMap<>();
+	private final ConcurrentMap<String, FutureTask<FeignLoadBalancer>> cache = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder builds = new LongAdder();
+
+	private Collection<String> warmUpClients = Collections.emptyList();
+
+	private RetryBudgets retryBudgets;
 
 	public CachingSpringLoadBalancerFactory(SpringClientFactory factory) {
 		this.factory = factory;
@@ -67,10 +92,52 @@ public class CachingSpringLoadBalancerFactory {
 		/**
 		 * 尝试从缓存中获取  看下缓存设计
 		 */
-		FeignLoadBalancer client = this.cache.get(clientName);
-		if (client != null) {
-			return client;
+		FutureTask<FeignLoadBalancer> task = this.cache.get(clientName);
+		if (task == null) {
+			FutureTask<FeignLoadBalancer> created = new FutureTask<>(
+					() -> build(clientName));
+			task = this.cache.putIfAbsent(clientName, created);
+			if (task == null) {
+				// built outside of the lock of the map, so that a slow build does not
+				// hold up other clients
+				this.misses.increment();
+				task = created;
+				task.run();
+				return get(clientName, task);
+			}
+		}
+		this.hits.increment();
+		return get(clientName, task);
+	}
+
+	private FeignLoadBalancer get(String clientName,
+			FutureTask<FeignLoadBalancer> task) {
+		try {
+			return task.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+					"Interrupted while waiting for the load balancer of " + clientName,
+					ex);
 		}
+		catch (ExecutionException ex) {
+			// the next caller tries again
+			this.cache.remove(clientName, task);
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(
+					"Could not create the load balancer of " + clientName, cause);
+		}
+	}
+
+	private FeignLoadBalancer build(String clientName) {
+		this.builds.increment();
 		IClientConfig config = this.factory.getClientConfig(clientName);
 		/**
 		 * 获取负载进行调度服务实例   lb负载均衡器
@@ -80,14 +147,62 @@ public class CachingSpringLoadBalancerFactory {
 		// 获取实例
 		ServerIntrospector serverIntrospector = this.factory.getInstance(clientName, ServerIntrospector.class);
 		//
-		client = this.loadBalancedRetryFactory != null
-				? new RetryableFeignLoadBalancer(lb, config, serverIntrospector,
-						this.loadBalancedRetryFactory)
-				: new FeignLoadBalancer(lb, config, serverIntrospector);
-
-		// 存入缓存
-		this.cache.put(clientName, client);
-		return client;
+		if (this.loadBalancedRetryFactory == null) {
+			return new FeignLoadBalancer(lb, config, serverIntrospector);
+		}
+		RetryableFeignLoadBalancer retryable = new RetryableFeignLoadBalancer(lb, config,
+				serverIntrospector, this.loadBalancedRetryFactory);
+		retryable.setRetryBudgets(this.retryBudgets);
+		return retryable;
+	}
+
+	/**
+	 * Sets the budgets limiting the retries of the load balancers created from now on.
+	 * @param retryBudgets the retry budgets, or {@code null} for unlimited retries
+	 */
+	public void setRetryBudgets(RetryBudgets retryBudgets) {
+		this.retryBudgets = retryBudgets;
+	}
+
+	/**
+	 * Sets the clients whose load balancers are created eagerly once all singletons
+	 * have been instantiated, rather than on their first request.
+	 * @param warmUpClients the client names
+	 */
+	public void setWarmUpClients(Collection<String> warmUpClients) {
+		this.warmUpClients = warmUpClients != null ? warmUpClients
+				: Collections.emptyList();
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		for (String clientName : this.warmUpClients) {
+			if (log.isDebugEnabled()) {
+				log.debug("Creating FeignLoadBalancer for client " + clientName);
+			}
+			create(clientName);
+		}
+	}
+
+	/**
+	 * @return the number of lookups answered from the cache
+	 */
+	public long getCacheHits() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups that did not find a cached load balancer
+	 */
+	public long getCacheMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * @return the number of load balancers built
+	 */
+	public long getBuilds() {
+		return this.builds.sum();
 	}
 
 }
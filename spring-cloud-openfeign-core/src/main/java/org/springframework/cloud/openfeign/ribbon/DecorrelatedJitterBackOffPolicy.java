@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.ribbon;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.SleepingBackOffPolicy;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+
+/**
+ * {@link SleepingBackOffPolicy} waiting a random time between the initial back off and
+ * three times the previous back off, capped at the maximum back off, so that the
+ * retries of concurrent requests spread out instead of hitting a recovering service at
+ * the same time.
+ */
+public class DecorrelatedJitterBackOffPolicy
+		implements SleepingBackOffPolicy<DecorrelatedJitterBackOffPolicy> {
+
+	private final long initialBackOff;
+
+	private final long maxBackOff;
+
+	private final Sleeper sleeper;
+
+	/**
+	 * @param initialBackOff the shortest back off in milliseconds
+	 * @param maxBackOff the longest back off in milliseconds
+	 */
+	public DecorrelatedJitterBackOffPolicy(long initialBackOff, long maxBackOff) {
+		this(initialBackOff, maxBackOff, new ThreadWaitSleeper());
+	}
+
+	private DecorrelatedJitterBackOffPolicy(long initialBackOff, long maxBackOff,
+			Sleeper sleeper) {
+		this.initialBackOff = Math.max(1, initialBackOff);
+		this.maxBackOff = Math.max(this.initialBackOff, maxBackOff);
+		this.sleeper = sleeper;
+	}
+
+	@Override
+	public DecorrelatedJitterBackOffPolicy withSleeper(Sleeper sleeper) {
+		return new DecorrelatedJitterBackOffPolicy(this.initialBackOff, this.maxBackOff,
+				sleeper);
+	}
+
+	@Override
+	public BackOffContext start(RetryContext context) {
+		return new DecorrelatedJitterBackOffContext(this.initialBackOff);
+	}
+
+	@Override
+	public void backOff(BackOffContext backOffContext)
+			throws BackOffInterruptedException {
+		DecorrelatedJitterBackOffContext context = (DecorrelatedJitterBackOffContext) backOffContext;
+		long backOff = nextBackOff(context.previous);
+		context.previous = backOff;
+		try {
+			this.sleeper.sleep(backOff);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BackOffInterruptedException("Thread interrupted while sleeping",
+					ex);
+		}
+	}
+
+	long nextBackOff(long previous) {
+		long upper = Math.min(this.maxBackOff, Math.max(previous, 1) * 3);
+		if (upper <= this.initialBackOff) {
+			return this.initialBackOff;
+		}
+		return ThreadLocalRandom.current().nextLong(this.initialBackOff, upper + 1);
+	}
+
+	private static final class DecorrelatedJitterBackOffContext
+			implements BackOffContext {
+
+		private long previous;
+
+		private DecorrelatedJitterBackOffContext(long previous) {
+			this.previous = previous;
+		}
+
+	}
+
+}
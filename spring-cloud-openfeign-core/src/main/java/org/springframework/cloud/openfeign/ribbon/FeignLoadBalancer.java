@@ -18,11 +18,7 @@ package org.springframework.cloud.openfeign.ribbon;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 import com.netflix.client.AbstractLoadBalancerAwareClient;
@@ -40,11 +36,13 @@ import feign.Response;
 
 import org.springframework.cloud.netflix.ribbon.RibbonProperties;
 import org.springframework.cloud.netflix.ribbon.ServerIntrospector;
+import org.springframework.cloud.openfeign.FeignHedgingCapability;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRequest;
 
 import static org.springframework.cloud.netflix.ribbon.RibbonUtils.updateToSecureConnectionIfNeeded;
+import static org.springframework.cloud.openfeign.support.FeignUtils.readOnlyHttpHeaders;
 
 /**
  * @author Dave Syer
@@ -56,6 +54,8 @@ import static org.springframework.cloud.netflix.ribbon.RibbonUtils.updateToSecur
 public class FeignLoadBalancer extends
 		AbstractLoadBalancerAwareClient<FeignLoadBalancer.RibbonRequest, FeignLoadBalancer.RibbonResponse> {
 
+	private static final int MAX_CHOICES = 3;
+
 	private final RibbonProperties ribbon;
 
 	protected int connectTimeout;
@@ -81,17 +81,27 @@ public class FeignLoadBalancer extends
 	@Override
 	public RibbonResponse execute(RibbonRequest request, IClientConfig configOverride)
 			throws IOException {
-		Request.Options options;
+		Request.Options options = getOptions(configOverride);
+		Response response = request.client().execute(request.toRequest(), options);
+		return new RibbonResponse(request.getUri(), response);
+	}
+
+	/**
+	 * Resolves the timeouts a request is executed with.
+	 * @param configOverride the per-request config, may be {@code null}
+	 * @return the request options
+	 */
+	Request.Options getOptions(IClientConfig configOverride) {
+		if (configOverride instanceof LoadBalancerFeignClient.FeignOptionsClientConfig) {
+			return ((LoadBalancerFeignClient.FeignOptionsClientConfig) configOverride)
+					.getOptions();
+		}
 		if (configOverride != null) {
 			RibbonProperties override = RibbonProperties.from(configOverride);
-			options = new Request.Options(override.connectTimeout(this.connectTimeout),
+			return new Request.Options(override.connectTimeout(this.connectTimeout),
 					override.readTimeout(this.readTimeout));
 		}
-		else {
-			options = new Request.Options(this.connectTimeout, this.readTimeout);
-		}
-		Response response = request.client().execute(request.toRequest(), options);
-		return new RibbonResponse(request.getUri(), response);
+		return new Request.Options(this.connectTimeout, this.readTimeout);
 	}
 
 	@Override
@@ -111,6 +121,22 @@ public class FeignLoadBalancer extends
 		}
 	}
 
+	/**
+	 * Chooses a server, drawing again a few times while it is the one another attempt
+	 * at the same hedged request was sent to.
+	 */
+	@Override
+	public Server getServerFromLoadBalancer(URI original, Object loadBalancerKey)
+			throws ClientException {
+		Server server = super.getServerFromLoadBalancer(original, loadBalancerKey);
+		for (int i = 1; i < MAX_CHOICES && FeignHedgingCapability
+				.isChosenByOtherAttempt(server.getHost(), server.getPort()); i++) {
+			server = super.getServerFromLoadBalancer(original, loadBalancerKey);
+		}
+		FeignHedgingCapability.onInstanceChosen(server.getHost(), server.getPort());
+		return server;
+	}
+
 	@Override
 	public URI reconstructURIWithServer(Server server, URI original) {
 		URI uri = updateToSecureConnectionIfNeeded(original, this.clientConfig,
@@ -124,21 +150,36 @@ public class FeignLoadBalancer extends
 
 		private final Client client;
 
+		private Request currentRequest;
+
 		protected RibbonRequest(Client client, Request request, URI uri) {
 			this.client = client;
 			setUri(uri);
 			this.request = toRequest(request);
+			this.currentRequest = this.request;
 		}
 
 		private Request toRequest(Request request) {
-			Map<String, Collection<String>> headers = new LinkedHashMap<>(
-					request.headers());
-			return Request.create(request.httpMethod(), getUri().toASCIIString(), headers,
+			String url = getUri().toASCIIString();
+			if (url.equals(request.url())) {
+				return request;
+			}
+			return Request.create(request.httpMethod(), url, request.headers(),
 					request.body(), request.charset(), request.requestTemplate());
 		}
 
+		/**
+		 * Returns the Feign request for the current URI. The request is only rebuilt
+		 * when the URI has been replaced, e.g. after a server has been chosen.
+		 * @return the request to execute
+		 */
 		Request toRequest() {
-			return toRequest(this.request);
+			Request current = this.currentRequest;
+			Request request = toRequest(current);
+			if (request != current) {
+				this.currentRequest = request;
+			}
+			return request;
 		}
 
 		Client client() {
@@ -165,16 +206,7 @@ public class FeignLoadBalancer extends
 
 				@Override
 				public HttpHeaders getHeaders() {
-					Map<String, List<String>> headers = new HashMap<>();
-					Map<String, Collection<String>> feignHeaders = RibbonRequest.this
-							.toRequest().headers();
-					for (String key : feignHeaders.keySet()) {
-						headers.put(key, new ArrayList<String>(feignHeaders.get(key)));
-					}
-					HttpHeaders httpHeaders = new HttpHeaders();
-					httpHeaders.putAll(headers);
-					return httpHeaders;
-
+					return readOnlyHttpHeaders(RibbonRequest.this.toRequest().headers());
 				}
 			};
 		}
@@ -25,6 +25,7 @@ import org.springframework.cloud.client.loadbalancer.InterceptorRetryPolicy;
 import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryContext;
 import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryPolicy;
 import org.springframework.cloud.client.loadbalancer.ServiceInstanceChooser;
+import org.springframework.cloud.openfeign.support.RequestBudget;
 import org.springframework.http.HttpRequest;
 import org.springframework.retry.RetryContext;
 
@@ -35,13 +36,35 @@ public class FeignRetryPolicy extends InterceptorRetryPolicy {
 
 	private HttpRequest request;
 
+	private static final String BUDGET_RETRY_COUNT = FeignRetryPolicy.class.getName()
+			+ ".budgetRetryCount";
+
+	private static final String BUDGET_GRANTED = FeignRetryPolicy.class.getName()
+			+ ".budgetGranted";
+
 	private String serviceId;
 
+	private RequestBudget retryBudget;
+
 	public FeignRetryPolicy(HttpRequest request, LoadBalancedRetryPolicy policy,
 			ServiceInstanceChooser serviceInstanceChooser, String serviceName) {
+		this(request, policy, serviceInstanceChooser, serviceName, null);
+	}
+
+	/**
+	 * @param request the request
+	 * @param policy the retry policy of the load balancer
+	 * @param serviceInstanceChooser the chooser of the instances
+	 * @param serviceName the name of the service
+	 * @param retryBudget the budget every retry takes a token from, or {@code null}
+	 */
+	public FeignRetryPolicy(HttpRequest request, LoadBalancedRetryPolicy policy,
+			ServiceInstanceChooser serviceInstanceChooser, String serviceName,
+			RequestBudget retryBudget) {
 		super(request, policy, serviceInstanceChooser, serviceName);
 		this.request = request;
 		this.serviceId = serviceName;
+		this.retryBudget = retryBudget;
 	}
 
 	@Override
@@ -61,7 +84,23 @@ public class FeignRetryPolicy extends InterceptorRetryPolicy {
 		if (context.getRetryCount() == 0) {
 			return true;
 		}
-		return super.canRetry(context);
+		return super.canRetry(context) && acquireRetry(context);
+	}
+
+	private boolean acquireRetry(RetryContext context) {
+		if (this.retryBudget == null) {
+			return true;
+		}
+		// RetryTemplate asks twice whether to retry after a failure, once before
+		// backing off and once before the next attempt, which takes a single token
+		Object retryCount = context.getAttribute(BUDGET_RETRY_COUNT);
+		if (retryCount != null && (int) retryCount == context.getRetryCount()) {
+			return (boolean) context.getAttribute(BUDGET_GRANTED);
+		}
+		boolean granted = this.retryBudget.tryAcquire();
+		context.setAttribute(BUDGET_RETRY_COUNT, context.getRetryCount());
+		context.setAttribute(BUDGET_GRANTED, granted);
+		return granted;
 	}
 
 	@Override
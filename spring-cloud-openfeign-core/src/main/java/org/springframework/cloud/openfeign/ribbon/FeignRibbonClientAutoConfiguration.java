@@ -16,10 +16,14 @@
 
 package org.springframework.cloud.openfeign.ribbon;
 
+import java.util.Collections;
+import java.util.List;
+
 import com.netflix.loadbalancer.ILoadBalancer;
 import feign.Feign;
 import feign.Request;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -27,9 +31,11 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClas
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
+import org.springframework.cloud.netflix.ribbon.RibbonEagerLoadProperties;
 import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
 import org.springframework.cloud.openfeign.FeignAutoConfiguration;
 import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.cloud.openfeign.support.RetryBudgets;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -66,8 +72,12 @@ public class FeignRibbonClientAutoConfiguration {
 	@ConditionalOnMissingBean
 	@ConditionalOnMissingClass("org.springframework.retry.support.RetryTemplate")
 	public CachingSpringLoadBalancerFactory cachingLBClientFactory(
-			SpringClientFactory factory) {
-		return new CachingSpringLoadBalancerFactory(factory);
+			SpringClientFactory factory,
+			ObjectProvider<RibbonEagerLoadProperties> eagerLoadProperties) {
+		CachingSpringLoadBalancerFactory lbClientFactory = new CachingSpringLoadBalancerFactory(
+				factory);
+		lbClientFactory.setWarmUpClients(warmUpClients(eagerLoadProperties));
+		return lbClientFactory;
 	}
 
 	@Bean
@@ -75,8 +85,25 @@ public class FeignRibbonClientAutoConfiguration {
 	@ConditionalOnMissingBean
 	@ConditionalOnClass(name = "org.springframework.retry.support.RetryTemplate")
 	public CachingSpringLoadBalancerFactory retryabeCachingLBClientFactory(
-			SpringClientFactory factory, LoadBalancedRetryFactory retryFactory) {
-		return new CachingSpringLoadBalancerFactory(factory, retryFactory);
+			SpringClientFactory factory, LoadBalancedRetryFactory retryFactory,
+			ObjectProvider<RibbonEagerLoadProperties> eagerLoadProperties,
+			ObjectProvider<RetryBudgets> retryBudgets) {
+		CachingSpringLoadBalancerFactory lbClientFactory = new CachingSpringLoadBalancerFactory(
+				factory, retryFactory);
+		lbClientFactory.setWarmUpClients(warmUpClients(eagerLoadProperties));
+		lbClientFactory.setRetryBudgets(retryBudgets.getIfAvailable());
+		return lbClientFactory;
+	}
+
+	// reuse ribbon.eager-load.* so Feign load balancers are built along with the
+	// eagerly loaded Ribbon client contexts
+	private static List<String> warmUpClients(
+			ObjectProvider<RibbonEagerLoadProperties> eagerLoadProperties) {
+		RibbonEagerLoadProperties properties = eagerLoadProperties.getIfAvailable();
+		if (properties == null || !properties.isEnabled()) {
+			return Collections.emptyList();
+		}
+		return properties.getClients();
 	}
 
 	@Bean
@@ -19,11 +19,14 @@ package org.springframework.cloud.openfeign.ribbon;
 import feign.Client;
 import feign.httpclient.ApacheHttpClient;
 import org.apache.http.client.HttpClient;
+import org.apache.http.conn.HttpClientConnectionManager;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+import org.springframework.cloud.openfeign.clientconfig.AdaptiveHttpClientConnectionManager;
 import org.springframework.cloud.openfeign.clientconfig.HttpClientFeignConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -44,8 +47,10 @@ class HttpClientFeignLoadBalancedConfiguration {
 	@Bean
 	@ConditionalOnMissingBean(Client.class)
 	public Client feignClient(CachingSpringLoadBalancerFactory cachingFactory,
-			SpringClientFactory clientFactory, HttpClient httpClient) {
-		ApacheHttpClient delegate = new ApacheHttpClient(httpClient);
+			SpringClientFactory clientFactory, HttpClient httpClient,
+			ObjectProvider<HttpClientConnectionManager> connectionManager) {
+		Client delegate = AdaptiveHttpClientConnectionManager.decorate(
+				new ApacheHttpClient(httpClient), connectionManager.getIfAvailable());
 		return new LoadBalancerFeignClient(delegate, cachingFactory, clientFactory);
 	}
 
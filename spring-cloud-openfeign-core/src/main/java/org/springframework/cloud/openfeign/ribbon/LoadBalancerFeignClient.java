@@ -18,6 +18,9 @@ package org.springframework.cloud.openfeign.ribbon;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.netflix.client.ClientException;
 import com.netflix.client.config.CommonClientConfigKey;
@@ -43,6 +46,8 @@ public class LoadBalancerFeignClient implements Client {
 
 	private SpringClientFactory clientFactory;
 
+	private final Map<ClientConfigKey, IClientConfig> clientConfigs = new ConcurrentHashMap<>();
+
 	public LoadBalancerFeignClient(Client delegate,
 			CachingSpringLoadBalancerFactory lbClientFactory,
 			SpringClientFactory clientFactory) {
@@ -52,29 +57,74 @@ public class LoadBalancerFeignClient implements Client {
 	}
 
 	static URI cleanUrl(String originalUrl, String host) {
-		String newUrl = originalUrl;
-		if (originalUrl.startsWith("https://")) {
-			newUrl = originalUrl.substring(0, 8)
-					+ originalUrl.substring(8 + host.length());
+		int schemeLength = schemeLength(originalUrl);
+		if (schemeLength == 0) {
+			return URI.create(originalUrl);
+		}
+		int pathStart = schemeLength + host.length();
+		int length = originalUrl.length();
+		StringBuilder builder = new StringBuilder(length - host.length() + 1)
+				.append(originalUrl, 0, schemeLength);
+		if (pathStart == length) {
+			builder.append('/');
 		}
-		else if (originalUrl.startsWith("http")) {
-			newUrl = originalUrl.substring(0, 7)
-					+ originalUrl.substring(7 + host.length());
+		else {
+			builder.append(originalUrl, pathStart, length);
 		}
-		StringBuffer buffer = new StringBuffer(newUrl);
-		if ((newUrl.startsWith("https://") && newUrl.length() == 8)
-				|| (newUrl.startsWith("http://") && newUrl.length() == 7)) {
-			buffer.append("/");
+		return URI.create(builder.toString());
+	}
+
+	/**
+	 * Returns the host of the given url, which is the name of the client to load
+	 * balance. Plain {@code http(s)://name[:port][/path]} urls are scanned in place,
+	 * anything else falls back to {@link URI} parsing.
+	 * @param url the request url
+	 * @return the host of the url
+	 */
+	static String getHost(String url) {
+		int hostStart = schemeLength(url);
+		if (hostStart > 0) {
+			int length = url.length();
+			int hostEnd = hostStart;
+			while (hostEnd < length) {
+				char c = url.charAt(hostEnd);
+				if (c == '/' || c == ':' || c == '?' || c == '#') {
+					break;
+				}
+				if (!isHostChar(c)) {
+					hostEnd = -1;
+					break;
+				}
+				hostEnd++;
+			}
+			if (hostEnd > hostStart) {
+				return url.substring(hostStart, hostEnd);
+			}
 		}
-		return URI.create(buffer.toString());
+		return URI.create(url).getHost();
+	}
+
+	private static int schemeLength(String url) {
+		if (url.startsWith("https://")) {
+			return 8;
+		}
+		if (url.startsWith("http")) {
+			return 7;
+		}
+		return 0;
+	}
+
+	private static boolean isHostChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+				|| c == '-' || c == '.';
 	}
 
 	@Override
 	public Response execute(Request request, Request.Options options) throws IOException {
 		try {
-			URI asUri = URI.create(request.url());
-			String clientName = asUri.getHost();
-			URI uriWithoutHost = cleanUrl(request.url(), clientName);
+			String url = request.url();
+			String clientName = getHost(url);
+			URI uriWithoutHost = cleanUrl(url, clientName);
 			FeignLoadBalancer.RibbonRequest ribbonRequest = new FeignLoadBalancer.RibbonRequest(
 					this.delegate, request, uriWithoutHost);
 
@@ -97,7 +147,10 @@ public class LoadBalancerFeignClient implements Client {
 			requestConfig = this.clientFactory.getClientConfig(clientName);
 		}
 		else {
-			requestConfig = new FeignOptionsClientConfig(options);
+			// per-client options are fixed, so the config is built once and shared
+			requestConfig = this.clientConfigs.computeIfAbsent(
+					new ClientConfigKey(clientName, options),
+					key -> new FeignOptionsClientConfig(options));
 		}
 		return requestConfig;
 	}
@@ -125,10 +178,23 @@ public class LoadBalancerFeignClient implements Client {
 	 */
 	static class FeignOptionsClientConfig extends DefaultClientConfigImpl {
 
+		private final Request.Options options;
+
 		FeignOptionsClientConfig(Request.Options options) {
 			setProperty(CommonClientConfigKey.ConnectTimeout,
 					options.connectTimeoutMillis());
 			setProperty(CommonClientConfigKey.ReadTimeout, options.readTimeoutMillis());
+			this.options = new Request.Options(options.connectTimeoutMillis(),
+					options.readTimeoutMillis());
+		}
+
+		/**
+		 * Returns the options the load balancer executes requests with for this
+		 * config.
+		 * @return the request options
+		 */
+		Request.Options getOptions() {
+			return this.options;
 		}
 
 		@Override
@@ -143,4 +209,39 @@ public class LoadBalancerFeignClient implements Client {
 
 	}
 
+	private static final class ClientConfigKey {
+
+		private final String clientName;
+
+		private final int connectTimeout;
+
+		private final int readTimeout;
+
+		private ClientConfigKey(String clientName, Request.Options options) {
+			this.clientName = clientName;
+			this.connectTimeout = options.connectTimeoutMillis();
+			this.readTimeout = options.readTimeoutMillis();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ClientConfigKey that = (ClientConfigKey) o;
+			return this.connectTimeout == that.connectTimeout
+					&& this.readTimeout == that.readTimeout
+					&& Objects.equals(this.clientName, that.clientName);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.clientName, this.connectTimeout, this.readTimeout);
+		}
+
+	}
+
 }
@@ -16,12 +16,17 @@
 
 package org.springframework.cloud.openfeign.ribbon;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.net.URI;
 
 import com.netflix.client.DefaultLoadBalancerRetryHandler;
 import com.netflix.client.RequestSpecificRetryHandler;
+import com.netflix.client.config.CommonClientConfigKey;
 import com.netflix.client.config.IClientConfig;
+import com.netflix.client.config.IClientConfigKey;
 import com.netflix.loadbalancer.ILoadBalancer;
 import com.netflix.loadbalancer.Server;
 import feign.Request;
@@ -34,16 +39,18 @@ import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
 import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryPolicy;
 import org.springframework.cloud.client.loadbalancer.ServiceInstanceChooser;
 import org.springframework.cloud.netflix.ribbon.RibbonLoadBalancerClient;
-import org.springframework.cloud.netflix.ribbon.RibbonProperties;
 import org.springframework.cloud.netflix.ribbon.ServerIntrospector;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.support.RequestBudget;
+import org.springframework.cloud.openfeign.support.RetryBudgets;
 import org.springframework.retry.RetryCallback;
 import org.springframework.retry.RetryContext;
 import org.springframework.retry.RetryListener;
+import org.springframework.retry.RetryPolicy;
 import org.springframework.retry.backoff.BackOffPolicy;
 import org.springframework.retry.backoff.NoBackOffPolicy;
 import org.springframework.retry.policy.NeverRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
-import org.springframework.util.StreamUtils;
 
 /**
  * A {@link FeignLoadBalancer} that leverages Spring Retry to retry failed requests.
@@ -54,47 +61,73 @@ import org.springframework.util.StreamUtils;
 public class RetryableFeignLoadBalancer extends FeignLoadBalancer
 		implements ServiceInstanceChooser {
 
+	/**
+	 * Maximum number of bytes of a response body with a retryable status code that is
+	 * buffered in memory.
+	 */
+	public static final IClientConfigKey<Integer> RETRYABLE_BODY_BUFFER_SIZE = new CommonClientConfigKey<Integer>(
+			"retryableBodyBufferSize") {
+	};
+
+	static final int DEFAULT_RETRYABLE_BODY_BUFFER_SIZE = 8192;
+
 	private final LoadBalancedRetryFactory loadBalancedRetryFactory;
 
+	private final int retryableBodyBufferSize;
+
+	private volatile BackOffPolicy backOffPolicy;
+
+	private volatile RetryListener[] retryListeners;
+
+	private volatile RetryTemplate neverRetryTemplate;
+
+	private RetryBudgets retryBudgets;
+
 	public RetryableFeignLoadBalancer(ILoadBalancer lb, IClientConfig clientConfig,
 			ServerIntrospector serverIntrospector,
 			LoadBalancedRetryFactory loadBalancedRetryFactory) {
 		super(lb, clientConfig, serverIntrospector);
 		this.loadBalancedRetryFactory = loadBalancedRetryFactory;
+		this.retryableBodyBufferSize = clientConfig.getPropertyAsInteger(
+				RETRYABLE_BODY_BUFFER_SIZE, DEFAULT_RETRYABLE_BODY_BUFFER_SIZE);
 		this.setRetryHandler(new DefaultLoadBalancerRetryHandler(clientConfig));
 	}
 
+	/**
+	 * Limits the retries of this load balancer with the budget of its client, and backs
+	 * them off with a {@link DecorrelatedJitterBackOffPolicy} unless the
+	 * {@link LoadBalancedRetryFactory} provides a back off policy.
+	 * @param retryBudgets the retry budgets, or {@code null} for unlimited retries
+	 */
+	public void setRetryBudgets(RetryBudgets retryBudgets) {
+		this.retryBudgets = retryBudgets;
+	}
+
 	@Override
 	public RibbonResponse execute(final RibbonRequest request,
 			IClientConfig configOverride) throws IOException {
-		final Request.Options options;
-		if (configOverride != null) {
-			RibbonProperties ribbon = RibbonProperties.from(configOverride);
-			options = new Request.Options(ribbon.connectTimeout(this.connectTimeout),
-					ribbon.readTimeout(this.readTimeout));
-		}
-		else {
-			options = new Request.Options(this.connectTimeout, this.readTimeout);
-		}
+		final Request.Options options = getOptions(configOverride);
 		final LoadBalancedRetryPolicy retryPolicy = this.loadBalancedRetryFactory
 				.createRetryPolicy(this.getClientName(), this);
-		RetryTemplate retryTemplate = new RetryTemplate();
-		BackOffPolicy backOffPolicy = this.loadBalancedRetryFactory
-				.createBackOffPolicy(this.getClientName());
-		retryTemplate.setBackOffPolicy(
-				backOffPolicy == null ? new NoBackOffPolicy() : backOffPolicy);
-		RetryListener[] retryListeners = this.loadBalancedRetryFactory
-				.createRetryListeners(this.getClientName());
-		if (retryListeners != null && retryListeners.length != 0) {
-			retryTemplate.setListeners(retryListeners);
+		RequestBudget retryBudget = null;
+		if (retryPolicy != null && this.retryBudgets != null) {
+			retryBudget = this.retryBudgets.onRequest(this.getClientName(),
+					request.toRequest());
 		}
-		retryTemplate.setRetryPolicy(retryPolicy == null ? new NeverRetryPolicy()
-				: new FeignRetryPolicy(request.toHttpRequest(), retryPolicy, this,
-						this.getClientName()));
+		RetryTemplate retryTemplate = retryPolicy == null ? getNeverRetryTemplate()
+				: createRetryTemplate(new FeignRetryPolicy(request.toHttpRequest(),
+						retryPolicy, this, this.getClientName(), retryBudget));
 		return retryTemplate.execute(new RetryCallback<RibbonResponse, IOException>() {
 			@Override
 			public RibbonResponse doWithRetry(RetryContext retryContext)
 					throws IOException {
+				// the response of a retried status code is no longer needed once
+				// another attempt is made
+				Throwable lastThrowable = retryContext.getLastThrowable();
+				if (lastThrowable instanceof RibbonResponseStatusCodeException) {
+					((RibbonResponseStatusCodeException) lastThrowable).getResponse()
+							.close();
+				}
 				Request feignRequest = null;
 				// on retries the policy will choose the server and set it in the context
 				// extract the server and update the request being made
@@ -114,13 +147,9 @@ public class RetryableFeignLoadBalancer extends FeignLoadBalancer
 				Response response = request.client().execute(feignRequest, options);
 				if (retryPolicy != null
 						&& retryPolicy.retryableStatusCode(response.status())) {
-					byte[] byteArray = response.body() == null ? new byte[] {}
-							: StreamUtils
-									.copyToByteArray(response.body().asInputStream());
-					response.close();
 					throw new RibbonResponseStatusCodeException(
-							RetryableFeignLoadBalancer.this.clientName, response,
-							byteArray, request.getUri());
+							RetryableFeignLoadBalancer.this.clientName,
+							bufferBody(response), request.getUri());
 				}
 				return new RibbonResponse(request.getUri(), response);
 			}
@@ -132,6 +161,108 @@ public class RetryableFeignLoadBalancer extends FeignLoadBalancer
 		});
 	}
 
+	/**
+	 * Buffers the body of a response with a retryable status code, so that its
+	 * connection can be released while waiting for the next attempt. Bodies larger
+	 * than {@link #RETRYABLE_BODY_BUFFER_SIZE} are not copied; they keep streaming from
+	 * the connection until the next attempt closes them or they are returned as the
+	 * result of the last attempt.
+	 * @param response the response with a retryable status code
+	 * @return a response whose body can be read after the original one is closed
+	 * @throws IOException if reading the body fails
+	 */
+	private Response bufferBody(Response response) throws IOException {
+		Response.Body body = response.body();
+		if (body == null) {
+			return response.toBuilder().body(new byte[0]).build();
+		}
+		Integer length = body.length();
+		int limit = this.retryableBodyBufferSize;
+		if (limit <= 0 || (length != null && length > limit)) {
+			return response;
+		}
+		InputStream input = body.asInputStream();
+		byte[] buffer = new byte[(length != null ? length : limit) + 1];
+		int count = 0;
+		int read;
+		while (count < buffer.length
+				&& (read = input.read(buffer, count, buffer.length - count)) != -1) {
+			count += read;
+		}
+		if (count == buffer.length) {
+			InputStream remaining = new SequenceInputStream(
+					new ByteArrayInputStream(buffer, 0, count), input);
+			return response.toBuilder().body(remaining, length).build();
+		}
+		response.close();
+		return response.toBuilder().body(new ByteArrayInputStream(buffer, 0, count), count)
+				.build();
+	}
+
+	/**
+	 * Returns the template used when the client has no retry policy. It carries no
+	 * per-request state, so a single instance is shared by all requests.
+	 * @return the never-retry template
+	 */
+	private RetryTemplate getNeverRetryTemplate() {
+		RetryTemplate retryTemplate = this.neverRetryTemplate;
+		if (retryTemplate == null) {
+			retryTemplate = createRetryTemplate(new NeverRetryPolicy());
+			this.neverRetryTemplate = retryTemplate;
+		}
+		return retryTemplate;
+	}
+
+	/**
+	 * Creates a template for the given policy. The back off policy and the listeners of
+	 * a client are resolved once and reused, only the retry policy is per request as it
+	 * keeps track of the attempts made.
+	 * @param retryPolicy the retry policy of the request
+	 * @return the retry template
+	 */
+	private RetryTemplate createRetryTemplate(RetryPolicy retryPolicy) {
+		RetryTemplate retryTemplate = new RetryTemplate();
+		retryTemplate.setBackOffPolicy(getBackOffPolicy());
+		RetryListener[] retryListeners = getRetryListeners();
+		if (retryListeners.length != 0) {
+			retryTemplate.setListeners(retryListeners);
+		}
+		retryTemplate.setRetryPolicy(retryPolicy);
+		return retryTemplate;
+	}
+
+	private BackOffPolicy getBackOffPolicy() {
+		BackOffPolicy backOffPolicy = this.backOffPolicy;
+		if (backOffPolicy == null) {
+			backOffPolicy = this.loadBalancedRetryFactory
+					.createBackOffPolicy(this.getClientName());
+			if (backOffPolicy == null && this.retryBudgets != null) {
+				FeignClientProperties.RetryBudget properties = this.retryBudgets
+						.getProperties();
+				backOffPolicy = new DecorrelatedJitterBackOffPolicy(
+						properties.getInitialBackoff(), properties.getMaxBackoff());
+			}
+			if (backOffPolicy == null) {
+				backOffPolicy = new NoBackOffPolicy();
+			}
+			this.backOffPolicy = backOffPolicy;
+		}
+		return backOffPolicy;
+	}
+
+	private RetryListener[] getRetryListeners() {
+		RetryListener[] retryListeners = this.retryListeners;
+		if (retryListeners == null) {
+			retryListeners = this.loadBalancedRetryFactory
+					.createRetryListeners(this.getClientName());
+			if (retryListeners == null) {
+				retryListeners = new RetryListener[0];
+			}
+			this.retryListeners = retryListeners;
+		}
+		return retryListeners;
+	}
+
 	@Override
 	public RequestSpecificRetryHandler getRequestSpecificRetryHandler(
 			FeignLoadBalancer.RibbonRequest request, IClientConfig requestConfig) {
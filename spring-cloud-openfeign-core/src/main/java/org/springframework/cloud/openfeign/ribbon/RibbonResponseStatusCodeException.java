@@ -41,6 +41,19 @@ public class RibbonResponseStatusCodeException extends RetryableStatusCodeExcept
 				.status(response.status()).request(response.request()).build();
 	}
 
+	/**
+	 * Creates an exception that exposes the given response as it is, without copying
+	 * its body.
+	 * @param serviceId the id of the service
+	 * @param response the response with a retryable status code
+	 * @param uri the uri of the request
+	 */
+	public RibbonResponseStatusCodeException(String serviceId, Response response,
+			URI uri) {
+		super(serviceId, response.status(), response, uri);
+		this.response = response;
+	}
+
 	@Override
 	public Response getResponse() {
 		return this.response;
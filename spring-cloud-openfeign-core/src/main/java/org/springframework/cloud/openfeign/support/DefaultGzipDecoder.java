@@ -16,28 +16,45 @@
 
 package org.springframework.cloud.openfeign.support;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import feign.FeignException;
 import feign.Response;
+import feign.Util;
 import feign.codec.Decoder;
+import org.reactivestreams.Publisher;
 
 import org.springframework.cloud.openfeign.encoding.HttpEncoding;
+import org.springframework.util.ClassUtils;
 
 /**
- * When response is compressed as gzip, this decompresses and uses {@link SpringDecoder}
- * to decode.
+ * When response is compressed as gzip or deflate, this decompresses and uses
+ * {@link SpringDecoder} to decode. The body is decompressed lazily while the delegate
+ * decoder reads it, so large responses are never materialized in memory.
  *
  * @author Jaesik Kim
  */
 public class DefaultGzipDecoder implements Decoder {
 
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final int MAX_POOLED_INFLATERS = 64;
+
+	private static final boolean reactiveStreamsPresent = ClassUtils.isPresent(
+			"org.reactivestreams.Publisher", DefaultGzipDecoder.class.getClassLoader());
+
+	private static final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(
+			MAX_POOLED_INFLATERS);
+
 	private Decoder decoder;
 
 	public DefaultGzipDecoder(Decoder decoder) {
@@ -52,34 +69,146 @@ public class DefaultGzipDecoder implements Decoder {
 						? response.headers().get(HttpEncoding.CONTENT_ENCODING_HEADER)
 						: null;
 
-		if (encoding != null) {
+		if (encoding != null && response.body() != null) {
 			if (encoding.contains(HttpEncoding.GZIP_ENCODING)) {
-				String decompressedBody = decompress(response);
-				if (decompressedBody != null) {
-					Response decompressedResponse = response.toBuilder()
-							.body(decompressedBody.getBytes()).build();
-					return decoder.decode(decompressedResponse, type);
-				}
+				return decodeDecompressed(decompress(response, true), type);
+			}
+			if (encoding.contains(HttpEncoding.DEFLATE_ENCODING)) {
+				return decodeDecompressed(decompress(response, false), type);
 			}
 		}
 		return decoder.decode(response, type);
 	}
 
-	private String decompress(Response response) throws IOException {
-		if (response.body() == null) {
-			return null;
+	private Object decodeDecompressed(Response decompressed, Type type)
+			throws IOException {
+		Object decoded = null;
+		try {
+			decoded = decoder.decode(decompressed, type);
+			return decoded;
 		}
-		try (GZIPInputStream gzipInputStream = new GZIPInputStream(
-				response.body().asInputStream());
-				BufferedReader reader = new BufferedReader(
-						new InputStreamReader(gzipInputStream, StandardCharsets.UTF_8))) {
-			String outputString = "";
-			String line;
-			while ((line = reader.readLine()) != null) {
-				outputString += line;
+		finally {
+			// Feign only closes the original body, so the decompressing stream has to
+			// be closed here to return its inflater, unless the decoded value reads
+			// the body later on
+			if (!takesOverBody(decoded)) {
+				Util.ensureClosed(decompressed);
 			}
-			return outputString;
 		}
 	}
 
+	private static boolean takesOverBody(Object decoded) {
+		return decoded instanceof AutoCloseable
+				|| (reactiveStreamsPresent && decoded instanceof Publisher);
+	}
+
+	private Response decompress(Response response, boolean gzip) throws IOException {
+		InputStream body = new DecompressingInputStream(
+				response.body().asInputStream(), gzip);
+		return response.toBuilder().body(body, null).build();
+	}
+
+	private static Inflater acquireInflater() {
+		Inflater inflater = inflaters.poll();
+		return inflater != null ? inflater : new Inflater();
+	}
+
+	private static void releaseInflater(Inflater inflater) {
+		inflater.reset();
+		if (!inflaters.offer(inflater)) {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Decompresses the wrapped stream on demand. The gzip header is only read once the
+	 * delegate decoder starts reading, and an empty body is reported as end of stream
+	 * rather than as a malformed header.
+	 */
+	private static final class DecompressingInputStream extends InputStream {
+
+		private final InputStream source;
+
+		private final boolean gzip;
+
+		private InputStream delegate;
+
+		private Inflater inflater;
+
+		private boolean closed;
+
+		private DecompressingInputStream(InputStream source, boolean gzip) {
+			this.source = source;
+			this.gzip = gzip;
+		}
+
+		private InputStream delegate() throws IOException {
+			if (this.closed) {
+				throw new IOException("Stream closed");
+			}
+			if (this.delegate == null) {
+				PushbackInputStream input = new PushbackInputStream(this.source, 1);
+				int first = input.read();
+				if (first == -1) {
+					this.delegate = input;
+				}
+				else {
+					input.unread(first);
+					if (this.gzip) {
+						this.delegate = new GZIPInputStream(input, BUFFER_SIZE);
+					}
+					else {
+						this.inflater = acquireInflater();
+						this.delegate = new InflaterInputStream(input, this.inflater,
+								BUFFER_SIZE);
+					}
+				}
+			}
+			return this.delegate;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return delegate().read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return delegate().read(b, off, len);
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			return delegate().skip(n);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return delegate().available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			try {
+				if (this.delegate != null) {
+					this.delegate.close();
+				}
+				else {
+					this.source.close();
+				}
+			}
+			finally {
+				if (this.inflater != null) {
+					releaseInflater(this.inflater);
+					this.inflater = null;
+				}
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Parameter names of the methods of {@code @FeignClient} interfaces, recorded at build
+ * time by {@link FeignClientsIndexProcessor}. The names are known even when the
+ * interfaces were not compiled with {@code -parameters}, and looking them up does not
+ * need the class files to be read again.
+ * <p>
+ * Only the parameter names are indexed. The rest of the {@code MethodMetadata} depends
+ * on merged and meta-annotations and on the {@link AnnotatedParameterProcessor
+ * processors} registered with the {@link SpringMvcContract} at runtime, so the contract
+ * still derives it from the annotations when the clients are created.
+ */
+public final class FeignClientsIndex {
+
+	/**
+	 * Location of the index files, one per compiled module.
+	 */
+	public static final String INDEX_LOCATION = "META-INF/spring-feign-clients.properties";
+
+	private static final Log log = LogFactory.getLog(FeignClientsIndex.class);
+
+	private static final FeignClientsIndex EMPTY = new FeignClientsIndex(new Properties());
+
+	private static final Map<ClassLoader, FeignClientsIndex> cache = new ConcurrentReferenceHashMap<>();
+
+	private final Properties parameterNames;
+
+	private FeignClientsIndex(Properties parameterNames) {
+		this.parameterNames = parameterNames;
+	}
+
+	/**
+	 * @param classLoader the class loader to load the index files with
+	 * @return the merged index files visible to the class loader
+	 */
+	public static FeignClientsIndex get(ClassLoader classLoader) {
+		if (classLoader == null) {
+			return EMPTY;
+		}
+		return cache.computeIfAbsent(classLoader, FeignClientsIndex::load);
+	}
+
+	private static FeignClientsIndex load(ClassLoader classLoader) {
+		try {
+			Properties properties = PropertiesLoaderUtils
+					.loadAllProperties(INDEX_LOCATION, classLoader);
+			return properties.isEmpty() ? EMPTY : new FeignClientsIndex(properties);
+		}
+		catch (IOException ex) {
+			log.warn("Could not load the index of Feign clients from " + INDEX_LOCATION,
+					ex);
+			return EMPTY;
+		}
+	}
+
+	/**
+	 * @param method a method of a Feign client
+	 * @return the names of the parameters of the method, or {@code null} if the method
+	 * is not indexed
+	 */
+	public String[] getParameterNames(Method method) {
+		if (this.parameterNames.isEmpty()) {
+			return null;
+		}
+		String names = this.parameterNames.getProperty(key(method));
+		if (names == null) {
+			return null;
+		}
+		String[] parameterNames = StringUtils.commaDelimitedListToStringArray(names);
+		return parameterNames.length == method.getParameterCount() ? parameterNames
+				: null;
+	}
+
+	/**
+	 * @param method a method
+	 * @return the key of the method in the index: the binary name of its declaring
+	 * class, its name and the binary names of its erased parameter types, for example
+	 * {@code com.example.StoreClient#getStores(java.lang.String,int)}
+	 */
+	static String key(Method method) {
+		StringJoiner types = new StringJoiner(",",
+				method.getDeclaringClass().getName() + "#" + method.getName() + "(", ")");
+		for (Class<?> type : method.getParameterTypes()) {
+			types.add(type.getTypeName());
+		}
+		return types.toString();
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes the parameter names of the methods of
+ * {@code @FeignClient} interfaces, and of the interfaces they extend, to the
+ * {@link FeignClientsIndex}. It is not registered as a service, so it has to be named
+ * explicitly, for example in the {@code annotationProcessors} of the
+ * {@code maven-compiler-plugin}.
+ */
+@SupportedAnnotationTypes(FeignClientsIndexProcessor.FEIGN_CLIENT)
+public class FeignClientsIndexProcessor extends AbstractProcessor {
+
+	static final String FEIGN_CLIENT = "org.springframework.cloud.openfeign.FeignClient";
+
+	private final Map<String, String> parameterNames = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations,
+			RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.INTERFACE) {
+					addMethods((TypeElement) element);
+				}
+			}
+		}
+		if (roundEnv.processingOver() && !this.parameterNames.isEmpty()) {
+			writeIndex();
+		}
+		return false;
+	}
+
+	private void addMethods(TypeElement type) {
+		String binaryName = this.processingEnv.getElementUtils().getBinaryName(type)
+				.toString();
+		for (Element member : type.getEnclosedElements()) {
+			if (member.getKind() != ElementKind.METHOD
+					|| member.getModifiers().contains(Modifier.DEFAULT)
+					|| member.getModifiers().contains(Modifier.STATIC)) {
+				continue;
+			}
+			ExecutableElement method = (ExecutableElement) member;
+			StringJoiner key = new StringJoiner(",",
+					binaryName + "#" + method.getSimpleName() + "(", ")");
+			StringJoiner names = new StringJoiner(",");
+			for (VariableElement parameter : method.getParameters()) {
+				key.add(binaryName(parameter.asType()));
+				names.add(parameter.getSimpleName());
+			}
+			this.parameterNames.put(key.toString(), names.toString());
+		}
+		for (TypeMirror superinterface : type.getInterfaces()) {
+			addMethods((TypeElement) ((DeclaredType) superinterface).asElement());
+		}
+	}
+
+	/**
+	 * @return the binary name of the erasure of the type, as returned by
+	 * {@link Class#getTypeName()} at runtime
+	 */
+	private String binaryName(TypeMirror type) {
+		TypeMirror erasure = this.processingEnv.getTypeUtils().erasure(type);
+		if (erasure.getKind() == TypeKind.ARRAY) {
+			return binaryName(((ArrayType) erasure).getComponentType()) + "[]";
+		}
+		if (erasure.getKind() == TypeKind.DECLARED) {
+			return this.processingEnv.getElementUtils()
+					.getBinaryName((TypeElement) ((DeclaredType) erasure).asElement())
+					.toString();
+		}
+		return erasure.toString();
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject file = this.processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "", FeignClientsIndex.INDEX_LOCATION);
+			// read back as properties, which are ISO-8859-1
+			try (Writer writer = new OutputStreamWriter(file.openOutputStream(),
+					StandardCharsets.ISO_8859_1)) {
+				for (Map.Entry<String, String> entry : this.parameterNames.entrySet()) {
+					writer.write(escape(entry.getKey()) + "=" + escape(entry.getValue())
+							+ "\n");
+				}
+			}
+		}
+		catch (IOException ex) {
+			this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Could not write the index of Feign clients: " + ex);
+		}
+	}
+
+	/**
+	 * Escapes the characters that Java identifiers may contain but properties can not,
+	 * as {@link java.util.Properties#store(Writer, String)} does.
+	 */
+	private static String escape(String value) {
+		StringBuilder escaped = new StringBuilder(value.length());
+		for (char c : value.toCharArray()) {
+			if (c == '\\') {
+				escaped.append("\\\\");
+			}
+			else if (c < 0x20 || c > 0x7e) {
+				escaped.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+}
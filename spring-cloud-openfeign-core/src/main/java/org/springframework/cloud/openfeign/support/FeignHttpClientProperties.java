@@ -16,6 +16,9 @@
 
 package org.springframework.cloud.openfeign.support;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -66,6 +69,11 @@ public class FeignHttpClientProperties {
 	 */
 	public static final int DEFAULT_CONNECTION_TIMER_REPEAT = 3000;
 
+	/**
+	 * Default value for the time after which idle connections are closed.
+	 */
+	public static final long DEFAULT_CONNECTION_IDLE_TIMEOUT = 30000L;
+
 	private boolean disableSslValidation = DEFAULT_DISABLE_SSL_VALIDATION;
 
 	private int maxConnections = DEFAULT_MAX_CONNECTIONS;
@@ -82,6 +90,22 @@ public class FeignHttpClientProperties {
 
 	private int connectionTimerRepeat = DEFAULT_CONNECTION_TIMER_REPEAT;
 
+	/**
+	 * Time in milliseconds after which idle pooled connections of the Apache HTTP
+	 * client are closed. A negative value keeps them open until they expire.
+	 */
+	private long connectionIdleTimeout = DEFAULT_CONNECTION_IDLE_TIMEOUT;
+
+	/**
+	 * Additional OkHttp-specific properties.
+	 */
+	private OkHttp okHttp = new OkHttp();
+
+	/**
+	 * Adaptive sizing of the per-route limits of the Apache HTTP client pool.
+	 */
+	private AdaptivePool adaptivePool = new AdaptivePool();
+
 	public int getConnectionTimerRepeat() {
 		return this.connectionTimerRepeat;
 	}
@@ -90,6 +114,14 @@ public class FeignHttpClientProperties {
 		this.connectionTimerRepeat = connectionTimerRepeat;
 	}
 
+	public long getConnectionIdleTimeout() {
+		return this.connectionIdleTimeout;
+	}
+
+	public void setConnectionIdleTimeout(long connectionIdleTimeout) {
+		this.connectionIdleTimeout = connectionIdleTimeout;
+	}
+
 	public boolean isDisableSslValidation() {
 		return this.disableSslValidation;
 	}
@@ -146,4 +178,108 @@ public class FeignHttpClientProperties {
 		this.connectionTimeout = connectionTimeout;
 	}
 
+	public OkHttp getOkHttp() {
+		return this.okHttp;
+	}
+
+	public void setOkHttp(OkHttp okHttp) {
+		this.okHttp = okHttp;
+	}
+
+	public AdaptivePool getAdaptivePool() {
+		return this.adaptivePool;
+	}
+
+	public void setAdaptivePool(AdaptivePool adaptivePool) {
+		this.adaptivePool = adaptivePool;
+	}
+
+	/**
+	 * OkHttp-specific properties.
+	 */
+	public static class OkHttp {
+
+		/**
+		 * Protocols negotiated with the servers, by name of {@code okhttp3.Protocol}.
+		 * HTTP_2 is used over TLS when the server supports it, and multiplexes the
+		 * concurrent calls to a server over a shared connection. Set to
+		 * H2_PRIOR_KNOWLEDGE alone to use cleartext HTTP/2 (h2c) without upgrade.
+		 */
+		private List<String> protocols = new ArrayList<>(
+				Arrays.asList("HTTP_2", "HTTP_1_1"));
+
+		public List<String> getProtocols() {
+			return this.protocols;
+		}
+
+		public void setProtocols(List<String> protocols) {
+			this.protocols = protocols;
+		}
+
+	}
+
+	/**
+	 * Properties of the adaptive sizing of the Apache HTTP client pool. Each route
+	 * starts with {@code maxConnectionsPerRoute} connections, grows while requests wait
+	 * for a connection and shrinks while most of its connections are idle, within the
+	 * bounds below and the {@code maxConnections} of the whole pool.
+	 */
+	public static class AdaptivePool {
+
+		/**
+		 * Whether to resize the per-route limits of the pool.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Smallest number of connections to each route.
+		 */
+		private int minConnectionsPerRoute = 10;
+
+		/**
+		 * Largest number of connections to each route, unless overridden for a client
+		 * with feign.client.config.<name>.max-connections-per-route.
+		 */
+		private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS;
+
+		/**
+		 * Average time in milliseconds spent waiting for a connection to a route above
+		 * which its limit is raised.
+		 */
+		private int leaseWaitThreshold = 10;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMinConnectionsPerRoute() {
+			return this.minConnectionsPerRoute;
+		}
+
+		public void setMinConnectionsPerRoute(int minConnectionsPerRoute) {
+			this.minConnectionsPerRoute = minConnectionsPerRoute;
+		}
+
+		public int getMaxConnectionsPerRoute() {
+			return this.maxConnectionsPerRoute;
+		}
+
+		public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		}
+
+		public int getLeaseWaitThreshold() {
+			return this.leaseWaitThreshold;
+		}
+
+		public void setLeaseWaitThreshold(int leaseWaitThreshold) {
+			this.leaseWaitThreshold = leaseWaitThreshold;
+		}
+
+	}
+
 }
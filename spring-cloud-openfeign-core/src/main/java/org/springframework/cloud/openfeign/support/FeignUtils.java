@@ -16,13 +16,19 @@
 
 package org.springframework.cloud.openfeign.support;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.util.MultiValueMap;
 
 import static java.util.Optional.ofNullable;
 
@@ -36,6 +42,12 @@ public final class FeignUtils {
 		throw new IllegalStateException("Can't instantiate a utility class");
 	}
 
+	/**
+	 * Returns a mutable copy of the given Feign headers, for callers such as message
+	 * converters that need to modify them.
+	 * @param headers the Feign headers
+	 * @return the copied headers
+	 */
 	static HttpHeaders getHttpHeaders(Map<String, Collection<String>> headers) {
 		HttpHeaders httpHeaders = new HttpHeaders();
 		for (Map.Entry<String, Collection<String>> entry : headers.entrySet()) {
@@ -44,14 +56,26 @@ public final class FeignUtils {
 		return httpHeaders;
 	}
 
-	static Map<String, Collection<String>> getHeaders(HttpHeaders httpHeaders) {
-		LinkedHashMap<String, Collection<String>> headers = new LinkedHashMap<>();
-
-		for (Map.Entry<String, List<String>> entry : httpHeaders.entrySet()) {
-			headers.put(entry.getKey(), entry.getValue());
-		}
+	/**
+	 * Returns a live, read-only {@link HttpHeaders} view over a Feign header map. No
+	 * headers are copied; lookups fall back to a case-insensitive scan when the
+	 * underlying map is case-sensitive.
+	 * @param headers the Feign headers
+	 * @return the read-only view
+	 */
+	public static HttpHeaders readOnlyHttpHeaders(
+			Map<String, Collection<String>> headers) {
+		return new HttpHeaders(new FeignHeadersMultiValueMap(headers));
+	}
 
-		return headers;
+	/**
+	 * Returns a read-only Feign view over the given {@link HttpHeaders}, without copying
+	 * any headers.
+	 * @param httpHeaders the Spring headers
+	 * @return the read-only view
+	 */
+	static Map<String, Collection<String>> getHeaders(HttpHeaders httpHeaders) {
+		return Collections.unmodifiableMap(httpHeaders);
 	}
 
 	static Collection<String> addTemplateParameter(Collection<String> possiblyNull,
@@ -62,4 +86,129 @@ public final class FeignUtils {
 		return params;
 	}
 
+	private static final class FeignHeadersMultiValueMap
+			extends AbstractMap<String, List<String>>
+			implements MultiValueMap<String, String> {
+
+		private final Map<String, Collection<String>> headers;
+
+		private FeignHeadersMultiValueMap(Map<String, Collection<String>> headers) {
+			this.headers = headers;
+		}
+
+		@Override
+		public List<String> get(Object key) {
+			Collection<String> values = this.headers.get(key);
+			if (values == null && key instanceof String) {
+				for (Map.Entry<String, Collection<String>> entry : this.headers
+						.entrySet()) {
+					if (((String) key).equalsIgnoreCase(entry.getKey())) {
+						values = entry.getValue();
+						break;
+					}
+				}
+			}
+			return asList(values);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			return this.headers.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return this.headers.isEmpty();
+		}
+
+		@Override
+		public Set<Map.Entry<String, List<String>>> entrySet() {
+			return new AbstractSet<Map.Entry<String, List<String>>>() {
+				@Override
+				public Iterator<Map.Entry<String, List<String>>> iterator() {
+					Iterator<Map.Entry<String, Collection<String>>> delegate = FeignHeadersMultiValueMap.this.headers
+							.entrySet().iterator();
+					return new Iterator<Map.Entry<String, List<String>>>() {
+						@Override
+						public boolean hasNext() {
+							return delegate.hasNext();
+						}
+
+						@Override
+						public Map.Entry<String, List<String>> next() {
+							Map.Entry<String, Collection<String>> entry = delegate.next();
+							return new SimpleImmutableEntry<>(entry.getKey(),
+									asList(entry.getValue()));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return FeignHeadersMultiValueMap.this.headers.size();
+				}
+			};
+		}
+
+		@Override
+		public String getFirst(String key) {
+			List<String> values = get(key);
+			return values != null && !values.isEmpty() ? values.get(0) : null;
+		}
+
+		@Override
+		public void add(String key, String value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void addAll(String key, List<? extends String> values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void addAll(MultiValueMap<String, String> values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void set(String key, String value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void setAll(Map<String, String> values) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Map<String, String> toSingleValueMap() {
+			Map<String, String> singleValueMap = new LinkedHashMap<>(
+					this.headers.size());
+			for (Map.Entry<String, Collection<String>> entry : this.headers.entrySet()) {
+				Iterator<String> values = entry.getValue().iterator();
+				if (values.hasNext()) {
+					singleValueMap.put(entry.getKey(), values.next());
+				}
+			}
+			return singleValueMap;
+		}
+
+		private static List<String> asList(Collection<String> values) {
+			if (values == null) {
+				return null;
+			}
+			if (values instanceof List) {
+				return Collections.unmodifiableList((List<String>) values);
+			}
+			return Collections.unmodifiableList(new ArrayList<>(values));
+		}
+
+	}
+
 }
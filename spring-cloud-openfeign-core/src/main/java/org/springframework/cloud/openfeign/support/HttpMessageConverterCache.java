@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+
+/**
+ * Bounded cache of {@link HttpMessageConverter} lookups used by {@link SpringEncoder}
+ * and {@link SpringDecoder}, so that the {@code canWrite} / {@code canRead} scan over
+ * all converters only runs once per body type and media type. Cached entries belong
+ * to the converter list they were resolved from and are discarded as soon as a
+ * different list is passed in.
+ */
+final class HttpMessageConverterCache {
+
+	static final int DEFAULT_MAX_SIZE = 256;
+
+	private final int maxSize;
+
+	private final Map<String, MediaType> mediaTypes = new ConcurrentHashMap<>();
+
+	private volatile Entries entries = new Entries(Collections.emptyList());
+
+	HttpMessageConverterCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	HttpMessageConverterCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the converter cached for the given key, resolving and caching it if
+	 * necessary.
+	 * @param converters the converters the lookup is performed against
+	 * @param key the converter key
+	 * @param resolver resolves the converter on a cache miss, may return {@code null}
+	 * @return the resolved converter or {@code null} if none matches
+	 */
+	HttpMessageConverter<?> getConverter(List<HttpMessageConverter<?>> converters,
+			ConverterKey key, Supplier<HttpMessageConverter<?>> resolver) {
+		Entries entries = this.entries;
+		if (entries.converters != converters) {
+			entries = new Entries(converters);
+			this.entries = entries;
+		}
+		HttpMessageConverter<?> converter = entries.cache.get(key);
+		if (converter == null) {
+			converter = resolver.get();
+			if (converter != null) {
+				put(entries.cache, key, converter);
+			}
+		}
+		return converter;
+	}
+
+	/**
+	 * Returns the parsed {@link MediaType} for the given header value.
+	 * @param value the media type string
+	 * @return the parsed media type
+	 */
+	MediaType getMediaType(String value) {
+		MediaType mediaType = this.mediaTypes.get(value);
+		if (mediaType == null) {
+			mediaType = MediaType.valueOf(value);
+			put(this.mediaTypes, value, mediaType);
+		}
+		return mediaType;
+	}
+
+	int size() {
+		return this.entries.cache.size();
+	}
+
+	private <K, V> void put(Map<K, V> cache, K key, V value) {
+		if (cache.size() >= this.maxSize) {
+			cache.clear();
+		}
+		cache.put(key, value);
+	}
+
+	private static final class Entries {
+
+		private final List<HttpMessageConverter<?>> converters;
+
+		private final Map<ConverterKey, HttpMessageConverter<?>> cache = new ConcurrentHashMap<>();
+
+		private Entries(List<HttpMessageConverter<?>> converters) {
+			this.converters = converters;
+		}
+
+	}
+
+	/**
+	 * Cache key made of the declared body type, the runtime body class and the media
+	 * type.
+	 */
+	static final class ConverterKey {
+
+		private final Type type;
+
+		private final Class<?> clazz;
+
+		private final MediaType mediaType;
+
+		ConverterKey(Type type, Class<?> clazz, MediaType mediaType) {
+			this.type = type;
+			this.clazz = clazz;
+			this.mediaType = mediaType;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ConverterKey that = (ConverterKey) o;
+			return Objects.equals(this.type, that.type)
+					&& this.clazz == that.clazz
+					&& Objects.equals(this.mediaType, that.mediaType);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.type, this.clazz, this.mediaType);
+		}
+
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket bounding the extra requests sent on behalf of the requests of a client,
+ * such as hedged requests or retries. Each request of the client earns a fraction of a
+ * token and each extra request spends a whole one, so that once the tokens saved up are
+ * spent the extra requests can not exceed the given percentage of the requests.
+ */
+public class RequestBudget {
+
+	private static final long TOKEN = 1000;
+
+	private final long deposit;
+
+	private final long capacity;
+
+	private final AtomicLong balance;
+
+	private final LongAdder exhausted = new LongAdder();
+
+	/**
+	 * @param percentage the largest number of extra requests, as a percentage of the
+	 * requests
+	 * @param burst the number of tokens that can be saved up, and that are available
+	 * initially
+	 */
+	public RequestBudget(double percentage, int burst) {
+		this.deposit = Math.max(0, Math.round(percentage * TOKEN / 100));
+		this.capacity = Math.max(1, burst) * TOKEN;
+		this.balance = new AtomicLong(this.capacity);
+	}
+
+	/**
+	 * Records a request of the client.
+	 */
+	public void onRequest() {
+		if (this.balance.get() < this.capacity) {
+			this.balance.accumulateAndGet(this.deposit,
+					(balance, deposit) -> Math.min(this.capacity, balance + deposit));
+		}
+	}
+
+	/**
+	 * Spends a token for an extra request.
+	 * @return whether the extra request may be sent
+	 */
+	public boolean tryAcquire() {
+		long balance;
+		do {
+			balance = this.balance.get();
+			if (balance < TOKEN) {
+				this.exhausted.increment();
+				return false;
+			}
+		}
+		while (!this.balance.compareAndSet(balance, balance - TOKEN));
+		return true;
+	}
+
+	/**
+	 * Gives back a token spent for an extra request that was not sent after all.
+	 */
+	public void release() {
+		this.balance.accumulateAndGet(TOKEN,
+				(balance, token) -> Math.min(this.capacity, balance + token));
+	}
+
+	/**
+	 * @return the number of extra requests refused so far for lack of tokens
+	 */
+	public long getExhausted() {
+		return this.exhausted.sum();
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.RetryableException;
+import feign.Retryer;
+
+import org.springframework.cloud.openfeign.FeignClientProperties;
+
+/**
+ * The {@link RequestBudget retry budgets} of the Feign clients, created on the first
+ * request of each client. They are keyed by the name of the clients, which is also the
+ * name of their Ribbon client, and shared by the retries of the Ribbon load balancer of
+ * a client and by those of its Feign {@link Retryer}. Each invocation of a client earns
+ * its share of a retry once, however many attempts it takes.
+ *
+ * @see FeignClientProperties.RetryBudget
+ */
+public class RetryBudgets {
+
+	private final FeignClientProperties.RetryBudget properties;
+
+	private final Map<String, RequestBudget> budgets = new ConcurrentHashMap<>();
+
+	private final List<BiConsumer<String, RequestBudget>> listeners = new CopyOnWriteArrayList<>();
+
+	private final ThreadLocal<Reference<RequestTemplate>> invocation = new ThreadLocal<>();
+
+	public RetryBudgets(FeignClientProperties.RetryBudget properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * @param clientName the name of a client
+	 * @return the retry budget of the client
+	 */
+	public RequestBudget get(String clientName) {
+		RequestBudget budget = this.budgets.get(clientName);
+		if (budget != null) {
+			return budget;
+		}
+		RequestBudget created = new RequestBudget(this.properties.getPercentage(),
+				this.properties.getBurst());
+		budget = this.budgets.putIfAbsent(clientName, created);
+		if (budget != null) {
+			return budget;
+		}
+		for (BiConsumer<String, RequestBudget> listener : this.listeners) {
+			listener.accept(clientName, created);
+		}
+		return created;
+	}
+
+	/**
+	 * Calls the given listener with the budgets created so far and with each budget
+	 * created afterwards. A budget created while the listener is added may be passed to
+	 * it twice.
+	 * @param listener the listener, given the name of a client and its budget
+	 */
+	public void addListener(BiConsumer<String, RequestBudget> listener) {
+		this.listeners.add(listener);
+		this.budgets.forEach(listener);
+	}
+
+	/**
+	 * Counts a request of the given client in its budget, unless a request of the same
+	 * invocation was counted already. The attempts of an invocation share its
+	 * {@link RequestTemplate}, whether they are made by the Feign {@link Retryer} or by
+	 * the Ribbon load balancer, and run on the thread that counts them.
+	 * @param clientName the name of a client
+	 * @param request a request sent by the client
+	 * @return the retry budget of the client
+	 */
+	public RequestBudget onRequest(String clientName, Request request) {
+		RequestBudget budget = get(clientName);
+		RequestTemplate template = request.requestTemplate();
+		if (template != null) {
+			Reference<RequestTemplate> last = this.invocation.get();
+			if (last != null && last.get() == template) {
+				return budget;
+			}
+			this.invocation.set(new WeakReference<>(template));
+		}
+		budget.onRequest();
+		return budget;
+	}
+
+	/**
+	 * @return the retry budgets created so far, by client name
+	 */
+	public Map<String, RequestBudget> getBudgets() {
+		return Collections.unmodifiableMap(this.budgets);
+	}
+
+	/**
+	 * @return the number of retries refused so far by the budgets of all clients
+	 */
+	public long getExhausted() {
+		long exhausted = 0;
+		for (RequestBudget budget : this.budgets.values()) {
+			exhausted += budget.getExhausted();
+		}
+		return exhausted;
+	}
+
+	public FeignClientProperties.RetryBudget getProperties() {
+		return this.properties;
+	}
+
+	/**
+	 * @param clientName the name of a client
+	 * @return a capability counting the invocations of the client and subjecting the
+	 * retries of its Feign {@link Retryer} to its retry budget
+	 */
+	public Capability capability(String clientName) {
+		return new Capability() {
+
+			@Override
+			public Client enrich(Client client) {
+				return (request, options) -> {
+					onRequest(clientName, request);
+					return client.execute(request, options);
+				};
+			}
+
+			@Override
+			public Retryer enrich(Retryer retryer) {
+				if (retryer == null || retryer == Retryer.NEVER_RETRY) {
+					return retryer;
+				}
+				return new BudgetedRetryer(retryer, get(clientName));
+			}
+
+		};
+	}
+
+	/**
+	 * {@link Retryer} that only lets its delegate retry while the budget allows it.
+	 */
+	private static final class BudgetedRetryer implements Retryer {
+
+		private final Retryer delegate;
+
+		private final RequestBudget budget;
+
+		private BudgetedRetryer(Retryer delegate, RequestBudget budget) {
+			this.delegate = delegate;
+			this.budget = budget;
+		}
+
+		@Override
+		public void continueOrPropagate(RetryableException e) {
+			if (!this.budget.tryAcquire()) {
+				throw e;
+			}
+			try {
+				this.delegate.continueOrPropagate(e);
+			}
+			catch (RuntimeException ex) {
+				// the delegate gave up, so the retry was not made
+				this.budget.release();
+				throw ex;
+			}
+		}
+
+		@Override
+		public Retryer clone() {
+			return new BudgetedRetryer(this.delegate.clone(), this.budget);
+		}
+
+	}
+
+}
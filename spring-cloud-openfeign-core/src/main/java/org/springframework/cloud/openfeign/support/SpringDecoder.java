@@ -21,6 +21,9 @@ import java.io.InputStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import feign.FeignException;
 import feign.Response;
@@ -29,12 +32,17 @@ import feign.codec.Decoder;
 
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCache.ConverterKey;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.client.HttpMessageConverterExtractor;
 
-import static org.springframework.cloud.openfeign.support.FeignUtils.getHttpHeaders;
+import static org.springframework.cloud.openfeign.support.FeignUtils.readOnlyHttpHeaders;
 
 /**
  * @author Spencer Gibb
@@ -43,6 +51,8 @@ public class SpringDecoder implements Decoder {
 
 	private ObjectFactory<HttpMessageConverters> messageConverters;
 
+	private final HttpMessageConverterCache converterCache = new HttpMessageConverterCache();
+
 	public SpringDecoder(ObjectFactory<HttpMessageConverters> messageConverters) {
 		this.messageConverters = messageConverters;
 	}
@@ -52,9 +62,14 @@ public class SpringDecoder implements Decoder {
 			throws IOException, FeignException {
 		if (type instanceof Class || type instanceof ParameterizedType
 				|| type instanceof WildcardType) {
+			List<HttpMessageConverter<?>> converters = this.messageConverters
+					.getObject().getConverters();
+			HttpMessageConverter<?> converter = resolveConverter(converters, type,
+					response);
 			@SuppressWarnings({ "unchecked", "rawtypes" })
 			HttpMessageConverterExtractor<?> extractor = new HttpMessageConverterExtractor(
-					type, this.messageConverters.getObject().getConverters());
+					type, converter != null ? Collections.singletonList(converter)
+							: converters);
 
 			return extractor.extractData(new FeignResponseAdapter(response));
 		}
@@ -63,6 +78,47 @@ public class SpringDecoder implements Decoder {
 				response.request());
 	}
 
+	private HttpMessageConverter<?> resolveConverter(
+			List<HttpMessageConverter<?>> converters, Type type, Response response) {
+		MediaType contentType;
+		try {
+			contentType = getContentType(response);
+		}
+		catch (InvalidMediaTypeException ex) {
+			// let HttpMessageConverterExtractor report the invalid content type
+			return null;
+		}
+		return this.converterCache.getConverter(converters,
+				new ConverterKey(type, null, contentType),
+				() -> findReader(converters, type, contentType));
+	}
+
+	private MediaType getContentType(Response response) {
+		Collection<String> values = response.headers().get(HttpHeaders.CONTENT_TYPE);
+		if (values == null || values.isEmpty()) {
+			// same default as HttpMessageConverterExtractor
+			return MediaType.APPLICATION_OCTET_STREAM;
+		}
+		return this.converterCache.getMediaType(values.iterator().next());
+	}
+
+	private HttpMessageConverter<?> findReader(
+			List<HttpMessageConverter<?>> converters, Type type, MediaType contentType) {
+		for (HttpMessageConverter<?> converter : converters) {
+			if (converter instanceof GenericHttpMessageConverter) {
+				if (((GenericHttpMessageConverter<?>) converter).canRead(type, null,
+						contentType)) {
+					return converter;
+				}
+			}
+			if (type instanceof Class
+					&& converter.canRead((Class<?>) type, contentType)) {
+				return converter;
+			}
+		}
+		return null;
+	}
+
 	private final class FeignResponseAdapter implements ClientHttpResponse {
 
 		private final Response response;
@@ -103,7 +159,7 @@ public class SpringDecoder implements Decoder {
 
 		@Override
 		public HttpHeaders getHeaders() {
-			return getHttpHeaders(this.response.headers());
+			return readOnlyHttpHeaders(this.response.headers());
 		}
 
 	}
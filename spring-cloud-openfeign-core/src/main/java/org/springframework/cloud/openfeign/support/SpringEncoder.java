@@ -16,13 +16,13 @@
 
 package org.springframework.cloud.openfeign.support;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 import feign.Request;
@@ -36,6 +36,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
 import org.springframework.cloud.openfeign.encoding.HttpEncoding;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCache.ConverterKey;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
@@ -44,6 +45,7 @@ import org.springframework.http.converter.GenericHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+import org.springframework.util.FastByteArrayOutputStream;
 import org.springframework.web.multipart.MultipartFile;
 
 import static org.springframework.cloud.openfeign.support.FeignUtils.getHeaders;
@@ -64,6 +66,8 @@ public class SpringEncoder implements Encoder {
 
 	private final ObjectFactory<HttpMessageConverters> messageConverters;
 
+	private final HttpMessageConverterCache converterCache = new HttpMessageConverterCache();
+
 	public SpringEncoder(ObjectFactory<HttpMessageConverters> messageConverters) {
 		this.springFormEncoder = new SpringFormEncoder();
 		this.messageConverters = messageConverters;
@@ -80,14 +84,7 @@ public class SpringEncoder implements Encoder {
 			throws EncodeException {
 		// template.body(conversionService.convert(object, String.class));
 		if (requestBody != null) {
-			Collection<String> contentTypes = request.headers()
-					.get(HttpEncoding.CONTENT_TYPE);
-
-			MediaType requestContentType = null;
-			if (contentTypes != null && !contentTypes.isEmpty()) {
-				String type = contentTypes.iterator().next();
-				requestContentType = MediaType.valueOf(type);
-			}
+			MediaType requestContentType = getContentType(request);
 
 			if (Objects.equals(requestContentType, MediaType.MULTIPART_FORM_DATA)) {
 				this.springFormEncoder.encode(requestBody, bodyType, request);
@@ -101,47 +98,45 @@ public class SpringEncoder implements Encoder {
 				}
 			}
 
-			for (HttpMessageConverter messageConverter : this.messageConverters
-					.getObject().getConverters()) {
-				FeignOutputMessage outputMessage;
-				try {
-					if (messageConverter instanceof GenericHttpMessageConverter) {
-						outputMessage = checkAndWrite(requestBody, bodyType,
-								requestContentType,
-								(GenericHttpMessageConverter) messageConverter, request);
-					}
-					else {
-						outputMessage = checkAndWrite(requestBody, requestContentType,
-								messageConverter, request);
-					}
+			List<HttpMessageConverter<?>> converters = this.messageConverters
+					.getObject().getConverters();
+			HttpMessageConverter<?> messageConverter;
+			FeignOutputMessage outputMessage;
+			try {
+				messageConverter = this.converterCache.getConverter(converters,
+						new ConverterKey(bodyType, requestBody.getClass(),
+								requestContentType),
+						() -> findWriter(converters, requestBody, bodyType,
+								requestContentType));
+				outputMessage = messageConverter != null ? write(requestBody, bodyType,
+						requestContentType, messageConverter, request) : null;
+			}
+			catch (IOException | HttpMessageConversionException ex) {
+				throw new EncodeException("Error converting request body", ex);
+			}
+			if (outputMessage != null) {
+				// clear headers
+				request.headers(null);
+				// converters can modify headers, so update the request
+				// with the modified headers
+				request.headers(getHeaders(outputMessage.getHeaders()));
+
+				// do not use charset for binary data and protobuf
+				Charset charset;
+				if (messageConverter instanceof ByteArrayHttpMessageConverter) {
+					charset = null;
 				}
-				catch (IOException | HttpMessageConversionException ex) {
-					throw new EncodeException("Error converting request body", ex);
+				else if (messageConverter instanceof ProtobufHttpMessageConverter
+						&& ProtobufHttpMessageConverter.PROTOBUF.isCompatibleWith(
+								outputMessage.getHeaders().getContentType())) {
+					charset = null;
 				}
-				if (outputMessage != null) {
-					// clear headers
-					request.headers(null);
-					// converters can modify headers, so update the request
-					// with the modified headers
-					request.headers(getHeaders(outputMessage.getHeaders()));
-
-					// do not use charset for binary data and protobuf
-					Charset charset;
-					if (messageConverter instanceof ByteArrayHttpMessageConverter) {
-						charset = null;
-					}
-					else if (messageConverter instanceof ProtobufHttpMessageConverter
-							&& ProtobufHttpMessageConverter.PROTOBUF.isCompatibleWith(
-									outputMessage.getHeaders().getContentType())) {
-						charset = null;
-					}
-					else {
-						charset = StandardCharsets.UTF_8;
-					}
-					request.body(Request.Body.encoded(
-							outputMessage.getOutputStream().toByteArray(), charset));
-					return;
+				else {
+					charset = StandardCharsets.UTF_8;
 				}
+				request.body(Request.Body.encoded(
+						outputMessage.getOutputStream().toByteArrayUnsafe(), charset));
+				return;
 			}
 			String message = "Could not write request: no suitable HttpMessageConverter "
 					+ "found for request type [" + requestBody.getClass().getName() + "]";
@@ -152,33 +147,47 @@ public class SpringEncoder implements Encoder {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private FeignOutputMessage checkAndWrite(Object body, MediaType contentType,
-			HttpMessageConverter converter, RequestTemplate request) throws IOException {
-		if (converter.canWrite(body.getClass(), contentType)) {
-			logBeforeWrite(body, contentType, converter);
-			FeignOutputMessage outputMessage = new FeignOutputMessage(request);
-			converter.write(body, contentType, outputMessage);
-			return outputMessage;
+	private MediaType getContentType(RequestTemplate request) {
+		Collection<String> contentTypes = request.headers()
+				.get(HttpEncoding.CONTENT_TYPE);
+		if (contentTypes != null && !contentTypes.isEmpty()) {
+			String type = contentTypes.iterator().next();
+			return this.converterCache.getMediaType(type);
 		}
-		else {
-			return null;
+		return null;
+	}
+
+	private HttpMessageConverter<?> findWriter(
+			List<HttpMessageConverter<?>> converters, Object body, Type genericType,
+			MediaType contentType) {
+		for (HttpMessageConverter<?> converter : converters) {
+			if (converter instanceof GenericHttpMessageConverter) {
+				if (((GenericHttpMessageConverter<?>) converter).canWrite(genericType,
+						body.getClass(), contentType)) {
+					return converter;
+				}
+			}
+			else if (converter.canWrite(body.getClass(), contentType)) {
+				return converter;
+			}
 		}
+		return null;
 	}
 
 	@SuppressWarnings("unchecked")
-	private FeignOutputMessage checkAndWrite(Object body, Type genericType,
-			MediaType contentType, GenericHttpMessageConverter converter,
+	private FeignOutputMessage write(Object body, Type genericType,
+			MediaType contentType, HttpMessageConverter converter,
 			RequestTemplate request) throws IOException {
-		if (converter.canWrite(genericType, body.getClass(), contentType)) {
-			logBeforeWrite(body, contentType, converter);
-			FeignOutputMessage outputMessage = new FeignOutputMessage(request);
-			converter.write(body, genericType, contentType, outputMessage);
-			return outputMessage;
+		logBeforeWrite(body, contentType, converter);
+		FeignOutputMessage outputMessage = new FeignOutputMessage(request);
+		if (converter instanceof GenericHttpMessageConverter) {
+			((GenericHttpMessageConverter) converter).write(body, genericType,
+					contentType, outputMessage);
 		}
 		else {
-			return null;
+			converter.write(body, contentType, outputMessage);
 		}
+		return outputMessage;
 	}
 
 	private void logBeforeWrite(Object requestBody, MediaType requestContentType,
@@ -195,9 +204,15 @@ public class SpringEncoder implements Encoder {
 		}
 	}
 
+	/**
+	 * Feign bodies are backed by a single byte array, so the converter output is
+	 * collected in a chunked {@link FastByteArrayOutputStream}. Unlike a
+	 * {@code ByteArrayOutputStream} it never copies when growing, and the final body
+	 * array is consolidated at most once and handed to Feign without a defensive copy.
+	 */
 	private final class FeignOutputMessage implements HttpOutputMessage {
 
-		private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		private final FastByteArrayOutputStream outputStream = new FastByteArrayOutputStream();
 
 		private final HttpHeaders httpHeaders;
 
@@ -215,7 +230,7 @@ public class SpringEncoder implements Encoder {
 			return this.httpHeaders;
 		}
 
-		public ByteArrayOutputStream getOutputStream() {
+		public FastByteArrayOutputStream getOutputStream() {
 			return this.outputStream;
 		}
 
@@ -17,6 +17,7 @@
 package org.springframework.cloud.openfeign.support;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
@@ -46,10 +47,14 @@ import org.springframework.cloud.openfeign.annotation.RequestPartParameterProces
 import org.springframework.cloud.openfeign.encoding.HttpEncoding;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.ResourceLoaderAware;
-import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.KotlinDetector;
+import org.springframework.core.KotlinReflectionParameterNameDiscoverer;
+import org.springframework.core.LocalVariableTableParameterNameDiscoverer;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.PrioritizedParameterNameDiscoverer;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.StandardReflectionParameterNameDiscoverer;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
@@ -90,7 +95,7 @@ public class SpringMvcContract extends Contract.BaseContract
 	private static final TypeDescriptor ITERABLE_TYPE_DESCRIPTOR = TypeDescriptor
 			.valueOf(Iterable.class);
 
-	private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+	private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = createParameterNameDiscoverer();
 
 	private final Map<Class<? extends Annotation>, AnnotatedParameterProcessor> annotatedArgumentProcessors;
 
@@ -162,6 +167,18 @@ public class SpringMvcContract extends Contract.BaseContract
 		return elementTypeDescriptor;
 	}
 
+	private static ParameterNameDiscoverer createParameterNameDiscoverer() {
+		PrioritizedParameterNameDiscoverer discoverer = new PrioritizedParameterNameDiscoverer();
+		// the index is only worth consulting for classes compiled without -parameters
+		if (KotlinDetector.isKotlinReflectPresent()) {
+			discoverer.addDiscoverer(new KotlinReflectionParameterNameDiscoverer());
+		}
+		discoverer.addDiscoverer(new StandardReflectionParameterNameDiscoverer());
+		discoverer.addDiscoverer(new IndexedParameterNameDiscoverer());
+		discoverer.addDiscoverer(new LocalVariableTableParameterNameDiscoverer());
+		return discoverer;
+	}
+
 	@Override
 	public void setResourceLoader(ResourceLoader resourceLoader) {
 		this.resourceLoader = resourceLoader;
@@ -424,6 +441,26 @@ public class SpringMvcContract extends Contract.BaseContract
 
 	}
 
+	/**
+	 * Looks the parameter names up in the {@link FeignClientsIndex} written at build
+	 * time.
+	 */
+	private static class IndexedParameterNameDiscoverer
+			implements ParameterNameDiscoverer {
+
+		@Override
+		public String[] getParameterNames(Method method) {
+			return FeignClientsIndex.get(method.getDeclaringClass().getClassLoader())
+					.getParameterNames(method);
+		}
+
+		@Override
+		public String[] getParameterNames(Constructor<?> ctor) {
+			return null;
+		}
+
+	}
+
 	private static class ConvertingExpanderFactory {
 
 		private final ConversionService conversionService;
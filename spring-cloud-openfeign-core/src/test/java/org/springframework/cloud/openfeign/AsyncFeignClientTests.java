@@ -0,0 +1,188 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import feign.FeignException;
+import feign.RequestInterceptor;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.SocketUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.DEFINED_PORT;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = AsyncFeignClientTests.TestConfig.class,
+		webEnvironment = DEFINED_PORT,
+		value = { "spring.application.name=asyncfeignclienttest",
+				"feign.hystrix.enabled=false" })
+@DirtiesContext
+public class AsyncFeignClientTests {
+
+	static int port;
+
+	@Autowired
+	private AsyncClient asyncClient;
+
+	@BeforeClass
+	public static void beforeClass() {
+		port = SocketUtils.findAvailableTcpPort();
+		System.setProperty("server.port", String.valueOf(port));
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		System.clearProperty("server.port");
+	}
+
+	@Test
+	public void futureIsCompletedWithDecodedBody() throws Exception {
+		CompletableFuture<Hello> hello = this.asyncClient.getHello("async");
+
+		assertThat(hello.get(5, TimeUnit.SECONDS)).isEqualTo(new Hello("hello async"));
+	}
+
+	@Test
+	public void invocationRunsOnAsyncExecutor() throws Exception {
+		String thread = this.asyncClient.getThread().get(5, TimeUnit.SECONDS);
+
+		assertThat(thread).startsWith("feign-async-");
+	}
+
+	@Test
+	public void synchronousMethodsAreUnchanged() {
+		assertThat(this.asyncClient.getHelloSync("sync"))
+				.isEqualTo(new Hello("hello sync"));
+	}
+
+	@Test
+	public void futureIsCompletedExceptionallyOnError() {
+		CompletableFuture<Hello> missing = this.asyncClient.getMissing();
+
+		assertThatThrownBy(() -> missing.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(FeignException.NotFound.class);
+	}
+
+	@FeignClient(name = "asyncclient", url = "http://localhost:${server.port}",
+			async = true, configuration = AsyncClientConfiguration.class)
+	protected interface AsyncClient {
+
+		@GetMapping("/hello")
+		CompletableFuture<Hello> getHello(@RequestParam("name") String name);
+
+		@GetMapping("/hello")
+		Hello getHelloSync(@RequestParam("name") String name);
+
+		@GetMapping("/thread")
+		CompletableFuture<String> getThread();
+
+		@GetMapping("/missing")
+		CompletableFuture<Hello> getMissing();
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = AsyncClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class TestConfig {
+
+		@GetMapping("/hello")
+		public Hello getHello(@RequestParam("name") String name) {
+			return new Hello("hello " + name);
+		}
+
+		@GetMapping("/thread")
+		public String getThread(@RequestHeader("X-Thread") String thread) {
+			return thread;
+		}
+
+	}
+
+	protected static class AsyncClientConfiguration {
+
+		@Bean
+		public RequestInterceptor threadInterceptor() {
+			return template -> template.header("X-Thread",
+					Thread.currentThread().getName());
+		}
+
+	}
+
+	public static class Hello {
+
+		private String message;
+
+		public Hello() {
+		}
+
+		public Hello(String message) {
+			this.message = message;
+		}
+
+		public String getMessage() {
+			return this.message;
+		}
+
+		public void setMessage(String message) {
+			this.message = message;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Hello that = (Hello) o;
+			return Objects.equals(this.message, that.message);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.message);
+		}
+
+	}
+
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import feign.Client;
+import feign.Feign;
+import feign.FeignException;
+import feign.RequestLine;
+import feign.Response;
+import feign.Target;
+import feign.hystrix.FallbackFactory;
+import feign.hystrix.HystrixFeign;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkheadTargeterTests {
+
+	private final FeignContext context = mock(FeignContext.class);
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@After
+	public void destroy() {
+		this.release.countDown();
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void invocationRunsOnCallingThread() {
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		Api api = target(factory(void.class, void.class), (request, options) -> {
+			thread.set(Thread.currentThread());
+			return response(200, "hello");
+		});
+
+		assertThat(api.hello()).isEqualTo("hello");
+		assertThat(thread).hasValue(Thread.currentThread());
+		assertThat(api.toString()).contains("foo");
+	}
+
+	@Test
+	public void fullMethodIsRejected() throws Exception {
+		Api api = target(factory(void.class, void.class), this::execute);
+		Future<String> blocked = blockHello(api);
+
+		assertThatThrownBy(api::hello).isInstanceOf(BulkheadFullException.class)
+				.hasFieldOrPropertyWithValue("configKey", "Api#hello()");
+		assertThat(api.bye()).isEqualTo("bye");
+
+		this.release.countDown();
+		assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo("hello");
+		assertThat(api.hello()).isEqualTo("hello");
+	}
+
+	@Test
+	public void methodsOfOtherClientsDoNotSharePermits() throws Exception {
+		FeignClientProperties.Bulkhead properties = new FeignClientProperties.Bulkhead();
+		properties.setMaxConcurrentCallsPerMethod(1);
+		properties.setStripes(1);
+		BulkheadTargeter targeter = new BulkheadTargeter(properties);
+		Api foo = targeter.target(factory(void.class, void.class),
+				Feign.builder().client(this::execute), this.context,
+				new Target.HardCodedTarget<>(Api.class, "foo", "http://foo"));
+		FeignClientFactoryBean barFactory = factory(void.class, void.class);
+		barFactory.setContextId("bar");
+		Api bar = targeter.target(barFactory,
+				Feign.builder().client((request, options) -> response(200, "hello")),
+				this.context,
+				new Target.HardCodedTarget<>(Api.class, "foo", "http://foo"));
+		Future<String> blocked = blockHello(foo);
+
+		assertThatThrownBy(foo::bye).isInstanceOf(BulkheadFullException.class);
+		assertThat(bar.hello()).isEqualTo("hello");
+
+		this.release.countDown();
+		assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo("hello");
+	}
+
+	@Test
+	public void fullClientFallsBack() throws Exception {
+		when(this.context.getInstance("foo", ApiFallback.class))
+				.thenReturn(new ApiFallback());
+		FeignClientProperties.Bulkhead properties = new FeignClientProperties.Bulkhead();
+		properties.setMaxConcurrentCalls(1);
+		Api api = target(properties, factory(ApiFallback.class, void.class),
+				this::execute);
+		Future<String> blocked = blockHello(api);
+
+		assertThat(api.bye()).isEqualTo("fallback");
+
+		this.release.countDown();
+		assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo("hello");
+	}
+
+	@Test
+	public void fallbackFactoryIsGivenCause() {
+		when(this.context.getInstance("foo", ApiFallbackFactory.class))
+				.thenReturn(new ApiFallbackFactory());
+		Api api = target(factory(void.class, ApiFallbackFactory.class),
+				(request, options) -> response(500, "error"));
+
+		assertThat(api.hello()).isEqualTo("fallback: 500");
+	}
+
+	@Test
+	public void missingFallbackFails() {
+		assertThatThrownBy(() -> target(factory(ApiFallback.class, void.class),
+				(request, options) -> response(200, "hello")))
+						.isInstanceOf(IllegalStateException.class)
+						.hasMessageContaining("No fallback instance");
+	}
+
+	@Test
+	public void hystrixBuilderIsNotSupported() {
+		BulkheadTargeter targeter = new BulkheadTargeter(
+				new FeignClientProperties.Bulkhead());
+
+		assertThatThrownBy(() -> targeter.target(factory(void.class, void.class),
+				HystrixFeign.builder(), this.context,
+				new Target.HardCodedTarget<>(Api.class, "foo", "http://foo")))
+						.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void reactiveMethodHoldsPermitsWhileSubscribed() throws Exception {
+		FeignClientProperties.Bulkhead properties = new FeignClientProperties.Bulkhead();
+		properties.setMaxConcurrentCalls(1);
+		ReactiveApi api = new BulkheadTargeter(properties).target(
+				factory(void.class, void.class),
+				Feign.builder().client(this::execute).addCapability(
+						new FeignReactiveCapability(Collections.emptyList())),
+				this.context,
+				new Target.HardCodedTarget<>(ReactiveApi.class, "foo", "http://foo"));
+
+		Mono<String> hello = api.hello();
+		assertThat(api.bye().block(Duration.ofSeconds(5))).isEqualTo("bye");
+
+		Future<String> blocked = this.executor
+				.submit(() -> hello.block(Duration.ofSeconds(5)));
+		assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+		StepVerifier.create(api.bye()).expectError(BulkheadFullException.class)
+				.verify(Duration.ofSeconds(5));
+
+		this.release.countDown();
+		assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo("hello");
+		assertThat(api.bye().block(Duration.ofSeconds(5))).isEqualTo("bye");
+	}
+
+	@Test
+	public void failingPublisherFallsBack() {
+		when(this.context.getInstance("foo", ReactiveApiFallback.class))
+				.thenReturn(new ReactiveApiFallback());
+		ReactiveApi api = new BulkheadTargeter(new FeignClientProperties.Bulkhead())
+				.target(factory(ReactiveApiFallback.class, void.class),
+						Feign.builder()
+								.client((request, options) -> response(503, "error"))
+								.addCapability(new FeignReactiveCapability(
+										Collections.emptyList())),
+						this.context, new Target.HardCodedTarget<>(ReactiveApi.class,
+								"foo", "http://foo"));
+
+		StepVerifier.create(api.bye()).expectNext("fallback").expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void targeterIsConfiguredWhenEnabled() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(FeignAutoConfiguration.class))
+				.withPropertyValues("feign.client.bulkhead.enabled=true")
+				.run(context -> assertThat(context.getBean(Targeter.class))
+						.hasFieldOrPropertyWithValue("delegate.class",
+								BulkheadTargeter.class));
+	}
+
+	private Future<String> blockHello(Api api) throws InterruptedException {
+		Future<String> blocked = this.executor.submit(api::hello);
+		assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+		return blocked;
+	}
+
+	private Response execute(feign.Request request, feign.Request.Options options) {
+		if (request.url().endsWith("/hello")) {
+			this.started.countDown();
+			try {
+				this.release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return response(200, "hello");
+		}
+		return response(200, "bye");
+	}
+
+	private FeignClientFactoryBean factory(Class<?> fallback, Class<?> fallbackFactory) {
+		FeignClientFactoryBean factory = new FeignClientFactoryBean();
+		factory.setName("foo");
+		factory.setContextId("foo");
+		factory.setType(Api.class);
+		factory.setFallback(fallback);
+		factory.setFallbackFactory(fallbackFactory);
+		return factory;
+	}
+
+	private Api target(FeignClientFactoryBean factory, Client client) {
+		FeignClientProperties.Bulkhead properties = new FeignClientProperties.Bulkhead();
+		properties.setMaxConcurrentCallsPerMethod(1);
+		return target(properties, factory, client);
+	}
+
+	private Api target(FeignClientProperties.Bulkhead properties,
+			FeignClientFactoryBean factory, Client client) {
+		return new BulkheadTargeter(properties).target(factory,
+				Feign.builder().client(client), this.context,
+				new Target.HardCodedTarget<>(Api.class, "foo", "http://foo"));
+	}
+
+	private static Response response(int status, String body) {
+		return Response.builder().status(status)
+				.request(feign.Request.create(feign.Request.HttpMethod.GET, "http://foo",
+						Collections.emptyMap(), null, null, null))
+				.headers(Collections.emptyMap()).body(body, feign.Util.UTF_8).build();
+	}
+
+	interface Api {
+
+		@RequestLine("GET /hello")
+		String hello();
+
+		@RequestLine("GET /bye")
+		String bye();
+
+	}
+
+	interface ReactiveApi {
+
+		@RequestLine("GET /hello")
+		Mono<String> hello();
+
+		@RequestLine("GET /bye")
+		Mono<String> bye();
+
+	}
+
+	static class ReactiveApiFallback implements ReactiveApi {
+
+		@Override
+		public Mono<String> hello() {
+			return Mono.just("fallback");
+		}
+
+		@Override
+		public Mono<String> bye() {
+			return Mono.just("fallback");
+		}
+
+	}
+
+	static class ApiFallback implements Api {
+
+		@Override
+		public String hello() {
+			return "fallback";
+		}
+
+		@Override
+		public String bye() {
+			return "fallback";
+		}
+
+	}
+
+	static class ApiFallbackFactory implements FallbackFactory<Api> {
+
+		@Override
+		public Api create(Throwable cause) {
+			String status = String.valueOf(((FeignException) cause).status());
+			return new Api() {
+				@Override
+				public String hello() {
+					return "fallback: " + status;
+				}
+
+				@Override
+				public String bye() {
+					return "fallback: " + status;
+				}
+			};
+		}
+
+	}
+
+}
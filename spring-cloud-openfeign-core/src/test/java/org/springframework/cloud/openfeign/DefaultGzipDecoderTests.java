@@ -16,7 +16,21 @@
 
 package org.springframework.cloud.openfeign;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import feign.Request;
+import feign.Response;
+import feign.codec.StringDecoder;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -25,6 +39,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.encoding.HttpEncoding;
+import org.springframework.cloud.openfeign.support.DefaultGzipDecoder;
 import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -102,6 +118,81 @@ public class DefaultGzipDecoderTests extends FeignClientFactoryBean {
 				.isEqualTo(new Hello("안녕하세요 means Hello in Korean"));
 	}
 
+	@Test
+	public void testStreamingDecompressKeepsNewlines() throws IOException {
+		String body = "first line\nsecond line\r\n안녕하세요\n";
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(body.getBytes(StandardCharsets.UTF_8));
+		}
+
+		Object decoded = new DefaultGzipDecoder(new StringDecoder())
+				.decode(response(HttpEncoding.GZIP_ENCODING, compressed.toByteArray()),
+						String.class);
+
+		assertThat(decoded).isEqualTo(body);
+	}
+
+	@Test
+	public void testDeflateDecompress() throws IOException {
+		String body = "deflated\nbody";
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed)) {
+			deflate.write(body.getBytes(StandardCharsets.UTF_8));
+		}
+
+		Object decoded = new DefaultGzipDecoder(new StringDecoder()).decode(
+				response(HttpEncoding.DEFLATE_ENCODING, compressed.toByteArray()),
+				String.class);
+
+		assertThat(decoded).isEqualTo(body);
+	}
+
+	@Test
+	public void testEmptyCompressedBody() throws IOException {
+		Object decoded = new DefaultGzipDecoder(new StringDecoder())
+				.decode(response(HttpEncoding.GZIP_ENCODING, new byte[0]), String.class);
+
+		assertThat(decoded).isEqualTo("");
+	}
+
+	@Test
+	public void testDecompressedBodyIsClosed() throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed)) {
+			deflate.write("deflated body".getBytes(StandardCharsets.UTF_8));
+		}
+		AtomicBoolean closed = new AtomicBoolean();
+		InputStream body = new ByteArrayInputStream(compressed.toByteArray()) {
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		};
+
+		Object decoded = new DefaultGzipDecoder(
+				(response, type) -> (char) response.body().asInputStream().read())
+						.decode(response(HttpEncoding.DEFLATE_ENCODING, body),
+								Character.class);
+
+		assertThat(decoded).isEqualTo('d');
+		assertThat(closed).isTrue();
+	}
+
+	private static Response response(String encoding, byte[] body) {
+		return response(encoding, new ByteArrayInputStream(body));
+	}
+
+	private static Response response(String encoding, InputStream body) {
+		return Response.builder().status(200).reason("OK")
+				.request(Request.create(Request.HttpMethod.GET, "/", new HashMap<>(),
+						null, StandardCharsets.UTF_8, null))
+				.headers(Collections.singletonMap(
+						HttpEncoding.CONTENT_ENCODING_HEADER,
+						Collections.singletonList(encoding)))
+				.body(body, null).build();
+	}
+
 	private static class Hello {
 
 		private String message;
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeTrue;
+
+public class FeignAsyncExecutorTests {
+
+	@Test
+	public void poolRejectsInvocationsBeyondQueueCapacity() throws Exception {
+		FeignAsyncExecutor executor = FeignAsyncExecutor.create(1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+			executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+			CompletableFuture<Boolean> rejected = executor
+					.submit(() -> release.await(5, TimeUnit.SECONDS));
+
+			assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(RejectedExecutionException.class);
+		}
+		finally {
+			release.countDown();
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void virtualThreadsAreNotBoundedByPoolSize() throws Exception {
+		assumeTrue(FeignAsyncExecutor.isVirtualThreadsSupported());
+		int invocations = 10000;
+		FeignAsyncExecutor executor = FeignAsyncExecutor.createOnVirtualThreads();
+		// every invocation blocks until all of them are running at the same time
+		CountDownLatch running = new CountDownLatch(invocations);
+		try {
+			List<CompletableFuture<String>> results = new ArrayList<>(invocations);
+			for (int i = 0; i < invocations; i++) {
+				results.add(executor.submit(() -> {
+					running.countDown();
+					running.await();
+					return Thread.currentThread().getName();
+				}));
+			}
+			CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(30,
+					TimeUnit.SECONDS);
+
+			assertThat(results.get(0).get()).startsWith("feign-async-");
+		}
+		finally {
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void virtualThreadsFailWhenUnsupported() {
+		assumeTrue(!FeignAsyncExecutor.isVirtualThreadsSupported());
+
+		assertThatThrownBy(FeignAsyncExecutor::createOnVirtualThreads)
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+}
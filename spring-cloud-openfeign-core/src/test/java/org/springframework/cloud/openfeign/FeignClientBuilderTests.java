@@ -94,8 +94,8 @@ public class FeignClientBuilderTests {
 		// on this builder class.
 		// (2) Or a new field was added and the builder class has to be extended with this
 		// new field.
-		assertThat(methodNames).containsExactly("contextId", "decode404", "fallback",
-				"fallbackFactory", "name", "path", "url");
+		assertThat(methodNames).containsExactly("async", "contextId", "decode404",
+				"fallback", "fallbackFactory", "name", "path", "url");
 	}
 
 	@Test
@@ -117,6 +117,8 @@ public class FeignClientBuilderTests {
 				getDefaultValueFromFeignClientAnnotation("path"));
 		assertFactoryBeanField(builder, "decode404",
 				getDefaultValueFromFeignClientAnnotation("decode404"));
+		assertFactoryBeanField(builder, "async",
+				getDefaultValueFromFeignClientAnnotation("async"));
 		assertFactoryBeanField(builder, "fallback",
 				getDefaultValueFromFeignClientAnnotation("fallback"));
 		assertFactoryBeanField(builder, "fallbackFactory",
@@ -127,7 +129,7 @@ public class FeignClientBuilderTests {
 	public void forType_allFieldsSetOnBuilder() {
 		// when:
 		final FeignClientBuilder.Builder builder = this.feignClientBuilder
-				.forType(TestFeignClient.class, "TestClient").decode404(true)
+				.forType(TestFeignClient.class, "TestClient").decode404(true).async(true)
 				.fallback(TestFeignClientFallback.class)
 				.fallbackFactory(TestFeignClientFallbackFactory.class).path("Path/")
 				.url("Url/").contextId("TestContext");
@@ -142,6 +144,7 @@ public class FeignClientBuilderTests {
 		assertFactoryBeanField(builder, "url", "http://Url/");
 		assertFactoryBeanField(builder, "path", "/Path");
 		assertFactoryBeanField(builder, "decode404", true);
+		assertFactoryBeanField(builder, "async", true);
 		assertFactoryBeanField(builder, "fallback", TestFeignClientFallback.class);
 		assertFactoryBeanField(builder, "fallbackFactory",
 				TestFeignClientFallbackFactory.class);
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import feign.RetryableException;
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FeignClientsInitializationTests {
+
+	private ConfigurableApplicationContext context;
+
+	@After
+	public void tearDown() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void lazyClientsAreCreatedOnFirstInvocation() {
+		this.context = run("feign.client.initialization.lazy=true");
+		FeignContext feignContext = this.context.getBean(FeignContext.class);
+		FooClient fooClient = this.context.getBean(FooClient.class);
+
+		assertThat(AopUtils.isAopProxy(fooClient)).isTrue();
+		assertThat(feignContext.getContextNames()).doesNotContain("foo", "bar");
+
+		assertThatThrownBy(fooClient::get).isInstanceOf(RetryableException.class);
+		assertThat(feignContext.getContextNames()).contains("foo")
+				.doesNotContain("bar");
+	}
+
+	@Test
+	public void parallelClientsAreCreatedDuringRefresh() {
+		this.context = run("feign.client.initialization.parallel=true",
+				"feign.client.initialization.threads=2");
+
+		assertThat(this.context.getBean(FeignContext.class).getContextNames())
+				.contains("foo", "bar");
+		assertThat(AopUtils.isAopProxy(this.context.getBean(BarClient.class))).isTrue();
+	}
+
+	@Test
+	public void clientsAreCreatedEagerlyByDefault() {
+		this.context = run();
+
+		assertThat(AopUtils.isAopProxy(this.context.getBean(FooClient.class)))
+				.isFalse();
+	}
+
+	private static ConfigurableApplicationContext run(String... properties) {
+		return new SpringApplicationBuilder().properties(properties)
+				.properties("feign.hystrix.enabled=false")
+				.web(WebApplicationType.NONE)
+				.sources(HttpMessageConvertersAutoConfiguration.class,
+						FeignAutoConfiguration.class, TestConfiguration.class)
+				.run();
+	}
+
+	@FeignClient(name = "foo", url = "http://localhost:1")
+	protected interface FooClient {
+
+		@GetMapping("/foo")
+		String get();
+
+	}
+
+	@FeignClient(name = "bar", url = "http://localhost:1")
+	protected interface BarClient {
+
+		@GetMapping("/bar")
+		String get();
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableFeignClients(clients = { FooClient.class, BarClient.class })
+	protected static class TestConfiguration {
+
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.Collections;
+
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.commons.httpclient.HttpClientConfiguration;
+import org.springframework.cloud.test.ClassPathExclusions;
+import org.springframework.cloud.test.ModifiedClassPathRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@RunWith(ModifiedClassPathRunner.class)
+@ClassPathExclusions({ "ribbon-loadbalancer-{version:\\d.*}.jar" })
+public class FeignClientsPrewarmerTests {
+
+	private ServerSocket server;
+
+	private ConfigurableApplicationContext context;
+
+	@Before
+	public void setUp() throws Exception {
+		this.server = new ServerSocket(0);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		if (this.context != null) {
+			this.context.close();
+		}
+		this.server.close();
+	}
+
+	@Test
+	public void opensConnectionsBeforeTheApplicationIsReady() {
+		this.context = new SpringApplicationBuilder()
+				.properties("feign.client.prewarm.enabled=true",
+						"feign.client.prewarm.connections=3",
+						"prewarm.port=" + this.server.getLocalPort())
+				.web(WebApplicationType.NONE)
+				.sources(HttpClientConfiguration.class, FeignAutoConfiguration.class,
+						TestConfiguration.class)
+				.run();
+
+		HttpClientConnectionManager connectionManager = this.context
+				.getBean(HttpClientConnectionManager.class);
+		assertThat(((PoolingHttpClientConnectionManager) connectionManager)
+				.getTotalStats().getAvailable()).isEqualTo(3);
+	}
+
+	@Test
+	public void resolvesTheInstancesOfLoadBalancedClients() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("urlClient",
+				clientDefinition("stores", "localhost:8081/api"));
+		beanFactory.registerBeanDefinition("discoveredClient",
+				clientDefinition("customers", ""));
+		beanFactory.registerBeanDefinition("chosenClient",
+				clientDefinition("orders", ""));
+		DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+		given(discoveryClient.getInstances("customers")).willReturn(asList(
+				new DefaultServiceInstance("c1", "customers", "host1", 8080, false),
+				new DefaultServiceInstance("c2", "customers", "host2", 8443, true)));
+		given(discoveryClient.getInstances("orders"))
+				.willReturn(Collections.emptyList());
+		LoadBalancerClient loadBalancerClient = mock(LoadBalancerClient.class);
+		given(loadBalancerClient.choose("orders")).willReturn(
+				new DefaultServiceInstance("o1", "orders", "host3", 9090, false));
+		FeignClientsPrewarmer prewarmer = new FeignClientsPrewarmer(
+				new FeignClientProperties.Prewarm(), Collections.emptyList(),
+				discoveryClient, loadBalancerClient);
+		prewarmer.setBeanFactory(beanFactory);
+
+		assertThat(prewarmer.getOrigins()).containsExactly(
+				URI.create("http://localhost:8081"), URI.create("http://host1:8080"),
+				URI.create("https://host2:8443"), URI.create("http://host3:9090"));
+	}
+
+	@Test
+	public void resolvesPlaceholders() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("urlClient",
+				clientDefinition("stores", "localhost:${stores.port}/api"));
+		beanFactory.registerBeanDefinition("namedClient",
+				clientDefinition("${customers.url}", ""));
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("stores.port", "8081")
+				.withProperty("customers.url", "https://customers:8443");
+		FeignClientsPrewarmer prewarmer = new FeignClientsPrewarmer(
+				new FeignClientProperties.Prewarm(), Collections.emptyList(), null, null);
+		prewarmer.setBeanFactory(beanFactory);
+		prewarmer.setEnvironment(environment);
+
+		assertThat(prewarmer.getOrigins()).containsExactly(
+				URI.create("http://localhost:8081"),
+				URI.create("https://customers:8443"));
+	}
+
+	private static BeanDefinition clientDefinition(
+			String name, String url) {
+		return BeanDefinitionBuilder.genericBeanDefinition(FeignClientFactoryBean.class)
+				.addPropertyValue("name", name).addPropertyValue("url", url)
+				.getBeanDefinition();
+	}
+
+	@FeignClient(name = "prewarmed", url = "http://localhost:${prewarm.port}")
+	protected interface PrewarmedClient {
+
+		@GetMapping("/")
+		String get();
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableFeignClients(clients = PrewarmedClient.class)
+	protected static class TestConfiguration {
+
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class FeignConcurrencyLimiterTests {
+
+	private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	public void requestsBeyondLimitAreRejected() throws Exception {
+		FeignClientProperties.ConcurrencyLimit properties = new FeignClientProperties.ConcurrencyLimit();
+		properties.setInitialLimit(2);
+		FeignConcurrencyLimiter limiter = new FeignConcurrencyLimiter(properties);
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		Client client = limiter.decorate((request, options) -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return response(request);
+		}, "foo");
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Response> first = executor
+					.submit(() -> client.execute(request(), new Request.Options()));
+			Future<Response> second = executor
+					.submit(() -> client.execute(request(), new Request.Options()));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+			try {
+				client.execute(request(), new Request.Options());
+				fail("ConcurrencyLimitExceededException expected");
+			}
+			catch (ConcurrencyLimitExceededException ex) {
+				assertThat(ex.getContextId()).isEqualTo("foo");
+				assertThat(ex.getLimit()).isEqualTo(2);
+			}
+			release.countDown();
+			assertThat(first.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+			assertThat(second.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+		}
+		finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+
+		assertThat(limiter.getRejected()).isEqualTo(1);
+		assertThat(limiter.getLimit("foo").getRejected()).isEqualTo(1);
+		assertThat(limiter.getLimit("foo").getInFlight()).isZero();
+		assertThat(limiter.getLimit("bar").getInFlight()).isZero();
+	}
+
+	@Test
+	public void rejectedRequestsAreMeteredPerClient() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(FeignAutoConfiguration.class))
+				.withPropertyValues("feign.client.concurrency-limit.enabled=true")
+				.run(context -> {
+					SimpleMeterRegistry registry = new SimpleMeterRegistry();
+					context.getBean("feignConcurrencyLimitMetrics", MeterBinder.class)
+							.bindTo(registry);
+					context.getBean(FeignConcurrencyLimiter.class).getLimit("foo");
+
+					assertThat(registry.find("feign.client.concurrency.rejected")
+							.tag("client", "foo").functionCounter()).isNotNull();
+				});
+	}
+
+	@Test
+	public void limitGrowsWhileRoundTripTimesAreSteady() {
+		FeignConcurrencyLimiter.AdaptiveLimit limit = new FeignConcurrencyLimiter(
+				new FeignClientProperties.ConcurrencyLimit()).getLimit("foo");
+
+		for (int i = 0; i < 50; i++) {
+			limit.update(10 * MILLIS, limit.getLimit(), false);
+		}
+
+		assertThat(limit.getLimit()).isGreaterThan(40);
+	}
+
+	@Test
+	public void limitDoesNotGrowWhenItIsNotApproached() {
+		FeignConcurrencyLimiter.AdaptiveLimit limit = new FeignConcurrencyLimiter(
+				new FeignClientProperties.ConcurrencyLimit()).getLimit("foo");
+
+		for (int i = 0; i < 50; i++) {
+			limit.update(10 * MILLIS, 1, false);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	public void limitShrinksWhenRoundTripTimesGrow() {
+		FeignConcurrencyLimiter.AdaptiveLimit limit = new FeignConcurrencyLimiter(
+				new FeignClientProperties.ConcurrencyLimit()).getLimit("foo");
+		for (int i = 0; i < 100; i++) {
+			limit.update(10 * MILLIS, limit.getLimit(), false);
+		}
+		int steady = limit.getLimit();
+
+		for (int i = 0; i < 20; i++) {
+			limit.update(100 * MILLIS, limit.getLimit(), false);
+		}
+
+		assertThat(limit.getLimit()).isLessThan(steady / 2);
+	}
+
+	@Test
+	public void limitShrinksWhenRequestsFail() {
+		FeignClientProperties.ConcurrencyLimit properties = new FeignClientProperties.ConcurrencyLimit();
+		properties.setMinLimit(5);
+		FeignConcurrencyLimiter limiter = new FeignConcurrencyLimiter(properties);
+		Client client = limiter.decorate((request, options) -> {
+			throw new IOException("connection refused");
+		}, "foo");
+
+		for (int i = 0; i < 30; i++) {
+			try {
+				client.execute(request(), new Request.Options());
+				fail("IOException expected");
+			}
+			catch (IOException ex) {
+				// expected
+			}
+		}
+
+		assertThat(limiter.getLimit("foo").getLimit()).isEqualTo(5);
+		assertThat(limiter.getLimit("foo").getInFlight()).isZero();
+		assertThat(limiter.getRejected()).isZero();
+	}
+
+	private static Request request() {
+		return Request.create(Request.HttpMethod.GET, "http://foo/", Collections.emptyMap(),
+				null, Util.UTF_8, null);
+	}
+
+	private static Response response(Request request) {
+		return Response.builder().status(200).request(request)
+				.headers(Collections.emptyMap()).build();
+	}
+
+}
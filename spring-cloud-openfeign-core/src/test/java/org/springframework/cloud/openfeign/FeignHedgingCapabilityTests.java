@@ -0,0 +1,298 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import feign.Client;
+import feign.Contract;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestLine;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import feign.Util;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FeignHedgingCapabilityTests {
+
+	private final FeignHedgingExecutor executor = FeignHedgingExecutor.create(4);
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@After
+	public void destroy() {
+		this.release.countDown();
+		this.executor.destroy();
+	}
+
+	@Test
+	public void slowRequestIsHedged() throws IOException {
+		AtomicInteger attempts = new AtomicInteger();
+		AtomicBoolean loserClosed = new AtomicBoolean();
+		Client client = hedgingClient(new FeignClientProperties.Hedging(), true,
+				(request, options) -> {
+					if (attempts.incrementAndGet() == 21) {
+						awaitRelease();
+						return response("slow", loserClosed);
+					}
+					return response("fast", null);
+				});
+		warmUp(client, 20);
+
+		long start = System.nanoTime();
+		Response response = client.execute(request(null), new Request.Options());
+
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+				.isLessThan(2000);
+		assertThat(body(response)).isEqualTo("fast");
+		assertThat(attempts).hasValue(22);
+	}
+
+	@Test
+	public void losingResponseIsClosed() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		AtomicBoolean loserClosed = new AtomicBoolean();
+		Client client = hedgingClient(new FeignClientProperties.Hedging(), true,
+				(request, options) -> {
+					if (attempts.incrementAndGet() == 21) {
+						awaitRelease();
+						return response("slow", loserClosed);
+					}
+					return response("fast", null);
+				});
+		warmUp(client, 20);
+
+		client.execute(request(null), new Request.Options());
+		// the slow request ignores the interruption and answers once released
+		this.release.countDown();
+
+		for (int i = 0; i < 50 && !loserClosed.get(); i++) {
+			Thread.sleep(100);
+		}
+		assertThat(loserClosed).isTrue();
+	}
+
+	@Test
+	public void hedgedRequestIsSentToAnotherInstance() throws IOException {
+		AtomicInteger attempts = new AtomicInteger();
+		List<String> instances = new CopyOnWriteArrayList<>();
+		Client client = hedgingClient(new FeignClientProperties.Hedging(), true,
+				(request, options) -> {
+					// chooses like a load balancer with two instances
+					String host = FeignHedgingCapability.isChosenByOtherAttempt("first",
+							80) ? "second" : "first";
+					FeignHedgingCapability.onInstanceChosen(host, 80);
+					if (attempts.incrementAndGet() == 21) {
+						awaitRelease();
+					}
+					instances.add(host);
+					return response(host, null);
+				});
+		warmUp(client, 20);
+		instances.clear();
+
+		Response response = client.execute(request(null), new Request.Options());
+
+		assertThat(body(response)).isEqualTo("second");
+		assertThat(instances).containsExactly("second");
+	}
+
+	@Test
+	public void waitIsBoundedByTimeouts() {
+		Client client = hedgingClient(new FeignClientProperties.Hedging(), true,
+				(request, options) -> {
+					awaitRelease();
+					return response("slow", null);
+				});
+
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> client.execute(request(null),
+				new Request.Options(50, TimeUnit.MILLISECONDS, 100,
+						TimeUnit.MILLISECONDS, true)))
+								.isInstanceOf(SocketTimeoutException.class);
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+				.isLessThan(2000);
+	}
+
+	@Test
+	public void hedgedRequestsAreLimitedByBudget() throws IOException {
+		FeignClientProperties.Hedging properties = new FeignClientProperties.Hedging();
+		properties.setBudget(0);
+		AtomicInteger attempts = new AtomicInteger();
+		// every request is slower than the latencies recorded during the warm up
+		AtomicBoolean slow = new AtomicBoolean();
+		Client client = hedgingClient(properties, true, (request, options) -> {
+			attempts.incrementAndGet();
+			if (slow.get()) {
+				sleep(50);
+			}
+			return response("ok", null);
+		});
+		warmUp(client, 20);
+		slow.set(true);
+		attempts.set(0);
+
+		for (int i = 0; i < 20; i++) {
+			client.execute(request(null), new Request.Options());
+		}
+
+		// only the tokens available initially are spent
+		assertThat(attempts.get()).isBetween(20, 30);
+	}
+
+	@Test
+	public void unsafeRequestIsNotHedgedUnlessAnnotated() {
+		FeignHedgingCapability capability = new FeignHedgingCapability(this.executor,
+				new FeignClientProperties.Hedging(), true);
+		List<MethodMetadata> metadata = new Contract.Default()
+				.parseAndValidateMetadata(TestClient.class);
+
+		assertThat(capability.isHedged(request(metadata("create", metadata))))
+				.isTrue();
+		assertThat(capability.isHedged(request(metadata("update", metadata))))
+				.isFalse();
+		assertThat(capability.isHedged(request(metadata("get", metadata)))).isTrue();
+		assertThat(FeignHedgingCapability.hasHedgedMethods(TestClient.class)).isTrue();
+	}
+
+	@Test
+	public void readRequestIsOnlyHedgedWhenEnabled() {
+		FeignHedgingCapability capability = new FeignHedgingCapability(this.executor,
+				new FeignClientProperties.Hedging(), false);
+		List<MethodMetadata> metadata = new Contract.Default()
+				.parseAndValidateMetadata(TestClient.class);
+
+		assertThat(capability.isHedged(request(metadata("get", metadata)))).isFalse();
+		assertThat(capability.isHedged(request(metadata("create", metadata))))
+				.isTrue();
+	}
+
+	@Test
+	public void histogramBucketsBoundLatencies() {
+		for (long micros : new long[] { 0, 1, 3, 4, 7, 8, 1000, 123456789 }) {
+			int bucket = FeignHedgingCapability.LatencyHistogram.bucket(micros);
+			assertThat(FeignHedgingCapability.LatencyHistogram.upperBound(bucket))
+					.isGreaterThan(micros);
+			if (bucket > 0) {
+				assertThat(FeignHedgingCapability.LatencyHistogram
+						.upperBound(bucket - 1)).isLessThanOrEqualTo(micros);
+			}
+		}
+	}
+
+	private Client hedgingClient(FeignClientProperties.Hedging properties,
+			boolean hedgeReads, Client client) {
+		return new FeignHedgingCapability(this.executor, properties, hedgeReads)
+				.enrich(client);
+	}
+
+	private void warmUp(Client client, int requests) throws IOException {
+		for (int i = 0; i < requests; i++) {
+			client.execute(request(null), new Request.Options()).close();
+		}
+	}
+
+	private void awaitRelease() {
+		try {
+			this.release.await(10, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			// keeps running like a request blocked on a socket
+			awaitRelease();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static MethodMetadata metadata(String name, List<MethodMetadata> metadata) {
+		return metadata.stream().filter(md -> md.method().getName().equals(name))
+				.findFirst().get();
+	}
+
+	private static Request request(MethodMetadata metadata) {
+		RequestTemplate template = new RequestTemplate();
+		Request.HttpMethod httpMethod = Request.HttpMethod.GET;
+		if (metadata != null) {
+			template.methodMetadata(metadata);
+			template.feignTarget(
+					new Target.HardCodedTarget<>(TestClient.class, "http://test"));
+			httpMethod = Request.HttpMethod.valueOf(metadata.template().method());
+		}
+		return Request.create(httpMethod, "http://test/items", Collections.emptyMap(),
+				null, StandardCharsets.UTF_8, template);
+	}
+
+	private static Response response(String body, AtomicBoolean closed) {
+		Response.Builder builder = Response.builder().status(200)
+				.request(request(null)).headers(Collections.emptyMap());
+		if (closed == null) {
+			return builder.body(body, StandardCharsets.UTF_8).build();
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		return builder.body(new ByteArrayInputStream(bytes) {
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		}, bytes.length).build();
+	}
+
+	private static String body(Response response) throws IOException {
+		try (InputStream body = response.body().asInputStream()) {
+			return new String(Util.toByteArray(body), StandardCharsets.UTF_8);
+		}
+	}
+
+	interface TestClient {
+
+		@RequestLine("GET /items")
+		String get();
+
+		@Hedged
+		@RequestLine("POST /items")
+		String create();
+
+		@RequestLine("PUT /items")
+		String update();
+
+	}
+
+}
@@ -22,6 +22,8 @@ import javax.net.ssl.SSLContextSpi;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.http.config.Lookup;
 import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
@@ -77,6 +79,15 @@ public class FeignHttpClientConfigurationTests {
 				.isNull();
 	}
 
+	@Test
+	public void reapedConnectionsAreMetered() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.context.getBean(MeterBinder.class).bindTo(registry);
+
+		assertThat(registry.find("feign.httpclient.connections.reaped").functionCounter())
+				.isNotNull();
+	}
+
 	private Lookup<ConnectionSocketFactory> getConnectionSocketFactoryLookup(
 			HttpClientConnectionManager connectionManager) {
 		DefaultHttpClientConnectionOperator connectionOperator = (DefaultHttpClientConnectionOperator) this
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import feign.Client;
+import feign.Feign;
+import feign.FeignException;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+public class FeignReactiveCapabilityTests {
+
+	private final List<HttpMessageConverter<?>> converters = Collections
+			.singletonList(new MappingJackson2HttpMessageConverter());
+
+	@Test
+	public void monoFallsBackOnError() {
+		Api api = target(new FeignReactiveCapability(this.converters,
+				cause -> new ApiFallback(cause)), response(500, null, "error"));
+
+		StepVerifier.create(api.mono()).expectNext("fallback: 500").expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void fluxFallsBackOnError() {
+		Api api = target(new FeignReactiveCapability(this.converters,
+				cause -> new ApiFallback(cause)), response(404, null, "missing"));
+
+		StepVerifier.create(api.flux()).expectNext("fallback: 404").expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void malformedContentTypeIsTreatedAsUnknown() {
+		Api api = target(new FeignReactiveCapability(this.converters),
+				response(200, "not a media type", "[\"a\",\"b\"]"));
+
+		StepVerifier.create(api.flux()).expectNext("a", "b").expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	private static Api target(FeignReactiveCapability capability, Client client) {
+		return Feign.builder().addCapability(capability).client(client)
+				.target(Api.class, "http://localhost");
+	}
+
+	private static Client response(int status, String contentType, String body) {
+		Map<String, Collection<String>> headers = contentType != null
+				? Collections.singletonMap("Content-Type",
+						Collections.singletonList(contentType))
+				: Collections.emptyMap();
+		return (request, options) -> Response.builder().status(status)
+				.request(request).headers(headers).body(body, Util.UTF_8).build();
+	}
+
+	interface Api {
+
+		@RequestLine("GET /mono")
+		Mono<String> mono();
+
+		@RequestLine("GET /flux")
+		Flux<String> flux();
+
+	}
+
+	static class ApiFallback implements Api {
+
+		private final String status;
+
+		ApiFallback(Throwable cause) {
+			this.status = String.valueOf(((FeignException) cause).status());
+		}
+
+		@Override
+		public Mono<String> mono() {
+			return Mono.just("fallback: " + this.status);
+		}
+
+		@Override
+		public Flux<String> flux() {
+			return Flux.just("fallback: " + this.status);
+		}
+
+	}
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import feign.FeignException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.SocketUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.DEFINED_PORT;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = ReactiveFeignClientTests.TestConfig.class,
+		webEnvironment = DEFINED_PORT,
+		value = { "spring.application.name=reactivefeignclienttest",
+				"feign.hystrix.enabled=false" })
+@DirtiesContext
+public class ReactiveFeignClientTests {
+
+	static int port;
+
+	static final AtomicInteger helloRequests = new AtomicInteger();
+
+	@Autowired
+	private ReactiveClient reactiveClient;
+
+	@BeforeClass
+	public static void beforeClass() {
+		port = SocketUtils.findAvailableTcpPort();
+		System.setProperty("server.port", String.valueOf(port));
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		System.clearProperty("server.port");
+	}
+
+	@Test
+	public void monoIsCompletedWithDecodedBody() {
+		StepVerifier.create(this.reactiveClient.getHello("mono"))
+				.expectNext(new Hello("hello mono")).expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void requestIsSentOnSubscription() {
+		int before = helloRequests.get();
+		Mono<Hello> hello = this.reactiveClient.getHello("lazy");
+
+		assertThat(helloRequests.get()).isEqualTo(before);
+		assertThat(hello.block(Duration.ofSeconds(5))).isEqualTo(new Hello("hello lazy"));
+		assertThat(helloRequests.get()).isEqualTo(before + 1);
+	}
+
+	@Test
+	public void monoFailsOnError() {
+		StepVerifier.create(this.reactiveClient.getMissing())
+				.expectError(FeignException.NotFound.class)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void fluxEmitsElementsOfJsonArray() {
+		StepVerifier.create(this.reactiveClient.getHellos(3))
+				.expectNext(new Hello("hello 0"), new Hello("hello 1"),
+						new Hello("hello 2"))
+				.expectComplete().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void fluxEmitsOnDemand() {
+		StepVerifier.create(this.reactiveClient.getHellos(10000), 2)
+				.expectNext(new Hello("hello 0"), new Hello("hello 1"))
+				.thenCancel().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void fluxOfSingleValueEmitsIt() {
+		StepVerifier.create(this.reactiveClient.getHelloAsFlux("flux"))
+				.expectNext(new Hello("hello flux")).expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void fluxFailsOnError() {
+		StepVerifier.create(this.reactiveClient.getMissingHellos())
+				.expectError(FeignException.NotFound.class)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void synchronousMethodsAreUnchanged() {
+		assertThat(this.reactiveClient.getHelloSync("sync"))
+				.isEqualTo(new Hello("hello sync"));
+	}
+
+	@FeignClient(name = "reactiveclient", url = "http://localhost:${server.port}")
+	protected interface ReactiveClient {
+
+		@GetMapping("/hello")
+		Mono<Hello> getHello(@RequestParam("name") String name);
+
+		@GetMapping("/hello")
+		Flux<Hello> getHelloAsFlux(@RequestParam("name") String name);
+
+		@GetMapping("/hello")
+		Hello getHelloSync(@RequestParam("name") String name);
+
+		@GetMapping("/hellos")
+		Flux<Hello> getHellos(@RequestParam("count") int count);
+
+		@GetMapping("/missing")
+		Mono<Hello> getMissing();
+
+		@GetMapping("/missing")
+		Flux<Hello> getMissingHellos();
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = ReactiveClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class TestConfig {
+
+		@GetMapping("/hello")
+		public Hello getHello(@RequestParam("name") String name) {
+			helloRequests.incrementAndGet();
+			return new Hello("hello " + name);
+		}
+
+		@GetMapping("/hellos")
+		public List<Hello> getHellos(@RequestParam("count") int count) {
+			List<Hello> hellos = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				hellos.add(new Hello("hello " + i));
+			}
+			return hellos;
+		}
+
+	}
+
+	public static class Hello {
+
+		private String message;
+
+		public Hello() {
+		}
+
+		public Hello(String message) {
+			this.message = message;
+		}
+
+		public String getMessage() {
+			return this.message;
+		}
+
+		public void setMessage(String message) {
+			this.message = message;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Hello that = (Hello) o;
+			return Objects.equals(this.message, that.message);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.message);
+		}
+
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.FeignClientProperties.FeignClientConfiguration;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties.AdaptivePool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveHttpClientConnectionManagerTests {
+
+	private final HttpRoute route = new HttpRoute(
+			new HttpHost("localhost", 8080, "http"));
+
+	private final PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager();
+
+	private final AdaptivePool properties = new AdaptivePool();
+
+	private final FeignClientProperties clientProperties = new FeignClientProperties();
+
+	private AdaptiveHttpClientConnectionManager connectionManager;
+
+	@Before
+	public void setUp() {
+		this.pool.setMaxTotal(200);
+		this.pool.setDefaultMaxPerRoute(2);
+		this.properties.setMinConnectionsPerRoute(1);
+		// only pending requests make routes grow in these tests
+		this.properties.setLeaseWaitThreshold(60000);
+		this.connectionManager = new AdaptiveHttpClientConnectionManager(this.pool,
+				this.properties, this.clientProperties);
+	}
+
+	@After
+	public void tearDown() {
+		this.connectionManager.shutdown();
+	}
+
+	@Test
+	public void growsRouteWithPendingRequests() throws Exception {
+		HttpClientConnection first = lease();
+		HttpClientConnection second = lease();
+		CompletableFuture<HttpClientConnection> third = CompletableFuture
+				.supplyAsync(this::lease);
+		while (this.pool.getStats(this.route).getPending() == 0) {
+			Thread.sleep(10);
+		}
+
+		this.connectionManager.resize();
+		// waiting requests are served from the larger pool once a connection is
+		// released
+		this.connectionManager.releaseConnection(first, null, 0, TimeUnit.SECONDS);
+
+		assertThat(this.pool.getMaxPerRoute(this.route)).isEqualTo(3);
+		assertThat(third.get(5, TimeUnit.SECONDS)).isNotNull();
+		assertThat(this.connectionManager.getRouteStats().get(this.route).getLeased())
+				.isEqualTo(2);
+		this.connectionManager.releaseConnection(second, null, 0, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void shrinksIdleRouteDownToMinimum() {
+		this.pool.setDefaultMaxPerRoute(50);
+		this.properties.setMinConnectionsPerRoute(40);
+		this.connectionManager.releaseConnection(lease(), null, 0, TimeUnit.SECONDS);
+
+		this.connectionManager.resize();
+		assertThat(this.pool.getMaxPerRoute(this.route)).isEqualTo(44);
+
+		this.connectionManager.resize();
+		assertThat(this.pool.getMaxPerRoute(this.route)).isEqualTo(40);
+	}
+
+	@Test
+	public void clientLimitBoundsItsRoutes() throws Exception {
+		this.pool.setDefaultMaxPerRoute(50);
+		FeignClientConfiguration config = new FeignClientConfiguration();
+		config.setMaxConnectionsPerRoute(5);
+		this.clientProperties.setConfig(Collections.singletonMap("foo", config));
+		Client client = AdaptiveHttpClientConnectionManager.decorate(
+				(request, options) -> Response.builder().status(200).request(request)
+						.build(),
+				this.connectionManager);
+
+		client.execute(request("foo"), new Request.Options());
+		HttpClientConnection connection = lease();
+
+		assertThat(this.pool.getMaxPerRoute(this.route)).isEqualTo(5);
+		this.connectionManager.resize();
+		assertThat(this.pool.getMaxPerRoute(this.route)).isEqualTo(4);
+		this.connectionManager.releaseConnection(connection, null, 0, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void changedClientLimitAppliesToExistingRoutes() throws Exception {
+		this.pool.setDefaultMaxPerRoute(50);
+		FeignClientConfiguration config = new FeignClientConfiguration();
+		config.setMaxConnectionsPerRoute(5);
+		this.clientProperties.setConfig(Collections.singletonMap("foo", config));
+		Client client = AdaptiveHttpClientConnectionManager.decorate(
+				(request, options) -> Response.builder().status(200).request(request)
+						.build(),
+				this.connectionManager);
+		client.execute(request("foo"), new Request.Options());
+		this.connectionManager.releaseConnection(lease(), null, 0, TimeUnit.SECONDS);
+		assertThat(this.pool.getMaxPerRoute(this.route)).isEqualTo(5);
+
+		config.setMaxConnectionsPerRoute(3);
+		client.execute(request("foo"), new Request.Options());
+
+		assertThat(this.pool.getMaxPerRoute(this.route)).isEqualTo(3);
+	}
+
+	@Test
+	public void clientLimitIsLookedUpByContextId() throws Exception {
+		this.pool.setDefaultMaxPerRoute(50);
+		FeignClientConfiguration config = new FeignClientConfiguration();
+		config.setMaxConnectionsPerRoute(5);
+		this.clientProperties.setConfig(Collections.singletonMap("fooContext", config));
+		Client client = AdaptiveHttpClientConnectionManager.decorate(
+				AdaptiveHttpClientConnectionManager.decorate(
+						(request, options) -> Response.builder().status(200)
+								.request(request).build(),
+						this.connectionManager),
+				this.connectionManager, "fooContext");
+
+		client.execute(request("foo"), new Request.Options());
+		this.connectionManager.releaseConnection(lease(), null, 0, TimeUnit.SECONDS);
+
+		assertThat(this.pool.getMaxPerRoute(this.route)).isEqualTo(5);
+	}
+
+	@Test
+	public void hostsWithoutParsableNameAreNotTracked() throws Exception {
+		FeignClientConfiguration config = new FeignClientConfiguration();
+		config.setMaxConnectionsPerRoute(5);
+		this.clientProperties.setConfig(Collections.singletonMap("foo", config));
+		Client client = AdaptiveHttpClientConnectionManager.decorate(
+				(request, options) -> Response.builder().status(200).request(request)
+						.build(),
+				this.connectionManager);
+
+		Response response = client.execute(
+				request("foo", "http://foo_service:8080/hello"), new Request.Options());
+
+		assertThat(response.status()).isEqualTo(200);
+		assertThat(this.connectionManager.getRouteStats()).isEmpty();
+	}
+
+	private HttpClientConnection lease() {
+		try {
+			return this.connectionManager.requestConnection(this.route, null).get(5,
+					TimeUnit.SECONDS);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private Request request(String name) {
+		return request(name, "http://localhost:8080/hello");
+	}
+
+	private Request request(String name, String url) {
+		RequestTemplate template = new RequestTemplate();
+		template.feignTarget(new Target.HardCodedTarget<>(Object.class, name,
+				"http://localhost:8080"));
+		return Request.create(Request.HttpMethod.GET, url, Collections.emptyMap(),
+				Request.Body.empty(), template);
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class IdleConnectionReaperTests {
+
+	private final IdleConnectionReaper reaper = new IdleConnectionReaper();
+
+	private final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+
+	private ServerSocket server;
+
+	@Before
+	public void setUp() throws Exception {
+		this.server = new ServerSocket(0);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.reaper.destroy();
+		this.connectionManager.shutdown();
+		this.server.close();
+	}
+
+	@Test
+	public void closesIdleConnections() throws Exception {
+		openIdleConnection();
+		Thread.sleep(20);
+
+		this.reaper.reap(this.connectionManager, 10);
+
+		assertThat(this.connectionManager.getTotalStats().getAvailable()).isZero();
+		assertThat(this.reaper.getReapedConnections()).isEqualTo(1);
+	}
+
+	@Test
+	public void keepsConnectionsWhenIdleTimeoutIsNegative() throws Exception {
+		openIdleConnection();
+		Thread.sleep(20);
+
+		this.reaper.reap(this.connectionManager, -1);
+
+		assertThat(this.connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+		assertThat(this.reaper.getReapedConnections()).isZero();
+	}
+
+	@Test
+	public void visitsRegisteredConnectionManagersUntilUnregistered() throws Exception {
+		openIdleConnection();
+
+		this.reaper.register(this.connectionManager, 50, 0);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (this.reaper.getReapedConnections() == 0
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(this.reaper.getReapedConnections()).isEqualTo(1);
+
+		this.reaper.unregister(this.connectionManager);
+		openIdleConnection();
+		Thread.sleep(200);
+		assertThat(this.connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+	}
+
+	@Test
+	public void periodMustBePositive() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.reaper.register(this.connectionManager, 0, 0));
+	}
+
+	private void openIdleConnection() throws Exception {
+		HttpRoute route = new HttpRoute(
+				new HttpHost("localhost", this.server.getLocalPort()));
+		HttpClientConnection connection = this.connectionManager
+				.requestConnection(route, null).get(5, TimeUnit.SECONDS);
+		this.connectionManager.connect(connection, route, 1000, new BasicHttpContext());
+		this.connectionManager.routeComplete(connection, route, new BasicHttpContext());
+		this.connectionManager.releaseConnection(connection, null, 1, TimeUnit.MINUTES);
+	}
+
+}
@@ -33,6 +33,7 @@ import org.springframework.cloud.netflix.ribbon.RibbonClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.cloud.openfeign.encoding.app.client.InvoiceClient;
 import org.springframework.cloud.openfeign.encoding.app.domain.Invoice;
+import org.springframework.cloud.openfeign.encoding.app.resource.DecompressingRequestFilter;
 import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -64,7 +65,7 @@ public class FeignContentEncodingTests {
 	public void compressedResponse() {
 
 		// given
-		final List<Invoice> invoices = Invoices.createInvoiceList(50);
+		final List<Invoice> invoices = Invoices.createInvoiceList(100);
 
 		// when
 		final ResponseEntity<List<Invoice>> response = this.invoiceClient
@@ -75,6 +76,8 @@ public class FeignContentEncodingTests {
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 		assertThat(response.getBody()).isNotNull();
 		assertThat(response.getBody().size()).isEqualTo(invoices.size());
+		assertThat(DecompressingRequestFilter.getLastContentEncoding())
+				.isEqualTo(HttpEncoding.GZIP_ENCODING);
 
 	}
 
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.encoding;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import feign.RequestTemplate;
+import org.junit.Test;
+
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FeignContentGzipEncodingInterceptorTests {
+
+	private final byte[] body = new String(new char[4096]).replace('\0', 'a')
+			.getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void compressesLargeBodiesWithGzip() throws IOException {
+		RequestTemplate template = template(this.body);
+
+		new FeignContentGzipEncodingInterceptor(new FeignClientEncodingProperties())
+				.apply(template);
+
+		assertThat(template.headers().get(HttpEncoding.CONTENT_ENCODING_HEADER))
+				.containsExactly(HttpEncoding.GZIP_ENCODING);
+		assertThat(template.body().length).isLessThan(this.body.length);
+		assertThat(template.headers().get(HttpEncoding.CONTENT_LENGTH))
+				.containsExactly(String.valueOf(template.body().length));
+		assertThat(decompress(
+				new GZIPInputStream(new ByteArrayInputStream(template.body()))))
+						.isEqualTo(this.body);
+	}
+
+	@Test
+	public void compressesWithConfiguredDeflateEncoding() throws IOException {
+		FeignClientEncodingProperties properties = new FeignClientEncodingProperties();
+		properties.setEncoding(HttpEncoding.DEFLATE_ENCODING);
+		properties.setLevel(9);
+		RequestTemplate template = template(this.body);
+
+		new FeignContentGzipEncodingInterceptor(properties).apply(template);
+
+		assertThat(template.headers().get(HttpEncoding.CONTENT_ENCODING_HEADER))
+				.containsExactly(HttpEncoding.DEFLATE_ENCODING);
+		assertThat(decompress(
+				new InflaterInputStream(new ByteArrayInputStream(template.body()))))
+						.isEqualTo(this.body);
+	}
+
+	@Test
+	public void doesNotCompressTwice() throws IOException {
+		RequestTemplate template = template(this.body);
+		FeignContentGzipEncodingInterceptor interceptor = new FeignContentGzipEncodingInterceptor(
+				new FeignClientEncodingProperties());
+
+		interceptor.apply(template);
+		interceptor.apply(template);
+
+		assertThat(decompress(
+				new GZIPInputStream(new ByteArrayInputStream(template.body()))))
+						.isEqualTo(this.body);
+	}
+
+	@Test
+	public void doesNotCompressSmallBodies() {
+		byte[] small = "small".getBytes(StandardCharsets.UTF_8);
+		RequestTemplate template = template(small);
+
+		new FeignContentGzipEncodingInterceptor(new FeignClientEncodingProperties())
+				.apply(template);
+
+		assertThat(template.headers())
+				.doesNotContainKey(HttpEncoding.CONTENT_ENCODING_HEADER);
+		assertThat(template.body()).isEqualTo(small);
+	}
+
+	@Test
+	public void matchesMimeTypeIgnoringParameters() {
+		RequestTemplate template = template(this.body,
+				"application/json;charset=UTF-8");
+
+		new FeignContentGzipEncodingInterceptor(new FeignClientEncodingProperties())
+				.apply(template);
+
+		assertThat(template.headers().get(HttpEncoding.CONTENT_ENCODING_HEADER))
+				.containsExactly(HttpEncoding.GZIP_ENCODING);
+	}
+
+	@Test
+	public void matchesWildcardMimeTypes() {
+		FeignClientEncodingProperties properties = new FeignClientEncodingProperties();
+		properties.setMimeTypes(new String[] { "application/*+json", "text/*" });
+		FeignContentGzipEncodingInterceptor interceptor = new FeignContentGzipEncodingInterceptor(
+				properties);
+
+		assertThat(interceptor.matchesMimeType("application/hal+json")).isTrue();
+		assertThat(interceptor.matchesMimeType("text/plain; charset=UTF-8")).isTrue();
+		assertThat(interceptor.matchesMimeType("application/json")).isFalse();
+		assertThat(interceptor.matchesMimeType("application/xml")).isFalse();
+		assertThat(interceptor.matchesMimeType("not a mime type")).isFalse();
+	}
+
+	@Test
+	public void matchesEverythingWithoutMimeTypes() {
+		FeignClientEncodingProperties properties = new FeignClientEncodingProperties();
+		properties.setMimeTypes(new String[0]);
+
+		assertThat(new FeignContentGzipEncodingInterceptor(properties)
+				.matchesMimeType("application/octet-stream")).isTrue();
+	}
+
+	private static RequestTemplate template(byte[] body) {
+		return template(body, "application/json");
+	}
+
+	private static RequestTemplate template(byte[] body, String contentType) {
+		RequestTemplate template = new RequestTemplate();
+		template.header(HttpEncoding.CONTENT_TYPE, contentType);
+		template.body(body, StandardCharsets.UTF_8);
+		return template;
+	}
+
+	private static byte[] decompress(InputStream input) throws IOException {
+		try (InputStream in = input) {
+			return StreamUtils.copyToByteArray(in);
+		}
+	}
+
+}
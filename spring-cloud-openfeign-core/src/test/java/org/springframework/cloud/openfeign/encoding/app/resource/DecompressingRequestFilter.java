@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.encoding.app.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.cloud.openfeign.encoding.HttpEncoding;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Decompresses request bodies sent with a {@code Content-Encoding} header, since the
+ * servlet container does not do so on its own - used for testing.
+ */
+@Component
+public class DecompressingRequestFilter extends OncePerRequestFilter {
+
+	private static volatile String lastContentEncoding;
+
+	public static String getLastContentEncoding() {
+		return lastContentEncoding;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request,
+			HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String encoding = request.getHeader(HttpEncoding.CONTENT_ENCODING_HEADER);
+		lastContentEncoding = encoding;
+		if (HttpEncoding.GZIP_ENCODING.equals(encoding)
+				|| HttpEncoding.DEFLATE_ENCODING.equals(encoding)) {
+			InputStream body = HttpEncoding.GZIP_ENCODING.equals(encoding)
+					? new GZIPInputStream(request.getInputStream())
+					: new InflaterInputStream(request.getInputStream());
+			request = new DecompressedRequest(request, body);
+		}
+		filterChain.doFilter(request, response);
+	}
+
+	private static final class DecompressedRequest extends HttpServletRequestWrapper {
+
+		private final InputStream body;
+
+		private DecompressedRequest(HttpServletRequest request, InputStream body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public int getContentLength() {
+			return -1;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return -1;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			return new ServletInputStream() {
+				@Override
+				public int read() throws IOException {
+					return DecompressedRequest.this.body.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException {
+					return DecompressedRequest.this.body.read(b, off, len);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return false;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener listener) {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+	}
+
+}
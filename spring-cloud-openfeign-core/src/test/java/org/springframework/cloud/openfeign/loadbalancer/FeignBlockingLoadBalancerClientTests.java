@@ -19,10 +19,12 @@ package org.springframework.cloud.openfeign.loadbalancer;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import feign.Client;
 import feign.Request;
@@ -40,9 +42,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -124,6 +129,75 @@ class FeignBlockingLoadBalancerClientTests {
 		assertThat(new String(actualRequest.body())).isEqualTo("hello");
 	}
 
+	@Test
+	void shouldRecordOutcomeWithLatencyAwareChooser() throws IOException {
+		LatencyAwareServiceInstanceChooser chooser = mock(
+				LatencyAwareServiceInstanceChooser.class);
+		LatencyAwareServiceInstanceChooser stats = new LatencyAwareServiceInstanceChooser(
+				null, null, 10000);
+		ServiceInstance serviceInstance = new DefaultServiceInstance("test-1", "test",
+				"test-host", 8888, false);
+		when(chooser.choose("test")).thenReturn(serviceInstance);
+		when(chooser.getStats("test", serviceInstance))
+				.thenReturn(stats.getStats("test", serviceInstance));
+		when(loadBalancerClient.reconstructURI(serviceInstance,
+				URI.create("http://test/path")))
+						.thenReturn(URI.create("http://test-host:8888/path"));
+		when(delegate.execute(any(), any())).thenThrow(new IOException("test"));
+		FeignBlockingLoadBalancerClient client = new FeignBlockingLoadBalancerClient(
+				delegate, loadBalancerClient, chooser);
+
+		assertThatIOException().isThrownBy(() -> client.execute(testRequest(),
+				new Request.Options(1, TimeUnit.SECONDS, 3, TimeUnit.SECONDS, true)));
+
+		assertThat(stats.getStats("test", serviceInstance).getInFlight()).isZero();
+		assertThat(stats.getStats("test", serviceInstance).getLatency())
+				.isGreaterThan(2900);
+		verify(loadBalancerClient, never()).choose("test");
+	}
+
+	@Test
+	void shouldPreferSlowerHealthyInstanceToFastFailingOne() throws IOException {
+		LatencyAwareServiceInstanceChooser chooser = mock(
+				LatencyAwareServiceInstanceChooser.class);
+		LatencyAwareServiceInstanceChooser stats = new LatencyAwareServiceInstanceChooser(
+				null, null, 10000);
+		ServiceInstance failing = new DefaultServiceInstance("test-1", "test",
+				"failing-host", 8888, false);
+		ServiceInstance healthy = new DefaultServiceInstance("test-2", "test",
+				"healthy-host", 8888, false);
+		when(chooser.choose("test")).thenReturn(failing, healthy);
+		when(chooser.getStats(eq("test"), any())).thenAnswer(
+				invocation -> stats.getStats("test", invocation.getArgument(1)));
+		when(loadBalancerClient.reconstructURI(any(), eq(URI.create("http://test/path"))))
+				.thenAnswer(invocation -> URI.create("http://"
+						+ invocation.<ServiceInstance>getArgument(0).getHost()
+						+ ":8888/path"));
+		when(delegate.execute(any(), any())).thenAnswer(invocation -> {
+			Request request = invocation.getArgument(0);
+			if (request.url().contains("failing-host")) {
+				return Response.builder().request(request)
+						.status(HttpStatus.SERVICE_UNAVAILABLE.value()).build();
+			}
+			Thread.sleep(20);
+			return Response.builder().request(request).status(HttpStatus.OK.value())
+					.build();
+		});
+		FeignBlockingLoadBalancerClient client = new FeignBlockingLoadBalancerClient(
+				delegate, loadBalancerClient, chooser);
+		Request.Options options = new Request.Options(1, TimeUnit.SECONDS, 3,
+				TimeUnit.SECONDS, true);
+
+		assertThat(client.execute(testRequest(), options).status())
+				.isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+		assertThat(client.execute(testRequest(), options).status())
+				.isEqualTo(HttpStatus.OK.value());
+
+		assertThat(stats.getStats("test", failing).getLatency()).isGreaterThan(2900);
+		assertThat(stats.choose("test", Arrays.asList(failing, healthy)))
+				.isSameAs(healthy);
+	}
+
 	private Request testRequest() {
 		return testRequest("test");
 	}
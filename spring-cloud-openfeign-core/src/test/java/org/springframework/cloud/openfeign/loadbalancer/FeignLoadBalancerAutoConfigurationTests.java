@@ -70,6 +70,22 @@ class FeignLoadBalancerAutoConfigurationTests {
 		assertThatBeanNotPresent(context, LoadBalancerFeignClient.class);
 	}
 
+	@Test
+	void shouldInstantiateLatencyAwareChooserWhenEnabled() {
+		ConfigurableApplicationContext context = initContext(
+				"spring.cloud.loadbalancer.ribbon.enabled=false",
+				"feign.client.load-balancing.latency-aware=true");
+		assertThatOneBeanPresent(context, LatencyAwareServiceInstanceChooser.class);
+		assertLoadBalanced(context, ApacheHttpClient.class);
+	}
+
+	@Test
+	void shouldNotInstantiateLatencyAwareChooserByDefault() {
+		ConfigurableApplicationContext context = initContext(
+				"spring.cloud.loadbalancer.ribbon.enabled=false");
+		assertThatBeanNotPresent(context, LatencyAwareServiceInstanceChooser.class);
+	}
+
 	@Test
 	void shouldNotProcessLoadBalancerConfigurationWhenRibbonEnabled() {
 		ConfigurableApplicationContext context = initContext(
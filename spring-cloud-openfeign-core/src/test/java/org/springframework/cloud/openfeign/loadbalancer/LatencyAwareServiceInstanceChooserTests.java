@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.loadbalancer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.ServiceInstanceChooser;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.LatencyAwareServiceInstanceChooser.InstanceStats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link LatencyAwareServiceInstanceChooser}.
+ */
+class LatencyAwareServiceInstanceChooserTests {
+
+	private final LoadBalancerClientFactory loadBalancerClientFactory = mock(
+			LoadBalancerClientFactory.class);
+
+	private final ServiceInstanceChooser delegate = mock(ServiceInstanceChooser.class);
+
+	private final LatencyAwareServiceInstanceChooser chooser = new LatencyAwareServiceInstanceChooser(
+			loadBalancerClientFactory, delegate, 10000);
+
+	private final ServiceInstance fast = new DefaultServiceInstance("test-1", "test",
+			"fast-host", 8080, false);
+
+	private final ServiceInstance slow = new DefaultServiceInstance("test-2", "test",
+			"slow-host", 8080, false);
+
+	@Test
+	void shouldChooseInstanceWithLowerLatency() {
+		record(fast, 2);
+		record(slow, 200);
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(chooser.choose("test", Arrays.asList(fast, slow))).isSameAs(fast);
+		}
+	}
+
+	@Test
+	void shouldWeighLatencyByRequestsInFlight() {
+		record(fast, 20);
+		record(slow, 50);
+		InstanceStats stats = chooser.getStats("test", fast);
+		for (int i = 0; i < 3; i++) {
+			stats.start();
+		}
+
+		assertThat(chooser.choose("test", Arrays.asList(fast, slow))).isSameAs(slow);
+	}
+
+	@Test
+	void shouldSendOneRequestAtATimeToNewInstance() {
+		record(slow, 200);
+		chooser.getStats("test", fast).start();
+
+		assertThat(chooser.choose("test", Arrays.asList(fast, slow))).isSameAs(slow);
+	}
+
+	@Test
+	void shouldRaiseLatencyAtOnceAndLowerItGradually() {
+		record(fast, 10);
+		record(fast, 100);
+
+		assertThat(chooser.getStats("test", fast).getLatency()).isCloseTo(100,
+				within(10.0));
+
+		record(fast, 10);
+
+		assertThat(chooser.getStats("test", fast).getLatency()).isGreaterThan(50);
+	}
+
+	@Test
+	void shouldForgetLatencyAfterDecayTime() throws InterruptedException {
+		LatencyAwareServiceInstanceChooser chooser = new LatencyAwareServiceInstanceChooser(
+				loadBalancerClientFactory, delegate, 1);
+		InstanceStats stats = chooser.getStats("test", slow);
+		stats.complete(stats.start() - TimeUnit.MILLISECONDS.toNanos(500));
+
+		Thread.sleep(50);
+
+		assertThat(stats.getLatency()).isLessThan(1);
+	}
+
+	@Test
+	void shouldRecordFailureAsPenaltyLatency() {
+		InstanceStats stats = chooser.getStats("test", slow);
+		stats.fail(stats.start(), TimeUnit.SECONDS.toNanos(2));
+
+		assertThat(stats.getInFlight()).isZero();
+		assertThat(stats.getLatency()).isCloseTo(2000, within(50.0));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void shouldChooseAmongInstancesOfSupplier() {
+		ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+		when(supplier.get()).thenReturn(Flux.just(Arrays.asList(fast, slow)));
+		ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(supplier);
+		when(loadBalancerClientFactory.getLazyProvider("test",
+				ServiceInstanceListSupplier.class)).thenReturn(provider);
+		record(fast, 2);
+		record(slow, 200);
+
+		assertThat(chooser.choose("test")).isSameAs(fast);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void shouldFallBackToDelegateWithoutSupplier() {
+		ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+		when(loadBalancerClientFactory.getLazyProvider("test",
+				ServiceInstanceListSupplier.class)).thenReturn(provider);
+		when(delegate.choose("test")).thenReturn(slow);
+
+		assertThat(chooser.choose("test")).isSameAs(slow);
+	}
+
+	@Test
+	void shouldKeyStatsByRequestedServiceId() {
+		// Eureka reports the ids of services in upper case
+		ServiceInstance fast = new DefaultServiceInstance("test-1", "TEST", "fast", 80,
+				false);
+		ServiceInstance slow = new DefaultServiceInstance("test-2", "TEST", "slow", 80,
+				false);
+		record(fast, 2);
+		record(slow, 200);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(chooser.choose("test", Arrays.asList(fast, slow))).isSameAs(fast);
+		}
+	}
+
+	@Test
+	void shouldReturnNullWithoutInstances() {
+		List<ServiceInstance> instances = Arrays.asList();
+
+		assertThat(chooser.choose("test", instances)).isNull();
+	}
+
+	private void record(ServiceInstance instance, long latency) {
+		InstanceStats stats = chooser.getStats("test", instance);
+		stats.complete(stats.start() - TimeUnit.MILLISECONDS.toNanos(latency));
+	}
+
+}
@@ -16,6 +16,14 @@
 
 package org.springframework.cloud.openfeign.ribbon;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import com.netflix.client.config.CommonClientConfigKey;
 import com.netflix.client.config.DefaultClientConfigImpl;
 import com.netflix.client.config.IClientConfig;
@@ -28,6 +36,7 @@ import org.springframework.cloud.netflix.ribbon.RibbonLoadBalancedRetryFactory;
 import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -79,6 +88,67 @@ public class CachingSpringLoadBalancerFactoryTests {
 		verify(this.delegate, times(1)).getClientConfig("client2");
 	}
 
+	@Test
+	public void concurrentCreatesBuildOnce() throws Exception {
+		int threads = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		FeignLoadBalancer first;
+		try {
+			List<Future<FeignLoadBalancer>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return this.factory.create("client1");
+				}));
+			}
+			start.countDown();
+			first = results.get(0).get();
+			for (Future<FeignLoadBalancer> result : results) {
+				assertThat(result.get()).isSameAs(first);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		verify(this.delegate, times(1)).getClientConfig("client1");
+		assertThat(this.factory.getBuilds()).isEqualTo(1);
+		assertThat(this.factory.getCacheMisses()).isEqualTo(1);
+		assertThat(this.factory.getCacheHits() + this.factory.getCacheMisses())
+				.isEqualTo(threads);
+		assertThat(this.factory.create("client1")).isSameAs(first);
+	}
+
+	@Test
+	public void failedBuildIsTriedAgain() {
+		IClientConfig config = new DefaultClientConfigImpl();
+		config.set(CommonClientConfigKey.ConnectTimeout, 1000);
+		config.set(CommonClientConfigKey.ReadTimeout, 500);
+		when(this.delegate.getClientConfig("client3"))
+				.thenThrow(new IllegalStateException("unavailable"))
+				.thenReturn(config);
+
+		assertThatThrownBy(() -> this.factory.create("client3"))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(this.factory.create("client3")).isNotNull();
+		assertThat(this.factory.getBuilds()).isEqualTo(2);
+	}
+
+	@Test
+	public void warmUpCreatesConfiguredClients() {
+		this.factory.setWarmUpClients(Arrays.asList("client1", "client2"));
+
+		this.factory.afterSingletonsInstantiated();
+
+		verify(this.delegate, times(1)).getClientConfig("client1");
+		verify(this.delegate, times(1)).getClientConfig("client2");
+		assertThat(this.factory.getBuilds()).isEqualTo(2);
+
+		this.factory.create("client1");
+		assertThat(this.factory.getCacheHits()).isEqualTo(1);
+	}
+
 	@Test
 	public void delegateCreatesWithNoRetry() {
 		IClientConfig config = new DefaultClientConfigImpl();
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.ribbon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.retry.backoff.BackOffContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DecorrelatedJitterBackOffPolicyTests {
+
+	@Test
+	public void backOffsStayBetweenInitialAndMaximum() {
+		List<Long> sleeps = new ArrayList<>();
+		DecorrelatedJitterBackOffPolicy policy = new DecorrelatedJitterBackOffPolicy(10,
+				200).withSleeper(sleeps::add);
+		BackOffContext context = policy.start(null);
+
+		for (int i = 0; i < 100; i++) {
+			policy.backOff(context);
+		}
+
+		assertThat(sleeps).allSatisfy(sleep -> assertThat(sleep).isBetween(10L, 200L));
+		assertThat(sleeps.get(0)).isLessThanOrEqualTo(30);
+	}
+
+	@Test
+	public void backOffIsAtMostThreeTimesPrevious() {
+		DecorrelatedJitterBackOffPolicy policy = new DecorrelatedJitterBackOffPolicy(10,
+				1000);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(policy.nextBackOff(40)).isBetween(10L, 120L);
+		}
+		assertThat(policy.nextBackOff(1000)).isBetween(10L, 1000L);
+	}
+
+}
@@ -172,6 +172,25 @@ public class FeignLoadBalancerTests {
 
 	}
 
+	@Test
+	public void testRibbonRequestIsOnlyRebuiltWhenUriChanges() throws Exception {
+		Request request = Request.create(GET, "https://foo/bar", new HashMap<>(), null,
+				null, null);
+		RibbonRequest ribbonRequest = new RibbonRequest(this.delegate, request,
+				new URI(request.url()));
+
+		assertThat(ribbonRequest.toRequest()).isSameAs(request);
+		assertThat(ribbonRequest.toRequest()).isSameAs(ribbonRequest.toRequest());
+
+		RibbonRequest replaced = (RibbonRequest) ribbonRequest
+				.replaceUri(new URI("https://foo:8000/bar"));
+		Request replacedRequest = replaced.toRequest();
+
+		assertThat(replacedRequest.url()).isEqualTo("https://foo:8000/bar");
+		assertThat(replaced.toRequest()).isSameAs(replacedRequest);
+		assertThat(ribbonRequest.toRequest()).isSameAs(request);
+	}
+
 	@Test
 	public void testOverrideFeignLoadBalancer() throws Exception {
 		when(this.config.get(IsSecure)).thenReturn(false);
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.openfeign.ribbon;
 
+import java.net.URI;
 import java.util.HashMap;
 
 import com.netflix.client.config.CommonClientConfigKey;
@@ -39,6 +40,7 @@ import org.springframework.cloud.netflix.ribbon.ServerIntrospector;
 import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
 
 import static feign.Request.HttpMethod.GET;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -123,6 +125,24 @@ public class FeignRibbonClientTests {
 		verify(this.delegate).execute(argThat(matcher), any(Options.class));
 	}
 
+	@Test
+	public void extractsHostWithoutParsingUri() {
+		assertThat(LoadBalancerFeignClient.getHost("http://foo")).isEqualTo("foo");
+		assertThat(LoadBalancerFeignClient.getHost("https://foo.bar:8080/baz?q=1"))
+				.isEqualTo("foo.bar");
+		assertThat(LoadBalancerFeignClient.getHost("http://foo?q=1")).isEqualTo("foo");
+		assertThat(LoadBalancerFeignClient.getHost("http://user@foo/bar"))
+				.isEqualTo("foo");
+	}
+
+	@Test
+	public void cleanUrlKeepsPathAndQuery() {
+		assertThat(LoadBalancerFeignClient.cleanUrl("https://foo", "foo"))
+				.isEqualTo(URI.create("https:///"));
+		assertThat(LoadBalancerFeignClient.cleanUrl("http://foo/a/b?c=d", "foo"))
+				.isEqualTo(URI.create("http:///a/b?c=d"));
+	}
+
 	@Test
 	public void remoteRequestIsSecure() throws Exception {
 		Request request = new RequestTemplate().method(GET).target("https://foo/")
@@ -21,6 +21,7 @@ import java.lang.reflect.Field;
 import javax.net.ssl.HostnameVerifier;
 
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -44,7 +45,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 		classes = FeignRibbonOkHttpClientConfigurationTests.FeignRibbonOkHttpClientConfigurationTestsApplication.class,
 		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
 		properties = { "debug=true", "feign.httpclient.disableSslValidation=true",
-				"feign.okhttp.enabled=true", "feign.httpclient.enabled=false" })
+				"feign.okhttp.enabled=true", "feign.httpclient.enabled=false",
+				"feign.httpclient.ok-http.protocols=HTTP_1_1" })
 @DirtiesContext
 public class FeignRibbonOkHttpClientConfigurationTests {
 
@@ -60,6 +62,11 @@ public class FeignRibbonOkHttpClientConfigurationTests {
 						.isTrue();
 	}
 
+	@Test
+	public void protocolsTest() {
+		assertThat(this.httpClient.protocols()).containsExactly(Protocol.HTTP_1_1);
+	}
+
 	protected <T> Object getField(Object target, String name) {
 		Field field = ReflectionUtils.findField(target.getClass(), name);
 		ReflectionUtils.makeAccessible(field);
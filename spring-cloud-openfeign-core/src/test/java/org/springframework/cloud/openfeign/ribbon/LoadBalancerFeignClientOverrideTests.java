@@ -73,6 +73,22 @@ public class LoadBalancerFeignClientOverrideTests {
 		assertOptions(bazOptions, "baz", 3001, 60001);
 	}
 
+	@Test
+	public void clientConfigIsSharedForSameOptions() {
+		Request.Options barOptions = this.context.getInstance("bar",
+				Request.Options.class);
+		LoadBalancerFeignClient client = this.context.getInstance("bar",
+				LoadBalancerFeignClient.class);
+
+		IClientConfig config = client.getClientConfig(barOptions, "bar");
+
+		assertThat(client.getClientConfig(new Request.Options(1, 2), "bar"))
+				.isSameAs(config);
+		assertThat(client.getClientConfig(new Request.Options(1, 3), "bar"))
+				.isNotSameAs(config);
+		assertThat(client.getClientConfig(barOptions, "other")).isNotSameAs(config);
+	}
+
 	void assertOptions(Request.Options options, String name, int expectedConnect,
 			int expectedRead) {
 		LoadBalancerFeignClient client = this.context.getInstance(name,
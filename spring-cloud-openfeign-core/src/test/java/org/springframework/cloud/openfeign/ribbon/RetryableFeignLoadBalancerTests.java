@@ -25,6 +25,7 @@ import java.net.URI;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.netflix.client.DefaultLoadBalancerRetryHandler;
 import com.netflix.client.RequestSpecificRetryHandler;
@@ -50,6 +51,8 @@ import org.springframework.cloud.netflix.ribbon.RibbonLoadBalancedRetryPolicy;
 import org.springframework.cloud.netflix.ribbon.RibbonLoadBalancerContext;
 import org.springframework.cloud.netflix.ribbon.ServerIntrospector;
 import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.support.RetryBudgets;
 import org.springframework.retry.RetryCallback;
 import org.springframework.retry.RetryContext;
 import org.springframework.retry.RetryListener;
@@ -57,6 +60,7 @@ import org.springframework.retry.TerminatedRetryException;
 import org.springframework.retry.backoff.BackOffContext;
 import org.springframework.retry.backoff.BackOffInterruptedException;
 import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.util.StreamUtils;
 
 import static com.netflix.client.config.CommonClientConfigKey.ConnectTimeout;
 import static com.netflix.client.config.CommonClientConfigKey.MaxAutoRetries;
@@ -68,6 +72,7 @@ import static com.netflix.client.config.DefaultClientConfigImpl.DEFAULT_MAX_AUTO
 import static feign.Request.HttpMethod.GET;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -187,6 +192,50 @@ public class RetryableFeignLoadBalancerTests {
 		}
 	}
 
+	@Test
+	public void retrySettingsAreResolvedOncePerClient() throws Exception {
+		Request feignRequest = Request.create(GET, "https://foo", new HashMap<>(),
+				new byte[] {}, UTF_8, null);
+		Client client = mock(Client.class);
+		Response response = Response.builder().status(200).request(feignRequest)
+				.headers(new HashMap<>()).build();
+		doReturn(response).when(client).execute(any(Request.class),
+				any(Request.Options.class));
+		AtomicInteger backOffPolicies = new AtomicInteger();
+		AtomicInteger retryListeners = new AtomicInteger();
+		RetryableFeignLoadBalancer feignLb = new RetryableFeignLoadBalancer(this.lb,
+				this.config, this.inspector, new LoadBalancedRetryFactory() {
+					@Override
+					public LoadBalancedRetryPolicy createRetryPolicy(String s,
+							ServiceInstanceChooser serviceInstanceChooser) {
+						return null;
+					}
+
+					@Override
+					public RetryListener[] createRetryListeners(String service) {
+						retryListeners.incrementAndGet();
+						return new RetryListener[] { new MyRetryListener() };
+					}
+
+					@Override
+					public BackOffPolicy createBackOffPolicy(String service) {
+						backOffPolicies.incrementAndGet();
+						return null;
+					}
+				});
+
+		for (int i = 0; i < 3; i++) {
+			FeignLoadBalancer.RibbonRequest request = new FeignLoadBalancer.RibbonRequest(
+					client, feignRequest, new URI("https://foo"));
+			assertThat(feignLb.execute(request, null).toResponse().status())
+					.isEqualTo(200);
+		}
+
+		verify(client, times(3)).execute(any(Request.class), any(Request.Options.class));
+		assertThat(backOffPolicies.get()).isEqualTo(1);
+		assertThat(retryListeners.get()).isEqualTo(1);
+	}
+
 	@Test
 	public void executeRetry() throws Exception {
 		RibbonLoadBalancerContext lbContext = new RibbonLoadBalancerContext(this.lb,
@@ -232,6 +281,60 @@ public class RetryableFeignLoadBalancerTests {
 		assertThat(backOffPolicy.getCount()).isEqualTo(1);
 	}
 
+	@Test
+	public void executeRetryLimitedByBudget() throws Exception {
+		RibbonLoadBalancerContext lbContext = new RibbonLoadBalancerContext(this.lb,
+				this.config);
+		SpringClientFactory clientFactory = mock(SpringClientFactory.class);
+		IClientConfig config = mock(IClientConfig.class);
+		doReturn(1).when(config).get(eq(CommonClientConfigKey.MaxAutoRetries), anyInt());
+		doReturn(1).when(config).get(eq(CommonClientConfigKey.MaxAutoRetriesNextServer),
+				anyInt());
+		doReturn(true).when(config)
+				.get(eq(CommonClientConfigKey.OkToRetryOnAllOperations), eq(false));
+		doReturn(this.defaultConnectTimeout).when(config)
+				.get(eq(CommonClientConfigKey.ConnectTimeout));
+		doReturn(this.defaultReadTimeout).when(config)
+				.get(eq(CommonClientConfigKey.ReadTimeout));
+		doReturn("").when(config).getPropertyAsString(
+				eq(RibbonLoadBalancedRetryPolicy.RETRYABLE_STATUS_CODES), eq(""));
+		doReturn(config).when(clientFactory).getClientConfig(eq("default"));
+		doReturn(lbContext).when(clientFactory).getLoadBalancerContext(any(String.class));
+		MyBackOffPolicy backOffPolicy = new MyBackOffPolicy();
+		RibbonLoadBalancedRetryFactory loadBalancedRetryFactory = new RibbonLoadBalancedRetryFactory(
+				clientFactory) {
+			@Override
+			public BackOffPolicy createBackOffPolicy(String service) {
+				return backOffPolicy;
+			}
+		};
+		Request feignRequest = Request.create(GET, "https://foo", new HashMap<>(),
+				new byte[] {}, UTF_8, null);
+		Client client = mock(Client.class);
+		FeignLoadBalancer.RibbonRequest request = new FeignLoadBalancer.RibbonRequest(
+				client, feignRequest, new URI("https://foo"));
+		doThrow(new IOException("boom")).when(client).execute(any(Request.class),
+				any(Request.Options.class));
+		FeignClientProperties.RetryBudget properties = new FeignClientProperties.RetryBudget();
+		properties.setPercentage(0);
+		properties.setBurst(1);
+		RetryBudgets retryBudgets = new RetryBudgets(properties);
+
+		RetryableFeignLoadBalancer feignLb = new RetryableFeignLoadBalancer(this.lb,
+				config, this.inspector, loadBalancedRetryFactory);
+		feignLb.setRetryBudgets(retryBudgets);
+
+		// the only token is spent on the first retry of the first request
+		assertThatThrownBy(() -> feignLb.execute(request, null))
+				.isInstanceOf(IOException.class);
+		verify(client, times(2)).execute(any(Request.class), any(Request.Options.class));
+		assertThatThrownBy(() -> feignLb.execute(request, null))
+				.isInstanceOf(IOException.class);
+		verify(client, times(3)).execute(any(Request.class), any(Request.Options.class));
+		assertThat(backOffPolicy.getCount()).isEqualTo(1);
+		assertThat(retryBudgets.getExhausted()).isEqualTo(2);
+	}
+
 	@Test
 	public void executeRetryOnStatusCode() throws Exception {
 		RibbonLoadBalancerContext lbContext = new RibbonLoadBalancerContext(this.lb,
@@ -278,6 +381,101 @@ public class RetryableFeignLoadBalancerTests {
 		assertThat(backOffPolicy.getCount()).isEqualTo(1);
 	}
 
+	@Test
+	public void executeRetryOnStatusCodeDoesNotCopyLargeBodies() throws Exception {
+		when(this.config.get(MaxAutoRetriesNextServer,
+				DEFAULT_MAX_AUTO_RETRIES_NEXT_SERVER)).thenReturn(0);
+		RibbonLoadBalancerContext lbContext = new RibbonLoadBalancerContext(this.lb,
+				this.config);
+		SpringClientFactory clientFactory = mock(SpringClientFactory.class);
+		IClientConfig config = mock(IClientConfig.class);
+		doReturn(1).when(config).get(eq(CommonClientConfigKey.MaxAutoRetries), anyInt());
+		doReturn(0).when(config)
+				.get(eq(CommonClientConfigKey.MaxAutoRetriesNextServer), anyInt());
+		doReturn(true).when(config)
+				.get(eq(CommonClientConfigKey.OkToRetryOnAllOperations), eq(false));
+		doReturn(this.defaultConnectTimeout).when(config)
+				.get(eq(CommonClientConfigKey.ConnectTimeout));
+		doReturn(this.defaultReadTimeout).when(config)
+				.get(eq(CommonClientConfigKey.ReadTimeout));
+		doReturn("503").when(config).getPropertyAsString(
+				eq(RibbonLoadBalancedRetryPolicy.RETRYABLE_STATUS_CODES), eq(""));
+		doReturn(4).when(config).getPropertyAsInteger(
+				eq(RetryableFeignLoadBalancer.RETRYABLE_BODY_BUFFER_SIZE), anyInt());
+		doReturn(config).when(clientFactory).getClientConfig(eq("default"));
+		doReturn(lbContext).when(clientFactory).getLoadBalancerContext(any(String.class));
+		RibbonLoadBalancedRetryFactory loadBalancedRetryFactory = new RibbonLoadBalancedRetryFactory(
+				clientFactory);
+		Request feignRequest = Request.create(GET, "https://foo", new HashMap<>(),
+				new byte[] {}, UTF_8, null);
+		Client client = mock(Client.class);
+		FeignLoadBalancer.RibbonRequest request = new FeignLoadBalancer.RibbonRequest(
+				client, feignRequest, new URI("https://foo"));
+		TrackingInputStream first = new TrackingInputStream("first error page");
+		TrackingInputStream last = new TrackingInputStream("last error page");
+		doReturn(Response.builder().request(feignRequest).status(503)
+				.headers(new HashMap<>()).body(first, null).build())
+						.doReturn(Response.builder().request(feignRequest).status(503)
+								.headers(new HashMap<>()).body(last, null).build())
+						.when(client)
+						.execute(any(Request.class), any(Request.Options.class));
+		RetryableFeignLoadBalancer feignLb = new RetryableFeignLoadBalancer(this.lb,
+				config, this.inspector, loadBalancedRetryFactory);
+
+		FeignLoadBalancer.RibbonResponse ribbonResponse = feignLb.execute(request, null);
+
+		verify(client, times(2)).execute(any(Request.class), any(Request.Options.class));
+		assertThat(first.closed).isTrue();
+		assertThat(last.closed).isFalse();
+		assertThat(StreamUtils.copyToString(
+				ribbonResponse.toResponse().body().asInputStream(), UTF_8))
+						.isEqualTo("last error page");
+	}
+
+	@Test
+	public void executeRetryOnStatusCodeBuffersSmallBodies() throws Exception {
+		RibbonLoadBalancerContext lbContext = new RibbonLoadBalancerContext(this.lb,
+				this.config);
+		SpringClientFactory clientFactory = mock(SpringClientFactory.class);
+		IClientConfig config = mock(IClientConfig.class);
+		doReturn(1).when(config).get(eq(CommonClientConfigKey.MaxAutoRetries), anyInt());
+		doReturn(1).when(config).get(eq(CommonClientConfigKey.MaxAutoRetriesNextServer),
+				anyInt());
+		doReturn(true).when(config)
+				.get(eq(CommonClientConfigKey.OkToRetryOnAllOperations), eq(false));
+		doReturn(this.defaultConnectTimeout).when(config)
+				.get(eq(CommonClientConfigKey.ConnectTimeout));
+		doReturn(this.defaultReadTimeout).when(config)
+				.get(eq(CommonClientConfigKey.ReadTimeout));
+		doReturn("503").when(config).getPropertyAsString(
+				eq(RibbonLoadBalancedRetryPolicy.RETRYABLE_STATUS_CODES), eq(""));
+		doReturn(64).when(config).getPropertyAsInteger(
+				eq(RetryableFeignLoadBalancer.RETRYABLE_BODY_BUFFER_SIZE), anyInt());
+		doReturn(config).when(clientFactory).getClientConfig(eq("default"));
+		doReturn(lbContext).when(clientFactory).getLoadBalancerContext(any(String.class));
+		RibbonLoadBalancedRetryFactory loadBalancedRetryFactory = new RibbonLoadBalancedRetryFactory(
+				clientFactory);
+		Request feignRequest = Request.create(GET, "https://foo", new HashMap<>(),
+				new byte[] {}, UTF_8, null);
+		Client client = mock(Client.class);
+		FeignLoadBalancer.RibbonRequest request = new FeignLoadBalancer.RibbonRequest(
+				client, feignRequest, new URI("https://foo"));
+		TrackingInputStream error = new TrackingInputStream("unavailable");
+		Response response = Response.builder().request(feignRequest).status(200)
+				.headers(new HashMap<>()).build();
+		doReturn(Response.builder().request(feignRequest).status(503)
+				.headers(new HashMap<>()).body(error, null).build()).doReturn(response)
+						.when(client)
+						.execute(any(Request.class), any(Request.Options.class));
+		RetryableFeignLoadBalancer feignLb = new RetryableFeignLoadBalancer(this.lb,
+				config, this.inspector, loadBalancedRetryFactory);
+
+		FeignLoadBalancer.RibbonResponse ribbonResponse = feignLb.execute(request, null);
+
+		assertThat(ribbonResponse.toResponse().status()).isEqualTo(200);
+		assertThat(error.closed).isTrue();
+	}
+
 	@Test
 	public void executeRetryOnStatusCodeWithEmptyBody() throws Exception {
 		int retriesNextServer = 0;
@@ -629,6 +827,22 @@ public class RetryableFeignLoadBalancerTests {
 		assertThat(new String(buf, 0, read)).isEqualTo("test");
 	}
 
+	static class TrackingInputStream extends ByteArrayInputStream {
+
+		private boolean closed;
+
+		TrackingInputStream(String content) {
+			super(content.getBytes(UTF_8));
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.closed = true;
+			super.close();
+		}
+
+	}
+
 	class MyBackOffPolicy implements BackOffPolicy {
 
 		private int count = 0;
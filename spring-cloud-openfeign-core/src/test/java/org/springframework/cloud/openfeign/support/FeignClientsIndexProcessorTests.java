@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import feign.MethodMetadata;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FeignClientsIndexProcessorTests {
+
+	private static final String SOURCE = "package test;\n"
+			+ "import java.util.List;\n"
+			+ "import org.springframework.cloud.openfeign.FeignClient;\n"
+			+ "import org.springframework.web.bind.annotation.GetMapping;\n"
+			+ "import org.springframework.web.bind.annotation.RequestParam;\n"
+			+ "interface BaseClient<T> {\n"
+			+ "  @GetMapping(\"/find\") T find(@RequestParam T id);\n" + "}\n"
+			+ "@FeignClient(\"stores\")\n"
+			+ "public interface StoreClient extends BaseClient<String> {\n"
+			+ "  @GetMapping(\"/stores\")\n"
+			+ "  List<String> getStores(@RequestParam String region, @RequestParam int page,\n"
+			+ "      @RequestParam String[] tags);\n"
+			+ "  @GetMapping(\"/stores\")\n"
+			+ "  List<String> near(@RequestParam String stra\u00dfe);\n"
+			+ "  @GetMapping(\"/stores\")\n"
+			+ "  List<String> since(@RequestParam java.util.Date utilDate);\n"
+			+ "  @GetMapping(\"/stores\")\n"
+			+ "  List<String> since(@RequestParam java.sql.Date sqlDate);\n"
+			+ "  default String ignored(String value) { return value; }\n" + "}\n";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File classes;
+
+	@Before
+	public void setUp() throws Exception {
+		File sources = this.temporaryFolder.newFolder("sources");
+		this.classes = this.temporaryFolder.newFolder("classes");
+		File source = new File(sources, "StoreClient.java");
+		Files.write(source.toPath(), SOURCE.getBytes(StandardCharsets.UTF_8));
+		compile(source);
+	}
+
+	@Test
+	public void indexesParameterNamesOfClientsAndTheirSuperinterfaces()
+			throws Exception {
+		List<String> index = Files.readAllLines(
+				new File(this.classes, FeignClientsIndex.INDEX_LOCATION).toPath());
+
+		assertThat(index).containsExactly("test.BaseClient#find(java.lang.Object)=id",
+				"test.StoreClient#getStores(java.lang.String,int,java.lang.String[])"
+						+ "=region,page,tags",
+				"test.StoreClient#near(java.lang.String)=stra\\u00dfe",
+				"test.StoreClient#since(java.sql.Date)=sqlDate",
+				"test.StoreClient#since(java.util.Date)=utilDate");
+	}
+
+	@Test
+	public void overloadsWithTypesOfTheSameSimpleNameAreKeptApart() throws Exception {
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { this.classes.toURI().toURL() },
+				getClass().getClassLoader())) {
+			Class<?> client = classLoader.loadClass("test.StoreClient");
+			FeignClientsIndex index = FeignClientsIndex.get(classLoader);
+
+			assertThat(index.getParameterNames(
+					client.getMethod("since", java.util.Date.class)))
+							.containsExactly("utilDate");
+			assertThat(index.getParameterNames(
+					client.getMethod("since", java.sql.Date.class)))
+							.containsExactly("sqlDate");
+		}
+	}
+
+	@Test
+	public void nonAsciiParameterNamesAreReadBack() throws Exception {
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { this.classes.toURI().toURL() },
+				getClass().getClassLoader())) {
+			Class<?> client = classLoader.loadClass("test.StoreClient");
+
+			assertThat(FeignClientsIndex.get(classLoader)
+					.getParameterNames(client.getMethod("near", String.class)))
+							.containsExactly("stra\u00dfe");
+		}
+	}
+
+	@Test
+	public void contractUsesIndexedParameterNames() throws Exception {
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { this.classes.toURI().toURL() },
+				getClass().getClassLoader())) {
+			Class<?> client = classLoader.loadClass("test.StoreClient");
+			Method getStores = Arrays.stream(client.getMethods())
+					.filter(method -> method.getName().equals("getStores")).findFirst()
+					.get();
+
+			assertThat(getStores.getParameters()[0].isNamePresent()).isFalse();
+			assertThat(FeignClientsIndex.get(classLoader).getParameterNames(getStores))
+					.containsExactly("region", "page", "tags");
+
+			MethodMetadata metadata = new SpringMvcContract()
+					.parseAndValidateMetadata(client, getStores);
+			assertThat(metadata.template().queries()).containsOnlyKeys("region",
+					"page", "tags");
+		}
+	}
+
+	private void compile(File source) throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null,
+				null, StandardCharsets.UTF_8)) {
+			List<String> options = Arrays.asList("-classpath",
+					System.getProperty("java.class.path"), "-d",
+					this.classes.getAbsolutePath(), "-processor",
+					FeignClientsIndexProcessor.class.getName(), "-proc:only");
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+					options, null, fileManager.getJavaFileObjectsFromFiles(
+							Collections.singletonList(source)));
+			assertThat(task.call()).isTrue();
+		}
+		// the classes themselves are compiled without the processor, as they would be
+		// by another module
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null,
+				null, StandardCharsets.UTF_8)) {
+			List<String> options = Arrays.asList("-classpath",
+					System.getProperty("java.class.path"), "-d",
+					this.classes.getAbsolutePath(), "-proc:none");
+			assertThat(compiler.getTask(null, fileManager, null, options, null,
+					fileManager.getJavaFileObjectsFromFiles(
+							Collections.singletonList(source)))
+					.call()).isTrue();
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FeignUtilsTests {
+
+	@Test
+	public void readOnlyHttpHeadersIsLiveView() {
+		Map<String, Collection<String>> headers = new LinkedHashMap<>();
+		headers.put("content-type", Collections.singletonList("application/json"));
+		headers.put("X-Multi", new HashSet<>(Arrays.asList("a")));
+
+		HttpHeaders httpHeaders = FeignUtils.readOnlyHttpHeaders(headers);
+
+		assertThat(httpHeaders.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(httpHeaders.get("x-multi")).containsExactly("a");
+		assertThat(httpHeaders.getFirst("Missing")).isNull();
+		assertThat(httpHeaders.keySet()).containsExactly("content-type", "X-Multi");
+
+		headers.put("Accept", Collections.singletonList("text/plain"));
+		assertThat(httpHeaders.getAccept()).containsExactly(MediaType.TEXT_PLAIN);
+	}
+
+	@Test
+	public void readOnlyHttpHeadersRejectsModification() {
+		Map<String, Collection<String>> headers = new LinkedHashMap<>();
+		headers.put("Accept", new ArrayList<>(Arrays.asList("text/plain")));
+		HttpHeaders httpHeaders = FeignUtils.readOnlyHttpHeaders(headers);
+
+		assertThatThrownBy(() -> httpHeaders.add("foo", "bar"))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> httpHeaders.get("accept").add("text/html"))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> httpHeaders.entrySet().iterator().next().getValue()
+				.clear()).isInstanceOf(UnsupportedOperationException.class);
+		assertThat(headers.get("Accept")).containsExactly("text/plain");
+	}
+
+	@Test
+	public void getHeadersIsReadOnlyView() {
+		HttpHeaders httpHeaders = new HttpHeaders();
+		httpHeaders.setContentType(MediaType.TEXT_PLAIN);
+
+		Map<String, Collection<String>> headers = FeignUtils.getHeaders(httpHeaders);
+
+		assertThat(headers.get(HttpHeaders.CONTENT_TYPE)).containsExactly("text/plain");
+		httpHeaders.setContentLength(3);
+		assertThat(headers.get(HttpHeaders.CONTENT_LENGTH)).containsExactly("3");
+		assertThatThrownBy(() -> headers.remove(HttpHeaders.CONTENT_TYPE))
+				.isInstanceOf(UnsupportedOperationException.class);
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCache.ConverterKey;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpMessageConverterCacheTests {
+
+	private final HttpMessageConverter<?> converter = new StringHttpMessageConverter();
+
+	private final List<HttpMessageConverter<?>> converters = Collections
+			.singletonList(this.converter);
+
+	@Test
+	public void resolvesOncePerKey() {
+		HttpMessageConverterCache cache = new HttpMessageConverterCache();
+		AtomicInteger lookups = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			HttpMessageConverter<?> resolved = cache.getConverter(this.converters,
+					new ConverterKey(String.class, String.class, MediaType.TEXT_PLAIN),
+					() -> {
+						lookups.incrementAndGet();
+						return this.converter;
+					});
+			assertThat(resolved).isSameAs(this.converter);
+		}
+
+		assertThat(lookups.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void doesNotCacheMisses() {
+		HttpMessageConverterCache cache = new HttpMessageConverterCache();
+		AtomicInteger lookups = new AtomicInteger();
+
+		for (int i = 0; i < 2; i++) {
+			assertThat(cache.getConverter(this.converters,
+					new ConverterKey(Integer.class, Integer.class, null), () -> {
+						lookups.incrementAndGet();
+						return null;
+					})).isNull();
+		}
+
+		assertThat(lookups.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void invalidatedWhenConvertersChange() {
+		HttpMessageConverterCache cache = new HttpMessageConverterCache();
+		ConverterKey key = new ConverterKey(String.class, String.class, null);
+		cache.getConverter(this.converters, key, () -> this.converter);
+
+		List<HttpMessageConverter<?>> changed = new ArrayList<>(this.converters);
+		AtomicInteger lookups = new AtomicInteger();
+		cache.getConverter(changed, key, () -> {
+			lookups.incrementAndGet();
+			return this.converter;
+		});
+
+		assertThat(lookups.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void boundedSize() {
+		HttpMessageConverterCache cache = new HttpMessageConverterCache(2);
+		cache.getConverter(this.converters,
+				new ConverterKey(String.class, String.class, MediaType.TEXT_PLAIN),
+				() -> this.converter);
+		cache.getConverter(this.converters,
+				new ConverterKey(String.class, String.class, MediaType.TEXT_HTML),
+				() -> this.converter);
+		cache.getConverter(this.converters,
+				new ConverterKey(String.class, String.class, MediaType.TEXT_XML),
+				() -> this.converter);
+
+		assertThat(cache.size()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	public void cachesMediaTypes() {
+		HttpMessageConverterCache cache = new HttpMessageConverterCache();
+
+		MediaType mediaType = cache.getMediaType("application/json;charset=UTF-8");
+
+		assertThat(mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)).isTrue();
+		assertThat(cache.getMediaType("application/json;charset=UTF-8"))
+				.isSameAs(mediaType);
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestBudgetTests {
+
+	@Test
+	public void extraRequestsAreLimitedToPercentageOfRequests() {
+		RequestBudget budget = new RequestBudget(10, 1);
+
+		assertThat(budget.tryAcquire()).isTrue();
+		assertThat(budget.tryAcquire()).isFalse();
+		for (int i = 0; i < 9; i++) {
+			budget.onRequest();
+		}
+		assertThat(budget.tryAcquire()).isFalse();
+		budget.onRequest();
+		assertThat(budget.tryAcquire()).isTrue();
+		assertThat(budget.getExhausted()).isEqualTo(2);
+	}
+
+	@Test
+	public void savedUpTokensAreCapped() {
+		RequestBudget budget = new RequestBudget(50, 2);
+
+		for (int i = 0; i < 100; i++) {
+			budget.onRequest();
+		}
+
+		assertThat(budget.tryAcquire()).isTrue();
+		assertThat(budget.tryAcquire()).isTrue();
+		assertThat(budget.tryAcquire()).isFalse();
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class RetryBudgetsTests {
+
+	@Test
+	public void retryerIsLimitedByBudget() throws IOException {
+		FeignClientProperties.RetryBudget properties = new FeignClientProperties.RetryBudget();
+		properties.setPercentage(50);
+		properties.setBurst(1);
+		RetryBudgets retryBudgets = new RetryBudgets(properties);
+		Capability capability = retryBudgets.capability("test");
+		Retryer retryer = capability.enrich(new Retryer.Default(1, 1, 5));
+		Client client = capability.enrich((Client) (request, options) -> null);
+
+		Retryer first = retryer.clone();
+		first.continueOrPropagate(exception());
+		assertThatThrownBy(() -> first.continueOrPropagate(exception()))
+				.isInstanceOf(RetryableException.class);
+		// two more invocations earn another retry
+		client.execute(request(new RequestTemplate()), new Request.Options());
+		client.execute(request(new RequestTemplate()), new Request.Options());
+		Retryer third = retryer.clone();
+		third.continueOrPropagate(exception());
+
+		assertThat(retryBudgets.get("test").getExhausted()).isEqualTo(1);
+		assertThat(retryBudgets.getExhausted()).isEqualTo(1);
+	}
+
+	@Test
+	public void listenerIsGivenExistingAndNewBudgets() {
+		RetryBudgets retryBudgets = new RetryBudgets(
+				new FeignClientProperties.RetryBudget());
+		RequestBudget existing = retryBudgets.get("foo");
+		Map<String, RequestBudget> created = new HashMap<>();
+
+		retryBudgets.addListener(created::put);
+		RequestBudget added = retryBudgets.get("bar");
+		retryBudgets.get("foo");
+
+		assertThat(created).containsOnly(entry("foo", existing), entry("bar", added));
+	}
+
+	@Test
+	public void exhaustedBudgetsAreMeteredPerClient() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(FeignAutoConfiguration.class))
+				.withPropertyValues("feign.client.retry-budget.enabled=true")
+				.run(context -> {
+					SimpleMeterRegistry registry = new SimpleMeterRegistry();
+					context.getBean("feignRetryBudgetMetrics", MeterBinder.class)
+							.bindTo(registry);
+					RetryBudgets retryBudgets = context.getBean(RetryBudgets.class);
+					retryBudgets.get("foo");
+
+					assertThat(registry.find("feign.client.retries.budget.exhausted")
+							.tag("client", "foo").functionCounter()).isNotNull();
+				});
+	}
+
+	@Test
+	public void tokenIsGivenBackWhenRetryerGivesUp() {
+		FeignClientProperties.RetryBudget properties = new FeignClientProperties.RetryBudget();
+		properties.setPercentage(0);
+		properties.setBurst(1);
+		RetryBudgets retryBudgets = new RetryBudgets(properties);
+		Retryer retryer = retryBudgets.capability("test")
+				.enrich(new Retryer.Default(1, 1, 1));
+
+		assertThatThrownBy(() -> retryer.clone().continueOrPropagate(exception()))
+				.isInstanceOf(RetryableException.class);
+
+		assertThat(retryBudgets.get("test").tryAcquire()).isTrue();
+	}
+
+	@Test
+	public void attemptsOfAnInvocationAreCountedOnce() {
+		FeignClientProperties.RetryBudget properties = new FeignClientProperties.RetryBudget();
+		properties.setPercentage(50);
+		properties.setBurst(1);
+		RetryBudgets retryBudgets = new RetryBudgets(properties);
+		RequestBudget budget = retryBudgets.get("test");
+		assertThat(budget.tryAcquire()).isTrue();
+		RequestTemplate template = new RequestTemplate();
+
+		// as seen by the Feign client, then by the Ribbon load balancer, then retried
+		retryBudgets.onRequest("test", request(template));
+		retryBudgets.onRequest("test", request(template));
+		retryBudgets.onRequest("test", request(template));
+		assertThat(budget.tryAcquire()).isFalse();
+
+		retryBudgets.onRequest("test", request(new RequestTemplate()));
+		assertThat(budget.tryAcquire()).isTrue();
+	}
+
+	@Test
+	public void neverRetryIsNotDecorated() {
+		RetryBudgets retryBudgets = new RetryBudgets(
+				new FeignClientProperties.RetryBudget());
+
+		assertThat(retryBudgets.capability("test").enrich(Retryer.NEVER_RETRY))
+				.isSameAs(Retryer.NEVER_RETRY);
+	}
+
+	private static Request request(RequestTemplate template) {
+		return Request.create(Request.HttpMethod.GET, "http://test",
+				Collections.emptyMap(), null, StandardCharsets.UTF_8, template);
+	}
+
+	private static RetryableException exception() {
+		Request request = Request.create(Request.HttpMethod.GET, "http://test",
+				Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+		return new RetryableException(503, "unavailable", Request.HttpMethod.GET,
+				(Date) null, request);
+	}
+
+}
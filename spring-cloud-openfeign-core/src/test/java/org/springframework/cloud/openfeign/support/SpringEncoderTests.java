@@ -22,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import feign.RequestTemplate;
 import feign.codec.EncodeException;
@@ -147,6 +148,24 @@ public class SpringEncoderTests {
 				.isEqualTo(APPLICATION_OCTET_STREAM_VALUE);
 	}
 
+	@Test
+	public void testLargeBinaryData() {
+		Encoder encoder = this.context.getInstance("foo", Encoder.class);
+		assertThat(encoder).isNotNull();
+
+		RequestTemplate request = new RequestTemplate();
+		byte[] body = new byte[3 * 1024 * 1024 + 17];
+		new Random(42).nextBytes(body);
+
+		encoder.encode(body, null, request);
+
+		assertThat(request.body()).as("Request body does not match")
+				.isEqualTo(body);
+		assertThat(((List) request.headers().get(CONTENT_LENGTH)).get(0))
+				.as("Request Content-Length does not match body size")
+				.isEqualTo(String.valueOf(body.length));
+	}
+
 	@Test(expected = EncodeException.class)
 	public void testMultipartFile1() {
 		Encoder encoder = this.context.getInstance("foo", Encoder.class);